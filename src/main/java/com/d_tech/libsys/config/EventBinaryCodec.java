@@ -0,0 +1,503 @@
+package com.d_tech.libsys.config;
+
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.InvoiceRequest;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.StockOrderItemRequest;
+import com.d_tech.libsys.dto.StockOrderRequest;
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 🚀 NEW: Kafka event'leri için şema tabanlı, sıkıştırılmış ikili (binary) kodlayıcı
+ *
+ * Kayıt düzeni: [MAGIC][tip][şema versiyonu][alanlar...]
+ * - Alanlar şemadaki sırayla, isim ve tip bilgisi olmadan yazılır
+ * - Sayılar değişken uzunlukta (varint / zigzag), metinler uzunluk önekli UTF-8
+ * - Boş olabilen her alan için null bilgisi uzunluk/öneke gömülür (0 = null)
+ * - Enum'lar isimleriyle yazılır; sabitler listenin ortasına eklense bile eski kayıtlar bozulmaz
+ *
+ * Şema değişikliği: alan sadece sona eklenir ve tipin versiyonu artırılır; okuyucu eski versiyonlarda
+ * yeni alanları okumaz. Çözme ByteBuffer üzerinden kopyasız yapılır.
+ */
+public final class EventBinaryCodec {
+
+    // JSON kayıtları '{' (0x7B) ile başlar; bu değer geçerli bir JSON başlangıcı değildir
+    public static final byte MAGIC = (byte) 0xB1;
+
+    static final byte TYPE_STOCK_CONTROL = 1;
+    static final byte TYPE_STOCK_ORDER = 2;
+    static final byte TYPE_INVOICE = 3;
+    static final byte TYPE_USER_REGISTRATION = 4;
+
+    static final byte STOCK_CONTROL_VERSION = 1;
+    static final byte STOCK_ORDER_VERSION = 1;
+    static final byte INVOICE_VERSION = 1;
+    static final byte USER_REGISTRATION_VERSION = 1;
+
+    private EventBinaryCodec() {
+    }
+
+    /**
+     * Codec'in desteklediği bir event tipi mi
+     */
+    public static boolean supports(Object event) {
+        return event instanceof StockControlEvent
+                || event instanceof StockOrderEvent
+                || event instanceof InvoiceEvent
+                || event instanceof UserRegistrationEvent;
+    }
+
+    /**
+     * Kayıt bu codec ile mi yazılmış (ilk bayt MAGIC)
+     */
+    public static boolean isBinary(ByteBuffer data) {
+        return data.remaining() > 0 && data.get(data.position()) == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        Writer out = new Writer(128);
+        out.writeByte(MAGIC);
+
+        if (event instanceof StockControlEvent stock) {
+            out.writeByte(TYPE_STOCK_CONTROL);
+            out.writeByte(STOCK_CONTROL_VERSION);
+            writeStockControl(out, stock);
+        } else if (event instanceof StockOrderEvent order) {
+            out.writeByte(TYPE_STOCK_ORDER);
+            out.writeByte(STOCK_ORDER_VERSION);
+            writeStockOrder(out, order);
+        } else if (event instanceof InvoiceEvent invoice) {
+            out.writeByte(TYPE_INVOICE);
+            out.writeByte(INVOICE_VERSION);
+            writeInvoice(out, invoice);
+        } else if (event instanceof UserRegistrationEvent registration) {
+            out.writeByte(TYPE_USER_REGISTRATION);
+            out.writeByte(USER_REGISTRATION_VERSION);
+            writeUserRegistration(out, registration);
+        } else {
+            throw new IllegalArgumentException("Binary codec bu tipi desteklemiyor: " +
+                    (event != null ? event.getClass().getName() : "null"));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Kaydı çözer; buffer'ın pozisyonu kaydın sonuna ilerler
+     */
+    public static Object decode(ByteBuffer data) {
+        if (data.get() != MAGIC) {
+            throw new IllegalArgumentException("Binary event kaydı değil (MAGIC eşleşmedi)");
+        }
+        byte type = data.get();
+        byte version = data.get();
+
+        return switch (type) {
+            case TYPE_STOCK_CONTROL -> readStockControl(data, checkVersion(version, STOCK_CONTROL_VERSION, type));
+            case TYPE_STOCK_ORDER -> readStockOrder(data, checkVersion(version, STOCK_ORDER_VERSION, type));
+            case TYPE_INVOICE -> readInvoice(data, checkVersion(version, INVOICE_VERSION, type));
+            case TYPE_USER_REGISTRATION ->
+                    readUserRegistration(data, checkVersion(version, USER_REGISTRATION_VERSION, type));
+            default -> throw new IllegalArgumentException("Bilinmeyen binary event tipi: " + type);
+        };
+    }
+
+    // 🚀 Şemalar (v1) - alan sırası değiştirilmemelidir
+
+    private static void writeStockControl(Writer out, StockControlEvent event) {
+        out.writeString(event.getEventId());
+        out.writeEnum(event.getEventType());
+        out.writeLong(event.getBookId());
+        out.writeInt(event.getQuantity());
+        out.writeString(event.getUserId());
+        out.writeDateTime(event.getEventTime());
+        out.writeEnum(event.getStatus());
+        out.writeString(event.getMessage());
+        out.writeInt(event.getRetryCount());
+        out.writeInt(event.getMaxRetries());
+    }
+
+    private static StockControlEvent readStockControl(ByteBuffer in, int version) {
+        StockControlEvent event = new StockControlEvent();
+        event.setEventId(readString(in));
+        event.setEventType(readEnum(in, StockControlEvent.EventType.class));
+        event.setBookId(readLong(in));
+        event.setQuantity(readInt(in));
+        event.setUserId(readString(in));
+        event.setEventTime(readDateTime(in));
+        event.setStatus(readEnum(in, StockControlEvent.EventStatus.class));
+        event.setMessage(readString(in));
+        event.setRetryCount(readInt(in));
+        event.setMaxRetries(readInt(in));
+        return event;
+    }
+
+    private static void writeStockOrder(Writer out, StockOrderEvent event) {
+        out.writeString(event.getEventId());
+        out.writeEnum(event.getEventType());
+        out.writeLong(event.getOrderId());
+        out.writeDateTime(event.getEventTime());
+        out.writeEnum(event.getStatus());
+        out.writeString(event.getMessage());
+        out.writeInt(event.getRetryCount());
+
+        StockOrderRequest request = event.getOrderRequest();
+        out.writeBoolean(request != null);
+        if (request == null) {
+            return;
+        }
+        out.writeString(request.getSupplierName());
+        out.writeString(request.getSupplierContact());
+        out.writeDateTime(request.getExpectedDeliveryDate());
+        out.writeString(request.getNotes());
+        out.writeString(request.getCreatedBy());
+
+        List<StockOrderItemRequest> items = request.getItems();
+        // 0 = null liste, n + 1 = n kalem
+        out.writeVarInt(items == null ? 0 : items.size() + 1);
+        if (items != null) {
+            for (StockOrderItemRequest item : items) {
+                out.writeLong(item.getBookId());
+                out.writeInt(item.getQuantity());
+                out.writeDecimal(item.getUnitPrice());
+                out.writeDecimal(item.getVatRate());
+                out.writeDecimal(item.getDiscountRate());
+                out.writeString(item.getNotes());
+            }
+        }
+    }
+
+    private static StockOrderEvent readStockOrder(ByteBuffer in, int version) {
+        StockOrderEvent event = new StockOrderEvent();
+        event.setEventId(readString(in));
+        event.setEventType(readEnum(in, StockOrderEvent.EventType.class));
+        event.setOrderId(readLong(in));
+        event.setEventTime(readDateTime(in));
+        event.setStatus(readEnum(in, StockOrderEvent.EventStatus.class));
+        event.setMessage(readString(in));
+        event.setRetryCount(readInt(in));
+
+        if (in.get() == 0) {
+            return event;
+        }
+        StockOrderRequest request = new StockOrderRequest();
+        request.setSupplierName(readString(in));
+        request.setSupplierContact(readString(in));
+        request.setExpectedDeliveryDate(readDateTime(in));
+        request.setNotes(readString(in));
+        request.setCreatedBy(readString(in));
+
+        int itemCount = readVarInt(in);
+        if (itemCount > 0) {
+            List<StockOrderItemRequest> items = new ArrayList<>(itemCount - 1);
+            for (int i = 0; i < itemCount - 1; i++) {
+                StockOrderItemRequest item = new StockOrderItemRequest();
+                item.setBookId(readLong(in));
+                item.setQuantity(readInt(in));
+                item.setUnitPrice(readDecimal(in));
+                item.setVatRate(readDecimal(in));
+                item.setDiscountRate(readDecimal(in));
+                item.setNotes(readString(in));
+                items.add(item);
+            }
+            request.setItems(items);
+        }
+        event.setOrderRequest(request);
+        return event;
+    }
+
+    private static void writeInvoice(Writer out, InvoiceEvent event) {
+        out.writeString(event.getEventId());
+        out.writeEnum(event.getEventType());
+        out.writeLong(event.getOrderId());
+        out.writeDateTime(event.getEventTime());
+        out.writeEnum(event.getStatus());
+        out.writeString(event.getMessage());
+
+        InvoiceRequest request = event.getInvoiceRequest();
+        out.writeBoolean(request != null);
+        if (request == null) {
+            return;
+        }
+        out.writeDateTime(request.getDueDate());
+        out.writeString(request.getSupplierAddress());
+        out.writeString(request.getSupplierTaxNumber());
+        out.writeString(request.getSupplierPhone());
+        out.writeString(request.getSupplierEmail());
+        out.writeString(request.getBuyerName());
+        out.writeString(request.getBuyerAddress());
+        out.writeString(request.getBuyerTaxNumber());
+        out.writeString(request.getNotes());
+        out.writeString(request.getCreatedBy());
+    }
+
+    private static InvoiceEvent readInvoice(ByteBuffer in, int version) {
+        InvoiceEvent event = new InvoiceEvent();
+        event.setEventId(readString(in));
+        event.setEventType(readEnum(in, InvoiceEvent.EventType.class));
+        event.setOrderId(readLong(in));
+        event.setEventTime(readDateTime(in));
+        event.setStatus(readEnum(in, InvoiceEvent.EventStatus.class));
+        event.setMessage(readString(in));
+
+        if (in.get() == 0) {
+            return event;
+        }
+        InvoiceRequest request = new InvoiceRequest();
+        request.setDueDate(readDateTime(in));
+        request.setSupplierAddress(readString(in));
+        request.setSupplierTaxNumber(readString(in));
+        request.setSupplierPhone(readString(in));
+        request.setSupplierEmail(readString(in));
+        request.setBuyerName(readString(in));
+        request.setBuyerAddress(readString(in));
+        request.setBuyerTaxNumber(readString(in));
+        request.setNotes(readString(in));
+        request.setCreatedBy(readString(in));
+        event.setInvoiceRequest(request);
+        return event;
+    }
+
+    private static void writeUserRegistration(Writer out, UserRegistrationEvent event) {
+        out.writeString(event.getEventId());
+        out.writeString(event.getUsername());
+        out.writeString(event.getPassword());
+        out.writeString(event.getConfirmPassword());
+
+        Set<String> roles = event.getRoles();
+        out.writeVarInt(roles == null ? 0 : roles.size() + 1);
+        if (roles != null) {
+            for (String role : roles) {
+                out.writeString(role);
+            }
+        }
+
+        out.writeDateTime(event.getEventTime());
+        out.writeEnum(event.getStatus());
+        out.writeString(event.getMessage());
+        out.writeInt(event.getRetryCount());
+        out.writeInt(event.getMaxRetries());
+    }
+
+    private static UserRegistrationEvent readUserRegistration(ByteBuffer in, int version) {
+        UserRegistrationEvent event = new UserRegistrationEvent();
+        event.setEventId(readString(in));
+        event.setUsername(readString(in));
+        event.setPassword(readString(in));
+        event.setConfirmPassword(readString(in));
+
+        int roleCount = readVarInt(in);
+        if (roleCount == 0) {
+            event.setRoles(null);
+        } else {
+            Set<String> roles = new LinkedHashSet<>();
+            for (int i = 0; i < roleCount - 1; i++) {
+                roles.add(readString(in));
+            }
+            event.setRoles(roles);
+        }
+
+        event.setEventTime(readDateTime(in));
+        event.setStatus(readEnum(in, UserRegistrationEvent.EventStatus.class));
+        event.setMessage(readString(in));
+        event.setRetryCount(readInt(in));
+        event.setMaxRetries(readInt(in));
+        return event;
+    }
+
+    // 🚀 Okuma yardımcıları - doğrudan ByteBuffer üzerinden
+
+    private static int checkVersion(byte version, byte latest, byte type) {
+        if (version < 1 || version > latest) {
+            throw new IllegalArgumentException(String.format(
+                    "Desteklenmeyen şema versiyonu: tip=%d, versiyon=%d, en yeni=%d", type, version, latest));
+        }
+        return version;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        return in.get() == 0 ? null : zigZagDecode(readVarLong(in));
+    }
+
+    private static Integer readInt(ByteBuffer in) {
+        return in.get() == 0 ? null : (int) zigZagDecode(readVarLong(in));
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        long epochSecond = zigZagDecode(readVarLong(in));
+        int nanos = readVarInt(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        int scale = (int) zigZagDecode(readVarLong(in));
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static <E extends Enum<E>> E readEnum(ByteBuffer in, Class<E> type) {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= 64) {
+                throw new IllegalArgumentException("Bozuk varint");
+            }
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Senkronize olmayan, büyüyebilen yazma tamponu
+     */
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        private void writeBoolean(boolean value) {
+            writeByte(value ? (byte) 1 : (byte) 0);
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes);
+        }
+
+        private void writeLong(Long value) {
+            writeBoolean(value != null);
+            if (value != null) {
+                writeZigZag(value);
+            }
+        }
+
+        private void writeInt(Integer value) {
+            writeBoolean(value != null);
+            if (value != null) {
+                writeZigZag(value);
+            }
+        }
+
+        private void writeDateTime(LocalDateTime value) {
+            writeBoolean(value != null);
+            if (value != null) {
+                writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+                writeVarInt(value.getNano());
+            }
+        }
+
+        private void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarInt(unscaled.length + 1);
+            writeZigZag(value.scale());
+            writeBytes(unscaled);
+        }
+
+        private void writeEnum(Enum<?> value) {
+            writeString(value != null ? value.name() : null);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.d_tech.libsys.config;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * 🚀 NEW: Binary ve JSON kayıtları birlikte okuyabilen Kafka value deserializer
+ *
+ * Kaydın ilk baytı EventBinaryCodec.MAGIC ise binary çözülür, değilse JsonDeserializer'a devredilir.
+ * Böylece bir topic binary formata geçirilirken kuyruktaki eski JSON kayıtlar da işlenmeye devam eder.
+ */
+public class EventBinaryDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data != null && data.length > 0 && data[0] == EventBinaryCodec.MAGIC) {
+            return EventBinaryCodec.decode(ByteBuffer.wrap(data));
+        }
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data != null && data.length > 0 && data[0] == EventBinaryCodec.MAGIC) {
+            return EventBinaryCodec.decode(ByteBuffer.wrap(data));
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    /**
+     * Fetch buffer'ı üzerinden kopyasız çözme (kafka-clients ByteBuffer overload'u)
+     */
+    @Override
+    public Object deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (EventBinaryCodec.isBinary(data)) {
+            return EventBinaryCodec.decode(data.duplicate());
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return jsonDeserializer.deserialize(topic, headers, bytes);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
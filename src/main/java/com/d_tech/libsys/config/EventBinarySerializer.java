@@ -0,0 +1,80 @@
+package com.d_tech.libsys.config;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 🚀 NEW: Topic bazlı seçilebilen Kafka value serializer
+ *
+ * BINARY_TOPICS listesindeki topic'lere (ve bunların .retry-* / .dlq türevlerine) yazılan event'ler
+ * EventBinaryCodec ile, diğer tüm topic'ler ve desteklenmeyen tipler JsonSerializer ile yazılır.
+ * Liste boşsa davranış tamamen JSON ile aynıdır.
+ */
+public class EventBinarySerializer implements Serializer<Object> {
+
+    public static final String BINARY_TOPICS = "libsys.serde.binary-topics";
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        binaryTopics = parseTopics(configs.get(BINARY_TOPICS));
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data != null && isBinary(topic) && EventBinaryCodec.supports(data)) {
+            return EventBinaryCodec.encode(data);
+        }
+        return jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        // Binary kayıtlar tip bilgisini kendi başlığında taşır; JSON tip header'ları eklenmez
+        if (data != null && isBinary(topic) && EventBinaryCodec.supports(data)) {
+            return EventBinaryCodec.encode(data);
+        }
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+
+    private boolean isBinary(String topic) {
+        if (binaryTopics.isEmpty() || topic == null) {
+            return false;
+        }
+        if (binaryTopics.contains(topic)) {
+            return true;
+        }
+        // Retry kademeleri ve DLQ ana topic'in formatını izler (stock-control-topic.retry-10s gibi)
+        int suffix = topic.indexOf('.');
+        return suffix > 0 && binaryTopics.contains(topic.substring(0, suffix));
+    }
+
+    private static Set<String> parseTopics(Object value) {
+        if (value == null) {
+            return Set.of();
+        }
+        Collection<?> topics = value instanceof Collection<?> collection
+                ? collection
+                : Arrays.asList(value.toString().split(","));
+        return topics.stream()
+                .map(topic -> topic.toString().trim())
+                .filter(topic -> !topic.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
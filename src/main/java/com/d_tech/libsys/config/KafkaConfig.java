@@ -1,21 +1,35 @@
 package com.d_tech.libsys.config;
 
+import com.d_tech.libsys.service.DelayedRetryGate;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.SeekUtils;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,29 +38,138 @@ import java.util.Map;
 @Configuration
 @EnableKafka
 @ConditionalOnProperty(name = "app.kafka.enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
 public class KafkaConfig {
 
+    // Spring Kafka varsayılanı: kayıt 10 kez denenir, sonra loglanıp atlanır
+    private static final long LISTENER_RETRY_ATTEMPTS = 9L;
+
+    // 🚀 Kafka client metrikleri (partition başına consumer lag, producer istek gecikmesi) actuator'a aktarılır
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id:libsys-group}")
     private String groupId;
 
+    @Value("${app.kafka.stock-control.batch.max-poll-records:500}")
+    private int stockControlBatchMaxPollRecords;
+
+    // 🚀 Ana topic'lerin partition sayısı; listener eşzamanlılığı varsayılan olarak buna eşittir
+    @Value("${app.kafka.topic.partitions:3}")
+    private int topicPartitions;
+
+    @Value("${app.kafka.listener.concurrency:${app.kafka.topic.partitions:3}}")
+    private int listenerConcurrency;
+
+    // 🚀 Binary formatla yazılacak topic'ler (virgülle ayrılmış); boşsa tüm topic'ler JSON kalır
+    @Value("${app.kafka.serde.binary-topics:}")
+    private String binaryTopics;
+
+    // 🚀 Producer ayarları; varsayılanlar eski davranışı korur, "throughput" profili yüksek hacim için ayarlar
+    @Value("${app.kafka.producer.acks:1}")
+    private String producerAcks;
+
+    @Value("${app.kafka.producer.idempotence:false}")
+    private boolean producerIdempotence;
+
+    @Value("${app.kafka.producer.batch-size:16384}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.linger-ms:0}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.compression-type:none}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.buffer-memory:33554432}")
+    private long producerBufferMemory;
+
+    @Value("${app.kafka.producer.max-in-flight:5}")
+    private int producerMaxInFlight;
+
+    // 🚀 Transactional mod: consumer offset'leri ve takip event'leri tek Kafka transaction'ında commit edilir
+    @Value("${app.kafka.transactions.enabled:false}")
+    private boolean transactionsEnabled;
+
+    @Value("${app.kafka.transactions.id-prefix:libsys-tx-}")
+    private String transactionIdPrefix;
+
+    @Value("${app.kafka.topic.user-registration:user-registration-topic}")
+    private String userRegistrationTopic;
+
+    @Value("${app.kafka.topic.stock-control:stock-control-topic}")
+    private String stockControlTopic;
+
+    @Value("${app.kafka.topic.stock-order:stock-order-topic}")
+    private String stockOrderTopic;
+
+    @Value("${app.kafka.topic.invoice:invoice-topic}")
+    private String invoiceTopic;
+
+    /**
+     * 🚀 NEW: Ana topic'ler partition sayısıyla oluşturulur (mevcut topic'lerde eksik partition'lar eklenir)
+     * Kayıtlar varlık ID'sine göre anahtarlandığı için (EventKeys) aynı kitap/sipariş hep aynı partition'a düşer.
+     * 🚀 UPDATED: Retry kademesi (.retry-1s/.retry-10s/.retry-60s) ve .dlq topic'leri de aynı partition sayısıyla
+     * tanımlanır; broker'ın otomatik topic oluşturmasına (tek partition) bırakılmaz.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics libsysTopics() {
+        List<NewTopic> topics = new ArrayList<>();
+        for (String topic : List.of(userRegistrationTopic, stockControlTopic, stockOrderTopic)) {
+            topics.add(TopicBuilder.name(topic).partitions(topicPartitions).build());
+            for (int retryCount = 1; retryCount <= 3; retryCount++) {
+                topics.add(TopicBuilder.name(topic + DelayedRetryGate.tierSuffix(retryCount)).partitions(topicPartitions).build());
+            }
+            topics.add(TopicBuilder.name(topic + ".dlq").partitions(topicPartitions).build());
+        }
+        topics.add(TopicBuilder.name(invoiceTopic).partitions(topicPartitions).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
-        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        // 🚀 UPDATED: Topic bazlı binary/JSON seçimi
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventBinarySerializer.class);
+        configProps.put(EventBinarySerializer.BINARY_TOPICS, binaryTopics);
         configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 15000);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // 🚀 UPDATED: Batching, linger ve sıkıştırma ayarlanabilir
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, producerBufferMemory);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, producerMaxInFlight);
+        if (producerIdempotence || transactionsEnabled) {
+            // Idempotent producer: acks=all zorunlu; retry'lar tekrar ya da sıra bozulması üretmez
+            configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+            configProps.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+            configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000);
+        } else {
+            configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+            configProps.put(ProducerConfig.ACKS_CONFIG, producerAcks);
+            configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        }
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps);
+        if (transactionsEnabled) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerProducerListener<>(registry)));
+        return factory;
     }
 
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory());
+        // 🚀 Transaction dışındaki gönderimler (outbox relay gibi) transactional olmayan producer kullanır
+        template.setAllowNonTransactional(transactionsEnabled);
+        return template;
     }
 
     @Bean
@@ -55,17 +178,35 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // 🚀 UPDATED: Binary ve JSON kayıtlar ilk bayta göre ayırt edilir
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EventBinaryDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        configProps.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 5000);
+        if (transactionsEnabled) {
+            // Offset'leri container commit eder; iptal edilen transaction'ların kayıtları okunmaz
+            configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            configProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        } else {
+            configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+            configProps.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 5000);
+        }
         configProps.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, 15000);
         configProps.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 15000);
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.d_tech.libsys.dto");
         configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.d_tech.libsys.dto.UserRegistrationEvent");
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(configProps));
     }
 
+    /**
+     * 🚀 UPDATED: Transactional modda container her kayıt için bir Kafka transaction'ı açar: listener'ın gönderdiği
+     * retry/DLQ event'leri ve kaydın offset'i birlikte commit edilir. Listener'daki @Transactional (JPA)
+     * bu transaction'ın içinde açılır; ProcessedEventStore'un commit sonrası bellek güncellemesi Kafka
+     * transaction'ının senkronizasyonuna bağlı olduğundan ancak Kafka commit'inden sonra çalışır.
+     * Kafka commit'i başarısız olursa kayıt tekrar gelir; bu tekrarı bellek içi küme değil,
+     * processed_events tablosundaki primary key çakışması ve after-rollback işlemcisinin yeniden denemeleri durdurur.
+     * Retry listener'ının bekletme istisnası (KafkaBackoffException) da after-rollback işlemcisine düşer:
+     * transaction geri alınır ve kayıt commit edilmeden geri sarılır.
+     * Kafka kapalıyken (bu sınıf yüklenmez) listener'lar Spring Boot'un varsayılan factory'sini kullanır ve başlatılmaz.
+     */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
@@ -73,9 +214,66 @@ public class KafkaConfig {
         factory.setConsumerFactory(consumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
         factory.getContainerProperties().setPollTimeout(3000);
-        factory.setConcurrency(1);
+        // 🚀 UPDATED: Partition başına bir consumer thread'i - anahtar başına sıra partition ile korunur
+        factory.setConcurrency(listenerConcurrency);
         factory.setMissingTopicsFatal(false);
         factory.getContainerProperties().setMissingTopicsFatal(false);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(retryGateAwareRecoverer(),
+                new FixedBackOff(0L, LISTENER_RETRY_ATTEMPTS)));
+        if (transactionsEnabled) {
+            factory.getContainerProperties().setTransactionManager(new KafkaTransactionManager<>(producerFactory()));
+            factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(retryGateAwareRecoverer(),
+                    new FixedBackOff(0L, LISTENER_RETRY_ATTEMPTS)));
+        }
+        return factory;
+    }
+
+    /**
+     * 🚀 NEW: Stok kontrol topic'i için batch listener factory
+     * Bir poll'daki tüm kayıtlar tek çağrıda işlenir; offset'ler batch işlendikten sonra manuel commit edilir.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.stock-control.batch.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        Map<String, Object> configProps = new HashMap<>(consumerFactory().getConfigurationProperties());
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.remove(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, stockControlBatchMaxPollRecords);
+        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.d_tech.libsys.dto.StockControlEvent");
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(withMetrics(new DefaultKafkaConsumerFactory<>(configProps)));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setPollTimeout(3000);
+        // 🚀 UPDATED: Partition başına bir consumer thread'i - anahtar başına sıra partition ile korunur
+        factory.setConcurrency(listenerConcurrency);
+        factory.setMissingTopicsFatal(false);
+        factory.getContainerProperties().setMissingTopicsFatal(false);
+        return factory;
+    }
+
+    /**
+     * Denemeleri tükenen kaydı loglayıp atlar; DelayedRetryGate'in bekletme istisnası ise yeniden fırlatılır,
+     * böylece kayıt hiçbir zaman "kurtarılmış" sayılıp commit edilmez, geri sarılıp resume sonrası tekrar okunur
+     */
+    private ConsumerRecordRecoverer retryGateAwareRecoverer() {
+        return (record, exception) -> {
+            if (SeekUtils.isBackoffException(exception)) {
+                throw (RuntimeException) exception;
+            }
+            log.error("Kafka kaydı denemeler tükendiği için atlandı: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset(), exception);
+        };
+    }
+
+    /**
+     * Consumer'ların client metriklerini kaydeder; kafka.consumer.fetch.manager.records.lag
+     * topic/partition etiketleriyle partition başına lag'i verir
+     */
+    private DefaultKafkaConsumerFactory<String, Object> withMetrics(DefaultKafkaConsumerFactory<String, Object> factory) {
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerConsumerListener<>(registry)));
         return factory;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.d_tech.libsys.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚀 NEW: İstek bazlı, örneklemeli izleme (app.tracing.enabled=true iken devrede)
+ *
+ * - Her isteğe bir requestId atanır (gelen X-Request-Id korunur), MDC'ye ve yanıt header'ına yazılır
+ * - Örneklenen isteklerde MDC'ye trace=on konur; SampledRequestTurboFilter bu isteklerin
+ *   uygulama DEBUG loglarını seviye kapalı olsa bile geçirir. Turbo filter bu bean ile birlikte
+ *   Logback'e eklenip kaldırılır; izleme kapalıyken her log çağrısında MDC okunmaz
+ * - Örneklenen ve yavaş istekler için tek satır özet loglanır
+ *
+ * Kapalıyken bean oluşmaz; DEBUG logları parametreli olduğu için hiçbir string üretilmez.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestTracingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_TRACE = "trace";
+    public static final String TRACE_ON = "on";
+
+    @Value("${app.tracing.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${app.tracing.slow-request-ms:1000}")
+    private long slowRequestMs;
+
+    private final SampledRequestTurboFilter turboFilter = new SampledRequestTurboFilter();
+
+    @PostConstruct
+    public void registerTurboFilter() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext) {
+            turboFilter.setContext(loggerContext);
+            turboFilter.start();
+            loggerContext.addTurboFilter(turboFilter);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterTurboFilter() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext) {
+            loggerContext.getTurboFilterList().remove(turboFilter);
+        }
+        turboFilter.stop();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank() || requestId.length() > 64) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        MDC.put(MDC_REQUEST_ID, requestId);
+        if (sampled) {
+            MDC.put(MDC_TRACE, TRACE_ON);
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (elapsedMs >= slowRequestMs) {
+                log.warn("Yavaş istek: {} {} -> {} ({} ms)",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedMs);
+            } else if (sampled) {
+                log.info("İstek: {} {} -> {} ({} ms)",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedMs);
+            }
+            MDC.remove(MDC_TRACE);
+            MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+}
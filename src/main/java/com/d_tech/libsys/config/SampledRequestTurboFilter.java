@@ -0,0 +1,30 @@
+package com.d_tech.libsys.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * 🚀 NEW: Örneklenen isteklerde (MDC trace=on) uygulama paketinin DEBUG loglarını açar
+ *
+ * Sadece izleme açıkken RequestTracingFilter tarafından Logback'e eklenir. Örneklenmeyen isteklerde
+ * tek bir MDC okuması yapar ve karar normal seviye kontrolüne bırakılır. Kütüphane logları (Hibernate, Kafka vb.) etkilenmez.
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    private static final String APP_PACKAGE = "com.d_tech.libsys";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || !level.isGreaterOrEqual(Level.DEBUG)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!RequestTracingFilter.TRACE_ON.equals(MDC.get(RequestTracingFilter.MDC_TRACE))) {
+            return FilterReply.NEUTRAL;
+        }
+        return logger.getName().startsWith(APP_PACKAGE) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -1,9 +1,14 @@
 package com.d_tech.libsys.controller;
 
 import com.d_tech.libsys.domain.model.RegistrationEvent;
+import com.d_tech.libsys.dto.DlqReplayRequest;
+import com.d_tech.libsys.dto.DlqReplayStatus;
+import com.d_tech.libsys.service.DlqReplayService;
 import com.d_tech.libsys.service.EventTrackingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +27,9 @@ public class AdminController {
 
     private final EventTrackingService eventTrackingService;
 
+    // 🚀 Sadece Kafka açıkken mevcut
+    private final ObjectProvider<DlqReplayService> dlqReplayService;
+
     /**
      * Event istatistiklerini getirir
      */
@@ -114,6 +122,79 @@ public class AdminController {
         }
     }
 
+    /**
+     * 🚀 NEW: DLQ replay başlatır - kayıtlar filtrelenip ana topic'e kontrollü hızda yeniden gönderilir
+     */
+    @PostMapping("/dlq/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startDlqReplay(@RequestBody DlqReplayRequest request) {
+        log.info("Admin DLQ replay başlattı: topic={}, eventType={}, from={}, to={}",
+                request.getTopic(), request.getEventType(), request.getFrom(), request.getTo());
+
+        DlqReplayService replayService = dlqReplayService.getIfAvailable();
+        if (replayService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Kafka kapalı, DLQ replay kullanılamaz");
+        }
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(replayService.startReplay(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 🚀 NEW: DLQ replay'lerini listeler (en yeni önce)
+     */
+    @GetMapping("/dlq/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DlqReplayStatus>> getDlqReplays() {
+        DlqReplayService replayService = dlqReplayService.getIfAvailable();
+        if (replayService == null) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(replayService.getReplays());
+    }
+
+    /**
+     * 🚀 NEW: DLQ replay ilerlemesini getirir
+     */
+    @GetMapping("/dlq/replay/{replayId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DlqReplayStatus> getDlqReplay(@PathVariable String replayId) {
+        DlqReplayService replayService = dlqReplayService.getIfAvailable();
+        if (replayService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return replayService.getReplay(replayId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 🚀 NEW: Çalışan DLQ replay'ini durdurur
+     */
+    @DeleteMapping("/dlq/replay/{replayId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> cancelDlqReplay(@PathVariable String replayId) {
+        log.info("Admin DLQ replay'ini durdurdu: replayId={}", replayId);
+
+        DlqReplayService replayService = dlqReplayService.getIfAvailable();
+        if (replayService == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            return ResponseEntity.ok(replayService.cancelReplay(replayId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
     /**
      * Sistem durumu kontrolü
      */
@@ -5,21 +5,29 @@ import com.d_tech.libsys.dto.AuthResponse;
 import com.d_tech.libsys.dto.SignupRequest;
 import com.d_tech.libsys.dto.SignupResponse;
 import com.d_tech.libsys.security.JwtUtil;
-import com.d_tech.libsys.security.UserDetailsServiceImpl;
+import com.d_tech.libsys.security.LoginAttemptLimiter;
+import com.d_tech.libsys.security.PasswordHashingExecutor;
 import com.d_tech.libsys.service.AsyncUserService;
 import com.d_tech.libsys.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Authentication Controller - Railway Optimized
  * Handles both sync and async user registration based on Kafka availability
@@ -33,7 +41,8 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginAttemptLimiter loginAttemptLimiter;
     private final UserService userService;
     private final AsyncUserService asyncUserService;
 
@@ -42,42 +51,70 @@ public class AuthController {
 
     /**
      * User login endpoint
+     *
+     * The BCrypt check runs on the bounded password hashing pool and the request thread is released
+     * while it runs. Each attempt is reserved with the limiter before it is submitted, so concurrent
+     * in-flight attempts count toward the failure limit; locked-out usernames are rejected before any
+     * hashing work, and a full hashing queue is answered with 503 right away. The token is minted from the principal returned by
+     * authentication, so the user is loaded only once per login.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody AuthRequest request) {
+        String username = request.getUsername();
+        log.info("Login attempt for username: {}", username);
+
+        long waitMs = loginAttemptLimiter.tryAcquire(username);
+        if (waitMs > 0) {
+            log.warn("Login rejected, too many attempts: username={}", username);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(waitMs) + 1))
+                    .body(createErrorResponse("Too many failed login attempts")));
+        }
+
+        CompletableFuture<Authentication> authentication;
         try {
-            log.info("Login attempt for username: {}", request.getUsername());
+            authentication = passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, request.getPassword())));
+        } catch (RejectedExecutionException e) {
+            loginAttemptLimiter.release(username);
+            log.warn("Login rejected, password hashing queue full: username={}", username);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(createErrorResponse("Login service busy, please retry")));
+        }
 
-            // Authentication
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsername(),
-                            request.getPassword()
-                    )
-            );
+        return authentication
+                .<ResponseEntity<?>>thenApply(auth -> {
+                    loginAttemptLimiter.recordSuccess(username);
 
-            // Load user details
-            UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-            log.info("User found: {}, authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
+                    UserDetails userDetails = (UserDetails) auth.getPrincipal();
+                    log.info("User authenticated: {}, authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
 
-            // Generate JWT token
-            String token = jwtUtil.generateToken(userDetails.getUsername());
+                    // Generate JWT token (roles are carried as a claim, so requests need no user lookup)
+                    String token = jwtUtil.generateToken(userDetails);
+                    return ResponseEntity.ok(new AuthResponse("Bearer " + token));
+                })
+                .exceptionally(throwable -> {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
 
-            return ResponseEntity.ok(new AuthResponse("Bearer " + token));
+                    if (cause instanceof BadCredentialsException) {
+                        loginAttemptLimiter.recordFailure(username);
+                        log.warn("Bad credentials for username: {}", username);
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(createErrorResponse("Invalid credentials"));
+                    }
 
-        } catch (BadCredentialsException e) {
-            log.warn("Bad credentials for username: {}", request.getUsername());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(createErrorResponse("Invalid credentials"));
-        } catch (Exception e) {
-            log.error("Login error: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(createErrorResponse("Login failed"));
-        }
+                    loginAttemptLimiter.release(username);
+                    log.error("Login error: {}", cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(createErrorResponse("Login failed"));
+                });
     }
 
     /**
-     * User registration endpoint - chooses sync or async based on Kafka availability
+     * User registration endpoint - async via Kafka (or the in-process event bus when
+     * app.events.in-process.async-signup=true), otherwise sync
      */
     @PostMapping("/signup")
     public ResponseEntity<SignupResponse> signup(@RequestBody SignupRequest request) {
@@ -87,16 +124,14 @@ public class AuthController {
             SignupResponse response;
             HttpStatus status;
 
-            if (kafkaEnabled) {
-                // Async registration with Kafka
-                response = asyncUserService.registerUserAsync(request);
-                status = response.getMessage().contains("alındı") || response.getMessage().contains("Event ID")
-                        ? HttpStatus.ACCEPTED : HttpStatus.BAD_REQUEST;
+            // 🚀 UPDATED: 202 when the event is queued, 201 when registered synchronously
+            response = asyncUserService.registerUserAsync(request);
+            if (response.getMessage().contains("alındı") || response.getMessage().contains("Event ID")) {
+                status = HttpStatus.ACCEPTED;
+            } else if (response.getMessage().contains("başarıyla")) {
+                status = HttpStatus.CREATED;
             } else {
-                // Sync registration without Kafka
-                response = userService.registerUser(request);
-                status = response.getMessage().contains("başarıyla")
-                        ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+                status = HttpStatus.BAD_REQUEST;
             }
 
             log.info("Registration response: username={}, success={}",
@@ -116,12 +151,7 @@ public class AuthController {
      */
     @PostMapping("/signup-async")
     public ResponseEntity<SignupResponse> signupAsync(@RequestBody SignupRequest request) {
-        if (!kafkaEnabled) {
-            log.warn("Async signup requested but Kafka is disabled, falling back to sync");
-            return signup(request);
-        }
-
-        return signup(request); // Uses async internally when Kafka is enabled
+        return signup(request); // Uses async internally when Kafka or in-process async signup is enabled
     }
 
     /**
@@ -161,7 +191,7 @@ public class AuthController {
         return ResponseEntity.ok(SystemStatusResponse.builder()
                 .status("UP")
                 .kafkaEnabled(kafkaEnabled)
-                .registrationMode(kafkaEnabled ? "ASYNC" : "SYNC")
+                .registrationMode(registrationMode())
                 .timestamp(System.currentTimeMillis())
                 .build());
     }
@@ -175,7 +205,7 @@ public class AuthController {
                 .applicationName("LibSys Library Management System")
                 .version("1.0.0")
                 .kafkaEnabled(kafkaEnabled)
-                .registrationMode(kafkaEnabled ? "ASYNC" : "SYNC")
+                .registrationMode(registrationMode())
                 .endpoints(java.util.List.of(
                         "POST /api/auth/login - User login",
                         "POST /api/auth/signup - User registration",
@@ -187,6 +217,13 @@ public class AuthController {
     }
 
     // Helper methods and DTOs
+    private String registrationMode() {
+        if (kafkaEnabled) {
+            return "ASYNC";
+        }
+        return asyncUserService.isAsyncEnabled() ? "ASYNC_IN_PROCESS" : "SYNC";
+    }
+
     private ErrorResponse createErrorResponse(String message) {
         return new ErrorResponse(message, System.currentTimeMillis());
     }
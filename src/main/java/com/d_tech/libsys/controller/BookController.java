@@ -2,11 +2,16 @@ package com.d_tech.libsys.controller;
 
 import com.d_tech.libsys.domain.model.Book;
 import com.d_tech.libsys.domain.model.BookStock;
+import com.d_tech.libsys.repository.BookRepository;
 import com.d_tech.libsys.service.BookService;
+import com.d_tech.libsys.service.JsonStreamExporter;
 import com.d_tech.libsys.service.StockService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -19,30 +24,37 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
+@Slf4j
 public class BookController {
 
     private final BookService bookService;
     private final StockService stockService;
+    private final BookRepository bookRepository;
+    private final JsonStreamExporter jsonStreamExporter;
 
     /**
-     * 🚀 ENHANCED: Tüm kitapları getir - stok bilgisi ile birlikte
+     * 🚀 ENHANCED: Kitapları sayfa sayfa getir - stok bilgisi ile birlikte
+     * Sonraki sayfa için X-Next-Cursor header'ındaki değer "after" olarak gönderilir
      */
     @GetMapping
-    public ResponseEntity<List<BookWithStockDto>> getAllBooks() {
-        System.out.println("📚 Tüm kitaplar istendi (stok bilgisi ile)");
+    public ResponseEntity<List<BookWithStockDto>> getAllBooks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.debug("Kitaplar istendi (stok bilgisi ile): after={}", after);
 
         try {
-            List<Book> books = bookService.getAllBooks();
+            int pageSize = CursorPagination.pageSize(size);
+            List<Book> books = bookService.getBooksPage(
+                    CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
 
-            List<BookWithStockDto> booksWithStock = books.stream()
-                    .map(this::convertToBookWithStockDto)
-                    .collect(Collectors.toList());
+            ResponseEntity<List<BookWithStockDto>> response =
+                    CursorPagination.page(books, pageSize, Book::getId, this::convertToBookWithStockDtos);
 
-            System.out.println("✅ " + booksWithStock.size() + " kitap döndürüldü");
-            return ResponseEntity.ok(booksWithStock);
+            log.debug("{} kitap döndürüldü", response.getBody().size());
+            return response;
 
         } catch (Exception e) {
-            System.err.println("❌ Kitaplar getirme hatası: " + e.getMessage());
+            log.error("Kitaplar getirme hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -52,22 +64,22 @@ public class BookController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<BookWithStockDto> getBookById(@PathVariable Long id) {
-        System.out.println("📖 Kitap detayı istendi: id=" + id);
+        log.debug("Kitap detayı istendi: id={}", id);
 
         try {
             Optional<Book> bookOpt = bookService.getBookById(id);
 
             if (bookOpt.isPresent()) {
                 BookWithStockDto bookWithStock = convertToBookWithStockDto(bookOpt.get());
-                System.out.println("✅ Kitap bulundu: " + bookWithStock.getTitle());
+                log.debug("Kitap bulundu: {}", bookWithStock.getTitle());
                 return ResponseEntity.ok(bookWithStock);
             } else {
-                System.out.println("❌ Kitap bulunamadı: id=" + id);
+                log.debug("Kitap bulunamadı: id={}", id);
                 return ResponseEntity.notFound().build();
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Kitap detayı getirme hatası: " + e.getMessage());
+            log.error("Kitap detayı getirme hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -76,24 +88,25 @@ public class BookController {
      * 🚀 NEW: Kategoriye göre kitapları getir
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<BookWithStockDto>> getBooksByCategory(@PathVariable String category) {
-        System.out.println("📚 Kategoriye göre kitaplar istendi: category=" + category);
+    public ResponseEntity<List<BookWithStockDto>> getBooksByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.debug("Kategoriye göre kitaplar istendi: category={}", category);
 
         try {
-            List<Book> books = bookService.getAllBooks().stream()
-                    .filter(book -> book.getCategory() != null &&
-                            book.getCategory().toLowerCase().contains(category.toLowerCase()))
-                    .collect(Collectors.toList());
+            int pageSize = CursorPagination.pageSize(size);
+            List<Book> books = bookService.getBooksByCategoryPage(
+                    category, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
 
-            List<BookWithStockDto> booksWithStock = books.stream()
-                    .map(this::convertToBookWithStockDto)
-                    .collect(Collectors.toList());
+            ResponseEntity<List<BookWithStockDto>> response =
+                    CursorPagination.page(books, pageSize, Book::getId, this::convertToBookWithStockDtos);
 
-            System.out.println("✅ " + booksWithStock.size() + " kitap bulundu (kategori: " + category + ")");
-            return ResponseEntity.ok(booksWithStock);
+            log.debug("{} kitap bulundu (kategori: {})", response.getBody().size(), category);
+            return response;
 
         } catch (Exception e) {
-            System.err.println("❌ Kategori kitapları getirme hatası: " + e.getMessage());
+            log.error("Kategori kitapları getirme hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -102,24 +115,25 @@ public class BookController {
      * 🚀 NEW: Yazar ile arama
      */
     @GetMapping("/search/author/{author}")
-    public ResponseEntity<List<BookWithStockDto>> searchByAuthor(@PathVariable String author) {
-        System.out.println("🔍 Yazar ile arama: author=" + author);
+    public ResponseEntity<List<BookWithStockDto>> searchByAuthor(
+            @PathVariable String author,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.debug("Yazar ile arama: author={}", author);
 
         try {
-            List<Book> books = bookService.getAllBooks().stream()
-                    .filter(book -> book.getAuthor() != null &&
-                            book.getAuthor().toLowerCase().contains(author.toLowerCase()))
-                    .collect(Collectors.toList());
+            int pageSize = CursorPagination.pageSize(size);
+            List<Book> books = bookService.searchByAuthorPage(
+                    author, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
 
-            List<BookWithStockDto> booksWithStock = books.stream()
-                    .map(this::convertToBookWithStockDto)
-                    .collect(Collectors.toList());
+            ResponseEntity<List<BookWithStockDto>> response =
+                    CursorPagination.page(books, pageSize, Book::getId, this::convertToBookWithStockDtos);
 
-            System.out.println("✅ " + booksWithStock.size() + " kitap bulundu (yazar: " + author + ")");
-            return ResponseEntity.ok(booksWithStock);
+            log.debug("{} kitap bulundu (yazar: {})", response.getBody().size(), author);
+            return response;
 
         } catch (Exception e) {
-            System.err.println("❌ Yazar arama hatası: " + e.getMessage());
+            log.error("Yazar arama hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -128,55 +142,52 @@ public class BookController {
      * 🚀 NEW: Kitap başlığı ile arama
      */
     @GetMapping("/search/title/{title}")
-    public ResponseEntity<List<BookWithStockDto>> searchByTitle(@PathVariable String title) {
-        System.out.println("🔍 Başlık ile arama: title=" + title);
+    public ResponseEntity<List<BookWithStockDto>> searchByTitle(
+            @PathVariable String title,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.debug("Başlık ile arama: title={}", title);
 
         try {
-            List<Book> books = bookService.getAllBooks().stream()
-                    .filter(book -> book.getTitle() != null &&
-                            book.getTitle().toLowerCase().contains(title.toLowerCase()))
-                    .collect(Collectors.toList());
+            int pageSize = CursorPagination.pageSize(size);
+            List<Book> books = bookService.searchByTitlePage(
+                    title, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
 
-            List<BookWithStockDto> booksWithStock = books.stream()
-                    .map(this::convertToBookWithStockDto)
-                    .collect(Collectors.toList());
+            ResponseEntity<List<BookWithStockDto>> response =
+                    CursorPagination.page(books, pageSize, Book::getId, this::convertToBookWithStockDtos);
 
-            System.out.println("✅ " + booksWithStock.size() + " kitap bulundu (başlık: " + title + ")");
-            return ResponseEntity.ok(booksWithStock);
+            log.debug("{} kitap bulundu (başlık: {})", response.getBody().size(), title);
+            return response;
 
         } catch (Exception e) {
-            System.err.println("❌ Başlık arama hatası: " + e.getMessage());
+            log.error("Başlık arama hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
     /**
-     * 🚀 NEW: Genel arama (başlık, yazar, kategori)
+     * 🚀 NEW: Genel arama (başlık, yazar, kategori, açıklama) - ters indeks destekli
      */
     @GetMapping("/search")
-    public ResponseEntity<List<BookWithStockDto>> searchBooks(@RequestParam String q) {
-        System.out.println("🔍 Genel arama: query=" + q);
+    public ResponseEntity<List<BookWithStockDto>> searchBooks(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer size) {
+        log.debug("Genel arama: query={}", q);
 
         try {
-            String query = q.toLowerCase();
-            List<Book> books = bookService.getAllBooks().stream()
-                    .filter(book ->
-                            (book.getTitle() != null && book.getTitle().toLowerCase().contains(query)) ||
-                                    (book.getAuthor() != null && book.getAuthor().toLowerCase().contains(query)) ||
-                                    (book.getCategory() != null && book.getCategory().toLowerCase().contains(query)) ||
-                                    (book.getDescription() != null && book.getDescription().toLowerCase().contains(query))
-                    )
+            // İndeks üzerinden aday kitaplar bulunur, sonuçlar alaka puanına göre sıralı gelir.
+            // Sıralama id'ye göre olmadığı için cursor yok, sadece en alakalı "size" kadar sonuç döner
+            List<Book> books = bookService.searchBooks(q).stream()
+                    .limit(CursorPagination.pageSize(size))
                     .collect(Collectors.toList());
 
-            List<BookWithStockDto> booksWithStock = books.stream()
-                    .map(this::convertToBookWithStockDto)
-                    .collect(Collectors.toList());
+            List<BookWithStockDto> booksWithStock = convertToBookWithStockDtos(books);
 
-            System.out.println("✅ " + booksWithStock.size() + " kitap bulundu (genel arama: " + q + ")");
+            log.debug("{} kitap bulundu (genel arama: {})", booksWithStock.size(), q);
             return ResponseEntity.ok(booksWithStock);
 
         } catch (Exception e) {
-            System.err.println("❌ Genel arama hatası: " + e.getMessage());
+            log.error("Genel arama hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -186,21 +197,16 @@ public class BookController {
      */
     @GetMapping("/categories")
     public ResponseEntity<List<String>> getCategories() {
-        System.out.println("📂 Kategoriler istendi");
+        log.debug("Kategoriler istendi");
 
         try {
-            List<String> categories = bookService.getAllBooks().stream()
-                    .map(Book::getCategory)
-                    .filter(category -> category != null && !category.trim().isEmpty())
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
+            List<String> categories = bookService.getCategories();
 
-            System.out.println("✅ " + categories.size() + " kategori bulundu");
+            log.debug("{} kategori bulundu", categories.size());
             return ResponseEntity.ok(categories);
 
         } catch (Exception e) {
-            System.err.println("❌ Kategori listesi getirme hatası: " + e.getMessage());
+            log.error("Kategori listesi getirme hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -210,7 +216,7 @@ public class BookController {
      */
     @GetMapping("/statistics")
     public ResponseEntity<BookStatisticsDto> getBookStatistics() {
-        System.out.println("📊 Kitap istatistikleri istendi");
+        log.debug("Kitap istatistikleri istendi");
 
         try {
             List<Book> allBooks = bookService.getAllBooks();
@@ -250,31 +256,48 @@ public class BookController {
                             .orElse(0.0))
                     .build();
 
-            System.out.println("✅ İstatistikler hazırlandı: " + totalBooks + " kitap");
+            log.debug("İstatistikler hazırlandı: {} kitap", totalBooks);
             return ResponseEntity.ok(stats);
 
         } catch (Exception e) {
-            System.err.println("❌ İstatistik hesaplama hatası: " + e.getMessage());
+            log.error("İstatistik hesaplama hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 🚀 NEW: Tüm kataloğu stok bilgisiyle birlikte akış olarak dışa aktar
+     * JSON dizisi satır satır yazılır, katalog belleğe alınmaz
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        log.debug("Kitap kataloğu export istendi");
+
+        StreamingResponseBody body = jsonStreamExporter.export("books",
+                bookRepository::streamAllWithStock,
+                row -> convertToBookWithStockDto((Book) row[0], Optional.ofNullable((BookStock) row[1])));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Kitap oluştur
      */
     @PostMapping
     public ResponseEntity<BookWithStockDto> createBook(@RequestBody Book book) {
-        System.out.println("📝 Yeni kitap oluşturuluyor: " + book.getTitle());
+        log.debug("Yeni kitap oluşturuluyor: {}", book.getTitle());
 
         try {
             Book savedBook = bookService.saveBook(book);
             BookWithStockDto bookWithStock = convertToBookWithStockDto(savedBook);
 
-            System.out.println("✅ Kitap oluşturuldu: id=" + savedBook.getId());
+            log.debug("Kitap oluşturuldu: id={}", savedBook.getId());
             return ResponseEntity.ok(bookWithStock);
 
         } catch (Exception e) {
-            System.err.println("❌ Kitap oluşturma hatası: " + e.getMessage());
+            log.error("Kitap oluşturma hatası: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
         }
     }
@@ -284,22 +307,22 @@ public class BookController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<BookWithStockDto> updateBook(@PathVariable Long id, @RequestBody Book book) {
-        System.out.println("✏️ Kitap güncelleniyor: id=" + id);
+        log.debug("Kitap güncelleniyor: id={}", id);
 
         try {
             Optional<Book> updatedBookOpt = bookService.updateBook(id, book);
 
             if (updatedBookOpt.isPresent()) {
                 BookWithStockDto bookWithStock = convertToBookWithStockDto(updatedBookOpt.get());
-                System.out.println("✅ Kitap güncellendi: " + bookWithStock.getTitle());
+                log.debug("Kitap güncellendi: {}", bookWithStock.getTitle());
                 return ResponseEntity.ok(bookWithStock);
             } else {
-                System.out.println("❌ Güncellenecek kitap bulunamadı: id=" + id);
+                log.debug("Güncellenecek kitap bulunamadı: id={}", id);
                 return ResponseEntity.notFound().build();
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Kitap güncelleme hatası: " + e.getMessage());
+            log.error("Kitap güncelleme hatası: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
         }
     }
@@ -309,30 +332,46 @@ public class BookController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        System.out.println("🗑️ Kitap siliniyor: id=" + id);
+        log.debug("Kitap siliniyor: id={}", id);
 
         try {
             boolean deleted = bookService.deleteBook(id);
             if (deleted) {
-                System.out.println("✅ Kitap silindi: id=" + id);
+                log.debug("Kitap silindi: id={}", id);
                 return ResponseEntity.noContent().build();
             } else {
-                System.out.println("❌ Silinecek kitap bulunamadı: id=" + id);
+                log.debug("Silinecek kitap bulunamadı: id={}", id);
                 return ResponseEntity.notFound().build();
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Kitap silme hatası: " + e.getMessage());
+            log.error("Kitap silme hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 🚀 HELPER: Book listesini BookWithStockDto listesine çevir
+     * Stok bilgileri tüm liste için tek sorguda yüklenir (kitap başına sorgu yok)
+     */
+    private List<BookWithStockDto> convertToBookWithStockDtos(List<Book> books) {
+        Map<Long, BookStock> stocksByBookId = stockService.getBookStocks(
+                books.stream().map(Book::getId).collect(Collectors.toList()));
+
+        return books.stream()
+                .map(book -> convertToBookWithStockDto(book, Optional.ofNullable(stocksByBookId.get(book.getId()))))
+                .collect(Collectors.toList());
+    }
+
     /**
      * 🚀 HELPER: Book'u BookWithStockDto'ya çevir
      */
     private BookWithStockDto convertToBookWithStockDto(Book book) {
         // Stok bilgisini getir
-        Optional<BookStock> stockOpt = stockService.getBookStock(book.getId());
+        return convertToBookWithStockDto(book, stockService.getBookStock(book.getId()));
+    }
+
+    private BookWithStockDto convertToBookWithStockDto(Book book, Optional<BookStock> stockOpt) {
 
         return BookWithStockDto.builder()
                 .id(book.getId())
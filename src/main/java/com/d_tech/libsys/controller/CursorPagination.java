@@ -0,0 +1,73 @@
+package com.d_tech.libsys.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 🚀 NEW: Liste endpoint'leri için keyset (id tabanlı) sayfalama yardımcıları
+ *
+ * İstemci ilk sayfayı "after" olmadan ister; sonraki sayfa varsa son kaydın id'si
+ * X-Next-Cursor header'ında döner ve bir sonraki istekte "after" olarak gönderilir.
+ * Servislerden her zaman size + 1 kayıt istenir, fazladan gelen kayıt sadece "devamı var" işaretidir.
+ */
+final class CursorPagination {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private CursorPagination() {
+    }
+
+    /**
+     * İstenen sayfa boyutunu [1, MAX_PAGE_SIZE] aralığına çeker
+     */
+    static int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Cursor'ı başlangıç id'sine çevirir (id'ler pozitif olduğu için ilk sayfa 0'dan başlar)
+     */
+    static long afterId(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    /**
+     * Servisten istenecek kayıt sayısı (devamı var mı kontrolü için bir fazlası)
+     */
+    static int fetchSize(int pageSize) {
+        return pageSize + 1;
+    }
+
+    /**
+     * Kayıtları sayfaya kırpar, DTO'ya çevirir ve gerekiyorsa bir sonraki cursor'ı header olarak ekler
+     */
+    static <T, R> ResponseEntity<List<R>> page(List<T> rows, int pageSize,
+                                              Function<T, Long> idExtractor,
+                                              Function<List<T>, List<R>> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        List<R> body = mapper.apply(pageRows);
+
+        if (!hasNext) {
+            return ResponseEntity.ok(body);
+        }
+        Long nextCursor = idExtractor.apply(pageRows.get(pageRows.size() - 1));
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                .body(body);
+    }
+
+    /**
+     * Entity'lerin doğrudan döndüğü endpoint'ler için kısa yol
+     */
+    static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Long> idExtractor) {
+        return page(rows, pageSize, idExtractor, Function.identity());
+    }
+}
@@ -3,12 +3,15 @@ package com.d_tech.libsys.controller;
 import com.d_tech.libsys.domain.model.Invoice;
 import com.d_tech.libsys.dto.InvoiceRequest;
 import com.d_tech.libsys.service.InvoiceService;
+import com.d_tech.libsys.service.JsonStreamExporter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +28,7 @@ import java.util.concurrent.CompletableFuture;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final JsonStreamExporter jsonStreamExporter;
 
     /**
      * Asenkron fatura oluştur
@@ -129,8 +133,6 @@ public class InvoiceController {
     @GetMapping("/order/{orderId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getInvoiceByOrderId(@PathVariable Long orderId) {
-        System.out.println("=== ENHANCED: Sipariş faturası isteniyor ===");
-        System.out.println("🔍 Order ID: " + orderId);
         log.info("Sipariş faturası istendi: orderId={}", orderId);
 
         try {
@@ -151,25 +153,18 @@ public class InvoiceController {
 
             if (invoiceOpt.isPresent()) {
                 Invoice invoice = invoiceOpt.get();
-                System.out.println("✅ Fatura bulundu: ID=" + invoice.getId() +
-                        ", Number=" + invoice.getInvoiceNumber() +
-                        ", Total=" + invoice.getGrandTotal());
-
                 log.info("Sipariş faturası bulundu: orderId={}, invoiceId={}, invoiceNumber={}",
                         orderId, invoice.getId(), invoice.getInvoiceNumber());
 
                 return ResponseEntity.ok(invoice);
             } else {
-                System.out.println("❌ Fatura bulunamadı: orderId=" + orderId);
                 log.warn("Sipariş faturası bulunamadı: orderId={}", orderId);
 
                 return ResponseEntity.notFound().build();
             }
 
         } catch (Exception e) {
-            System.out.println("💥 Sipariş faturası getirme hatası: " + e.getMessage());
             log.error("Sipariş faturası getirme hatası: orderId={}, error={}", orderId, e.getMessage(), e);
-            e.printStackTrace();
 
             return ResponseEntity.internalServerError().body(
                     ErrorResponse.builder()
@@ -222,13 +217,18 @@ public class InvoiceController {
      */
     @GetMapping("/payment-status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Invoice>> getInvoicesByPaymentStatus(@PathVariable String status) {
-        log.info("Ödeme durumuna göre faturalar istendi: status={}", status);
+    public ResponseEntity<List<Invoice>> getInvoicesByPaymentStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Ödeme durumuna göre faturalar istendi: status={}, after={}", status, after);
 
         try {
             Invoice.PaymentStatus paymentStatus = Invoice.PaymentStatus.valueOf(status.toUpperCase());
-            List<Invoice> invoices = invoiceService.getInvoicesByPaymentStatus(paymentStatus);
-            return ResponseEntity.ok(invoices);
+            int pageSize = CursorPagination.pageSize(size);
+            List<Invoice> invoices = invoiceService.getInvoicesByPaymentStatus(
+                    paymentStatus, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(invoices, pageSize, Invoice::getId);
         } catch (IllegalArgumentException e) {
             log.warn("Geçersiz ödeme durumu: {}", status);
             return ResponseEntity.badRequest().build();
@@ -243,12 +243,16 @@ public class InvoiceController {
      */
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Invoice>> getOverdueInvoices() {
-        log.info("Vadesi geçen faturalar istendi");
+    public ResponseEntity<List<Invoice>> getOverdueInvoices(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Vadesi geçen faturalar istendi: after={}", after);
 
         try {
-            List<Invoice> invoices = invoiceService.getOverdueInvoices();
-            return ResponseEntity.ok(invoices);
+            int pageSize = CursorPagination.pageSize(size);
+            List<Invoice> invoices = invoiceService.getOverdueInvoices(
+                    CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(invoices, pageSize, Invoice::getId);
         } catch (Exception e) {
             log.error("Vadesi geçen faturalar sorgusu hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -260,12 +264,16 @@ public class InvoiceController {
      */
     @GetMapping("/unpaid")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Invoice>> getUnpaidInvoices() {
-        log.info("Ödenmemiş faturalar istendi");
+    public ResponseEntity<List<Invoice>> getUnpaidInvoices(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Ödenmemiş faturalar istendi: after={}", after);
 
         try {
-            List<Invoice> invoices = invoiceService.getInvoicesByPaymentStatus(Invoice.PaymentStatus.UNPAID);
-            return ResponseEntity.ok(invoices);
+            int pageSize = CursorPagination.pageSize(size);
+            List<Invoice> invoices = invoiceService.getInvoicesByPaymentStatus(
+                    Invoice.PaymentStatus.UNPAID, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(invoices, pageSize, Invoice::getId);
         } catch (Exception e) {
             log.error("Ödenmemiş faturalar sorgusu hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -277,12 +285,17 @@ public class InvoiceController {
      */
     @GetMapping("/supplier/{supplierName}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Invoice>> getInvoicesBySupplier(@PathVariable String supplierName) {
-        log.info("Tedarikçiye göre faturalar istendi: supplier={}", supplierName);
+    public ResponseEntity<List<Invoice>> getInvoicesBySupplier(
+            @PathVariable String supplierName,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Tedarikçiye göre faturalar istendi: supplier={}, after={}", supplierName, after);
 
         try {
-            List<Invoice> invoices = invoiceService.getInvoicesBySupplier(supplierName);
-            return ResponseEntity.ok(invoices);
+            int pageSize = CursorPagination.pageSize(size);
+            List<Invoice> invoices = invoiceService.getInvoicesBySupplier(
+                    supplierName, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(invoices, pageSize, Invoice::getId);
         } catch (Exception e) {
             log.error("Tedarikçi faturaları sorgusu hatası: supplier={}, error={}",
                     supplierName, e.getMessage(), e);
@@ -295,12 +308,17 @@ public class InvoiceController {
      */
     @GetMapping("/my-invoices")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Invoice>> getMyInvoices(Authentication authentication) {
-        log.info("Kullanıcı faturaları istendi: user={}", authentication.getName());
+    public ResponseEntity<List<Invoice>> getMyInvoices(
+            Authentication authentication,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Kullanıcı faturaları istendi: user={}, after={}", authentication.getName(), after);
 
         try {
-            List<Invoice> invoices = invoiceService.getInvoicesByUser(authentication.getName());
-            return ResponseEntity.ok(invoices);
+            int pageSize = CursorPagination.pageSize(size);
+            List<Invoice> invoices = invoiceService.getInvoicesByUser(
+                    authentication.getName(), CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(invoices, pageSize, Invoice::getId);
         } catch (Exception e) {
             log.error("Kullanıcı faturaları sorgusu hatası: user={}, error={}",
                     authentication.getName(), e.getMessage(), e);
@@ -308,6 +326,22 @@ public class InvoiceController {
         }
     }
 
+    /**
+     * 🚀 NEW: Tüm faturaları akış olarak dışa aktar
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportInvoices() {
+        log.info("Fatura export istendi");
+
+        StreamingResponseBody body = jsonStreamExporter.export("invoices",
+                invoiceService::streamAllInvoices, invoice -> invoice);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Toplam ödenmemiş tutar
      */
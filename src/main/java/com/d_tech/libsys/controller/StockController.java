@@ -2,14 +2,17 @@ package com.d_tech.libsys.controller;
 
 import com.d_tech.libsys.domain.model.BookStock;
 import com.d_tech.libsys.repository.BookRepository; // ✅ EKLENDİ
+import com.d_tech.libsys.service.JsonStreamExporter;
 import com.d_tech.libsys.service.StockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -27,6 +30,7 @@ public class StockController {
 
     private final StockService stockService;
     private final BookRepository bookRepository; // ✅ EKLENDİ
+    private final JsonStreamExporter jsonStreamExporter;
 
     /**
      * Kitap için stok kaydı oluştur
@@ -144,34 +148,28 @@ public class StockController {
      */
     @GetMapping("/{bookId}")
     public ResponseEntity<BookStock> getBookStock(@PathVariable Long bookId) {
-        System.out.println("🔍 Stok bilgisi istendi: bookId=" + bookId);
+        log.debug("Stok bilgisi istendi: bookId={}", bookId);
 
         try {
             Optional<BookStock> stock = stockService.getBookStock(bookId);
 
             if (stock.isPresent()) {
                 BookStock bookStock = stock.get();
-                System.out.println("✅ Stok bilgisi bulundu: bookId=" + bookId +
-                        ", quantity=" + bookStock.getCurrentQuantity() +
-                        ", price=" + bookStock.getUnitPrice());
+                log.debug("Stok bilgisi bulundu: bookId={}, quantity={}, price={}",
+                        bookId, bookStock.getCurrentQuantity(), bookStock.getUnitPrice());
                 return ResponseEntity.ok(bookStock);
             } else {
-                System.out.println("❌ Stok bilgisi bulunamadı: bookId=" + bookId);
-
-                // Veritabanında bu bookId için kayıt var mı kontrol et
-                boolean bookExists = bookRepository.existsById(bookId);
-                System.out.println("📚 Kitap var mı: " + bookExists);
-
-                if (!bookExists) {
-                    System.out.println("⚠️  Kitap ID'si mevcut değil: " + bookId);
+                // Veritabanında bu bookId için kayıt var mı kontrol et (ek sorgu, sadece DEBUG açıkken)
+                if (log.isDebugEnabled()) {
+                    log.debug("Stok bilgisi bulunamadı: bookId={}, bookExists={}",
+                            bookId, bookRepository.existsById(bookId));
                 }
 
                 return ResponseEntity.notFound().build();
             }
 
         } catch (Exception e) {
-            System.out.println("💥 Stok bilgisi getirilirken hata: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Stok bilgisi getirme hatası: bookId={}, error={}", bookId, e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -180,35 +178,48 @@ public class StockController {
      * Düşük stoklu kitapları listele
      */
     @GetMapping("/low-stock")
-    public ResponseEntity<List<BookStock>> getLowStockBooks() {
-        log.info("Düşük stoklu kitaplar istendi");
-
-        List<BookStock> lowStockBooks = stockService.getLowStockBooks();
-        return ResponseEntity.ok(lowStockBooks);
+    public ResponseEntity<List<BookStock>> getLowStockBooks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Düşük stoklu kitaplar istendi: after={}", after);
+
+        int pageSize = CursorPagination.pageSize(size);
+        List<BookStock> lowStockBooks = stockService.getLowStockBooks(
+                CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+        return CursorPagination.page(lowStockBooks, pageSize, BookStock::getId);
     }
 
     /**
      * Yeniden stok gerekli kitapları listele
      */
     @GetMapping("/restock-needed")
-    public ResponseEntity<List<BookStock>> getBooksNeedingRestock() {
-        log.info("Yeniden stok gerekli kitaplar istendi");
-
-        List<BookStock> booksNeedingRestock = stockService.getBooksNeedingRestock();
-        return ResponseEntity.ok(booksNeedingRestock);
+    public ResponseEntity<List<BookStock>> getBooksNeedingRestock(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Yeniden stok gerekli kitaplar istendi: after={}", after);
+
+        int pageSize = CursorPagination.pageSize(size);
+        List<BookStock> booksNeedingRestock = stockService.getBooksNeedingRestock(
+                CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+        return CursorPagination.page(booksNeedingRestock, pageSize, BookStock::getId);
     }
 
     /**
      * Stok durumuna göre kitapları listele
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<BookStock>> getBooksByStockStatus(@PathVariable String status) {
-        log.info("Stok durumuna göre kitaplar istendi: status={}", status);
+    public ResponseEntity<List<BookStock>> getBooksByStockStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Stok durumuna göre kitaplar istendi: status={}, after={}", status, after);
 
         try {
             BookStock.StockStatus stockStatus = BookStock.StockStatus.valueOf(status.toUpperCase());
-            List<BookStock> books = stockService.getBooksByStockStatus(stockStatus);
-            return ResponseEntity.ok(books);
+            int pageSize = CursorPagination.pageSize(size);
+            List<BookStock> books = stockService.getBooksByStockStatus(
+                    stockStatus, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(books, pageSize, BookStock::getId);
         } catch (IllegalArgumentException e) {
             log.warn("Geçersiz stok durumu: {}", status);
             return ResponseEntity.badRequest().build();
@@ -219,11 +230,31 @@ public class StockController {
      * Tedarikçiye göre stokları listele
      */
     @GetMapping("/supplier/{supplierName}")
-    public ResponseEntity<List<BookStock>> getStocksBySupplier(@PathVariable String supplierName) {
-        log.info("Tedarikçiye göre stoklar istendi: supplier={}", supplierName);
+    public ResponseEntity<List<BookStock>> getStocksBySupplier(
+            @PathVariable String supplierName,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Tedarikçiye göre stoklar istendi: supplier={}, after={}", supplierName, after);
+
+        int pageSize = CursorPagination.pageSize(size);
+        List<BookStock> stocks = stockService.getStocksBySupplier(
+                supplierName, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+        return CursorPagination.page(stocks, pageSize, BookStock::getId);
+    }
+
+    /**
+     * 🚀 NEW: Tüm stok kayıtlarını akış olarak dışa aktar
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStocks() {
+        log.info("Stok export istendi");
+
+        StreamingResponseBody body = jsonStreamExporter.export("book-stocks",
+                stockService::streamAllStocks, stock -> stock);
 
-        List<BookStock> stocks = stockService.getStocksBySupplier(supplierName);
-        return ResponseEntity.ok(stocks);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     /**
@@ -3,13 +3,16 @@ package com.d_tech.libsys.controller;
 import com.d_tech.libsys.domain.model.StockOrder;
 import com.d_tech.libsys.dto.StockOrderRequest;
 import com.d_tech.libsys.dto.StockReceiptItem;
+import com.d_tech.libsys.service.JsonStreamExporter;
 import com.d_tech.libsys.service.StockOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -26,6 +29,7 @@ import java.util.concurrent.CompletableFuture;
 public class StockOrderController {
 
     private final StockOrderService stockOrderService;
+    private final JsonStreamExporter jsonStreamExporter;
 
     /**
      * Asenkron sipariş oluştur
@@ -187,9 +191,6 @@ public class StockOrderController {
     @GetMapping("/{orderId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getOrder(@PathVariable Long orderId) {
-        System.out.println("=== FIXED: Sipariş detayı istendi ===");
-        System.out.println("🔍 Aranan Order ID: " + orderId);
-
         log.info("Sipariş detayı istendi: orderId={}", orderId);
 
         try {
@@ -197,7 +198,7 @@ public class StockOrderController {
 
             if (orderOpt.isPresent()) {
                 StockOrder order = orderOpt.get();
-                System.out.println("✅ Sipariş bulundu: ID=" + order.getId() + ", OrderNumber=" + order.getOrderNumber());
+                log.debug("Sipariş bulundu: id={}, orderNumber={}", order.getId(), order.getOrderNumber());
 
                 // 🚀 CRITICAL FIX: Simplified DTO Response to avoid JSON serialization issues
                 OrderResponseDto response = OrderResponseDto.builder()
@@ -224,26 +225,12 @@ public class StockOrderController {
                 return ResponseEntity.ok(response);
 
             } else {
-                System.out.println("❌ Sipariş bulunamadı: orderId=" + orderId);
-
-                // DEBUG: Mevcut siparişleri listele
-                try {
-                    List<StockOrder> allOrders = stockOrderService.getAllOrdersForDebug();
-                    System.out.println("📊 Mevcut sipariş sayısı: " + allOrders.size());
-                    allOrders.stream().limit(5).forEach(o ->
-                            System.out.println("   - ID: " + o.getId() + ", OrderNumber: " + o.getOrderNumber())
-                    );
-                } catch (Exception debugEx) {
-                    System.out.println("⚠️ Debug sorgusu başarısız: " + debugEx.getMessage());
-                }
-
+                log.debug("Sipariş bulunamadı: orderId={}", orderId);
                 return ResponseEntity.notFound().build();
             }
 
         } catch (Exception e) {
-            System.out.println("💥 Sipariş detayı getirilirken hata: " + e.getMessage());
             log.error("Sipariş detayı getirme hatası: orderId={}, error={}", orderId, e.getMessage(), e);
-            e.printStackTrace();
             return ResponseEntity.internalServerError().body("Sipariş detayı getirilirken hata oluştu");
         }
     }
@@ -266,28 +253,26 @@ public class StockOrderController {
      */
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderSummaryDto>> getOrdersByStatus(@PathVariable String status) {
-        System.out.println("🔍 Duruma göre siparişler istendi: status=" + status);
-        log.info("Duruma göre siparişler istendi: status={}", status);
+    public ResponseEntity<List<OrderSummaryDto>> getOrdersByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Duruma göre siparişler istendi: status={}, after={}", status, after);
 
         try {
             StockOrder.OrderStatus orderStatus = StockOrder.OrderStatus.valueOf(status.toUpperCase());
-            List<StockOrder> orders = stockOrderService.getOrdersByStatus(orderStatus);
+            int pageSize = CursorPagination.pageSize(size);
+            List<StockOrder> orders = stockOrderService.getOrdersByStatus(
+                    orderStatus, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
 
-            System.out.println("📊 Bulunan sipariş sayısı: " + orders.size());
+            log.debug("Bulunan sipariş sayısı: {}", orders.size());
 
             // 🚀 FIXED: Simplified DTO to avoid JSON serialization issues
-            List<OrderSummaryDto> response = orders.stream()
-                    .map(this::toOrderSummaryDto)
-                    .toList();
-
-            return ResponseEntity.ok(response);
+            return CursorPagination.page(orders, pageSize, StockOrder::getId, this::toOrderSummaryDtos);
         } catch (IllegalArgumentException e) {
-            System.out.println("❌ Geçersiz sipariş durumu: " + status);
             log.warn("Geçersiz sipariş durumu: {}", status);
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            System.out.println("💥 Siparişler getirilirken hata: " + e.getMessage());
             log.error("Siparişler getirme hatası: status={}, error={}", status, e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
@@ -298,37 +283,34 @@ public class StockOrderController {
      */
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderSummaryDto>> getPendingOrders() {
-        System.out.println("🔍 Bekleyen siparişler istendi");
-        log.info("Bekleyen siparişler istendi");
+    public ResponseEntity<List<OrderSummaryDto>> getPendingOrders(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Bekleyen siparişler istendi: after={}", after);
 
         try {
-            List<StockOrder> orders = stockOrderService.getPendingOrders();
+            int pageSize = CursorPagination.pageSize(size);
+            List<StockOrder> orders = stockOrderService.getPendingOrders(
+                    CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
 
-            System.out.println("📊 Bekleyen sipariş sayısı: " + orders.size());
+            log.debug("Bekleyen sipariş sayısı: {}", orders.size());
 
             // 🚀 CRITICAL FIX: Convert to simplified DTOs to avoid JSON serialization issues
-            List<OrderSummaryDto> response = orders.stream()
-                    .map(this::toOrderSummaryDto)
-                    .toList();
-
-            // Debug: İlk siparişin detaylarını yazdır
-            if (!response.isEmpty()) {
-                OrderSummaryDto firstOrder = response.get(0);
-                System.out.println("📦 İlk sipariş detayları:");
-                System.out.println("   ├── ID: " + firstOrder.getId());
-                System.out.println("   ├── Order Number: " + firstOrder.getOrderNumber());
-                System.out.println("   ├── Supplier: " + firstOrder.getSupplierName());
-                System.out.println("   ├── Status: " + firstOrder.getStatus());
-                System.out.println("   └── Created By: " + firstOrder.getCreatedBy());
+            ResponseEntity<List<OrderSummaryDto>> response =
+                    CursorPagination.page(orders, pageSize, StockOrder::getId, this::toOrderSummaryDtos);
+
+            // Debug: İlk siparişin detayları (sadece DEBUG açıkken hesaplanır)
+            if (log.isDebugEnabled() && !response.getBody().isEmpty()) {
+                OrderSummaryDto firstOrder = response.getBody().get(0);
+                log.debug("İlk sipariş: id={}, orderNumber={}, supplier={}, status={}, createdBy={}",
+                        firstOrder.getId(), firstOrder.getOrderNumber(), firstOrder.getSupplierName(),
+                        firstOrder.getStatus(), firstOrder.getCreatedBy());
             }
 
-            return ResponseEntity.ok(response);
+            return response;
 
         } catch (Exception e) {
-            System.out.println("💥 Bekleyen siparişler getirilirken hata: " + e.getMessage());
             log.error("Bekleyen siparişler getirme hatası: {}", e.getMessage(), e);
-            e.printStackTrace();
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -349,20 +331,27 @@ public class StockOrderController {
                 .build();
     }
 
+    private List<OrderSummaryDto> toOrderSummaryDtos(List<StockOrder> orders) {
+        return orders.stream()
+                .map(this::toOrderSummaryDto)
+                .toList();
+    }
+
     /**
      * Vadesi geçen siparişleri listele
      */
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderSummaryDto>> getOverdueOrders() {
-        log.info("Vadesi geçen siparişler istendi");
+    public ResponseEntity<List<OrderSummaryDto>> getOverdueOrders(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Vadesi geçen siparişler istendi: after={}", after);
 
         try {
-            List<StockOrder> orders = stockOrderService.getOverdueOrders();
-            List<OrderSummaryDto> response = orders.stream()
-                    .map(this::toOrderSummaryDto)
-                    .toList();
-            return ResponseEntity.ok(response);
+            int pageSize = CursorPagination.pageSize(size);
+            List<StockOrder> orders = stockOrderService.getOverdueOrders(
+                    CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(orders, pageSize, StockOrder::getId, this::toOrderSummaryDtos);
         } catch (Exception e) {
             log.error("Vadesi geçen siparişler getirme hatası: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -374,15 +363,17 @@ public class StockOrderController {
      */
     @GetMapping("/supplier/{supplierName}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderSummaryDto>> getOrdersBySupplier(@PathVariable String supplierName) {
-        log.info("Tedarikçiye göre siparişler istendi: supplier={}", supplierName);
+    public ResponseEntity<List<OrderSummaryDto>> getOrdersBySupplier(
+            @PathVariable String supplierName,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Tedarikçiye göre siparişler istendi: supplier={}, after={}", supplierName, after);
 
         try {
-            List<StockOrder> orders = stockOrderService.getOrdersBySupplier(supplierName);
-            List<OrderSummaryDto> response = orders.stream()
-                    .map(this::toOrderSummaryDto)
-                    .toList();
-            return ResponseEntity.ok(response);
+            int pageSize = CursorPagination.pageSize(size);
+            List<StockOrder> orders = stockOrderService.getOrdersBySupplier(
+                    supplierName, CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(orders, pageSize, StockOrder::getId, this::toOrderSummaryDtos);
         } catch (Exception e) {
             log.error("Tedarikçi siparişleri getirme hatası: supplier={}, error={}", supplierName, e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
@@ -394,21 +385,39 @@ public class StockOrderController {
      */
     @GetMapping("/my-orders")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderSummaryDto>> getMyOrders(Authentication authentication) {
-        log.info("Kullanıcı siparişleri istendi: user={}", authentication.getName());
+    public ResponseEntity<List<OrderSummaryDto>> getMyOrders(
+            Authentication authentication,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        log.info("Kullanıcı siparişleri istendi: user={}, after={}", authentication.getName(), after);
 
         try {
-            List<StockOrder> orders = stockOrderService.getOrdersByUser(authentication.getName());
-            List<OrderSummaryDto> response = orders.stream()
-                    .map(this::toOrderSummaryDto)
-                    .toList();
-            return ResponseEntity.ok(response);
+            int pageSize = CursorPagination.pageSize(size);
+            List<StockOrder> orders = stockOrderService.getOrdersByUser(
+                    authentication.getName(), CursorPagination.afterId(after), CursorPagination.fetchSize(pageSize));
+            return CursorPagination.page(orders, pageSize, StockOrder::getId, this::toOrderSummaryDtos);
         } catch (Exception e) {
             log.error("Kullanıcı siparişleri getirme hatası: user={}, error={}", authentication.getName(), e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 🚀 NEW: Tüm siparişleri özet DTO olarak akış halinde dışa aktar
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        log.info("Sipariş export istendi");
+
+        StreamingResponseBody body = jsonStreamExporter.export("stock-orders",
+                stockOrderService::streamAllOrders, this::toOrderSummaryDto);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Sipariş iptal et
      */
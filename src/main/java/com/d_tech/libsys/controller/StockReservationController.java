@@ -0,0 +1,174 @@
+package com.d_tech.libsys.controller;
+
+import com.d_tech.libsys.dto.StockReservation;
+import com.d_tech.libsys.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * 🚀 NEW: Stok rezervasyon controller'ı (reserve / confirm / release)
+ */
+@RestController
+@RequestMapping("/api/stock/reservations")
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    /**
+     * Stok ayır (TTL süresince tutulur)
+     */
+    @PostMapping
+    public ResponseEntity<StockReservation> reserve(
+            @RequestBody ReserveRequest request,
+            Authentication authentication) {
+
+        String username = authentication != null ? authentication.getName() : "anonymous";
+        log.info("Rezervasyon isteği: bookId={}, quantity={}, user={}",
+                request.getBookId(), request.getQuantity(), username);
+
+        try {
+            StockReservation reservation = stockReservationService.reserve(
+                    request.getBookId(), request.getQuantity(), username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+
+        } catch (IllegalStateException e) {
+            log.warn("Rezervasyon reddedildi: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Geçersiz rezervasyon isteği: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Rezervasyon hatası: bookId={}, error={}", request.getBookId(), e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Açık rezervasyonu getir (sadece sahibi veya admin)
+     */
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<StockReservation> getReservation(@PathVariable String reservationId,
+                                                           Authentication authentication) {
+        Optional<StockReservation> reservation = stockReservationService.getReservation(reservationId);
+        if (reservation.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canAccess(reservation.get(), authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(reservation.get());
+    }
+
+    /**
+     * Rezervasyonu onayla (sadece sahibi veya admin)
+     */
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<StockReservation> confirm(@PathVariable String reservationId,
+                                                    Authentication authentication) {
+        log.info("Rezervasyon onayı: reservationId={}", reservationId);
+
+        try {
+            ResponseEntity<StockReservation> denied = checkAccess(reservationId, authentication);
+            if (denied != null) {
+                return denied;
+            }
+            return ResponseEntity.ok(stockReservationService.confirm(reservationId));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Rezervasyon onay hatası: reservationId={}, error={}", reservationId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Rezervasyonu bırak (sadece sahibi veya admin)
+     */
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<StockReservation> release(@PathVariable String reservationId,
+                                                    Authentication authentication) {
+        log.info("Rezervasyon bırakma: reservationId={}", reservationId);
+
+        try {
+            ResponseEntity<StockReservation> denied = checkAccess(reservationId, authentication);
+            if (denied != null) {
+                return denied;
+            }
+            return ResponseEntity.ok(stockReservationService.release(reservationId));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("Rezervasyon bırakma hatası: reservationId={}, error={}", reservationId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Kitabın rezervasyonlar sonrası kullanılabilir miktarı
+     */
+    @GetMapping("/available/{bookId}")
+    public ResponseEntity<AvailabilityResponse> getAvailability(@PathVariable Long bookId) {
+        try {
+            return ResponseEntity.ok(new AvailabilityResponse(
+                    bookId, stockReservationService.getAvailableQuantity(bookId)));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // 🚀 Yardımcı metodlar
+
+    /**
+     * Rezervasyon yoksa 404, çağıran sahibi veya admin değilse 403 döner; erişim varsa null
+     */
+    private ResponseEntity<StockReservation> checkAccess(String reservationId, Authentication authentication) {
+        Optional<StockReservation> reservation = stockReservationService.getReservation(reservationId);
+        if (reservation.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canAccess(reservation.get(), authentication)) {
+            log.warn("Başkasına ait rezervasyona erişim reddedildi: reservationId={}, user={}",
+                    reservationId, authentication != null ? authentication.getName() : null);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return null;
+    }
+
+    private static boolean canAccess(StockReservation reservation, Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return admin || authentication.getName().equals(reservation.getUserId());
+    }
+
+    // DTO sınıfları
+    @lombok.Data
+    public static class ReserveRequest {
+        private Long bookId;
+        private Integer quantity;
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    public static class AvailabilityResponse {
+        private Long bookId;
+        private Integer availableQuantity;
+    }
+}
@@ -0,0 +1,45 @@
+package com.d_tech.libsys.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 NEW: DLQ replay kontrol noktası
+ *
+ * DLQ topic'inin her partition'ı için bir sonraki taranacak offset tutulur. Replay her batch
+ * gönderildikten sonra ilerletilir; yarıda kalan veya tekrar başlatılan replay buradan devam eder.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "dlq_replay_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "uk_dlq_replay_checkpoint", columnNames = {"dlq_topic", "partition_no"}))
+public class DlqReplayCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "dlq_topic", nullable = false, length = 200)
+    private String dlqTopic;
+
+    @Column(name = "partition_no", nullable = false)
+    private Integer partition;
+
+    @Column(name = "next_offset", nullable = false)
+    private Long nextOffset;
+
+    // Bu partition'dan bugüne kadar yeniden gönderilen toplam kayıt
+    @Column(name = "replayed_count", nullable = false)
+    @Builder.Default
+    private Long replayedCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
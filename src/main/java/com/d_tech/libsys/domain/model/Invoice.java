@@ -137,13 +137,6 @@ public class Invoice {
         this.updatedAt = LocalDateTime.now();
     }
 
-    /**
-     * Fatura numarası oluştur
-     */
-    public static String generateInvoiceNumber() {
-        return "INV-" + System.currentTimeMillis();
-    }
-
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
@@ -0,0 +1,67 @@
+package com.d_tech.libsys.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 NEW: Transactional outbox kaydı
+ *
+ * İş değişikliğiyle aynı transaction içinde yazılır; OutboxRelay kayıtları toplu olarak
+ * Kafka'ya gönderir ve başarıyla gönderilenleri siler (at-least-once teslimat).
+ * 🚀 UPDATED: Relay kayıtları gönderimden önce claimedUntil'e kadar sahiplenir (kısa, kilitli bir transaction'da);
+ * deneme sınırını aşan kayıtlar silinmez, park edilir (parked=true) ve relay tarafından bir daha okunmaz.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_parked_id", columnList = "parked, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "event_id", unique = true, nullable = false, length = 100)
+    private String eventId;
+
+    @Column(name = "topic", nullable = false, length = 200)
+    private String topic;
+
+    @Column(name = "message_key", length = 200)
+    private String messageKey;
+
+    // Payload'ın Java sınıfı - relay JSON'u bu tipe çözerek gönderir
+    @Column(name = "payload_type", nullable = false, length = 200)
+    private String payloadType;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "parked", nullable = false)
+    @Builder.Default
+    private Boolean parked = false;
+
+    // Kaydı gönderen relay'in sahipliği bu zamana kadar geçerlidir; null veya geçmişse kayıt boştadır
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,42 @@
+package com.d_tech.libsys.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 NEW: İşlenmiş event kaydı (idempotent consumer)
+ *
+ * Sadece eventId (primary key) ve işlenme zamanı tutulur. Kayıt, event'in iş değişiklikleriyle
+ * aynı transaction içinde yazılır; aynı event ikinci kez işlenirse primary key çakışması
+ * transaction'ı geri alır.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "processed_events", indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processed_at"))
+public class ProcessedEvent implements Persistable<String> {
+
+    @Id
+    @Column(name = "event_id", nullable = false, length = 100)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    /**
+     * Kayıtlar hiç güncellenmez; save() her zaman INSERT yapar (merge için ek SELECT atılmaz)
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "registration_events")
+@Table(name = "registration_events",
+        indexes = @Index(name = "idx_registration_events_status_created_at", columnList = "status, created_at"))
 public class RegistrationEvent {
 
     @Id
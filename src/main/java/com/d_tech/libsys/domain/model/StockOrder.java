@@ -23,7 +23,9 @@ import java.util.List;
 public class StockOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 🚀 UPDATED: IDENTITY JDBC batch insert'i engeller; sequence 50'şer blok halinde ID ayırır
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_order_seq")
+    @SequenceGenerator(name = "stock_order_seq", sequenceName = "stock_orders_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -17,7 +17,9 @@ import java.math.BigDecimal;
 public class StockOrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 🚀 UPDATED: IDENTITY JDBC batch insert'i engeller; sequence 50'şer blok halinde ID ayırır
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_order_item_seq")
+    @SequenceGenerator(name = "stock_order_item_seq", sequenceName = "stock_order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,63 @@
+package com.d_tech.libsys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 NEW: DLQ replay isteği
+ * Filtreler boş bırakılırsa DLQ'daki tüm kayıtlar yeniden gönderilir.
+ * Filtreli (eventType/from/to) replay'ler kontrol noktasını ilerletmez.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DlqReplayRequest {
+
+    /**
+     * Ana topic adı (ör. stock-control-topic); kayıtlar "<topic>.dlq"dan okunur ve bu topic'e gönderilir
+     */
+    private String topic;
+
+    /**
+     * Sadece bu event tipindeki kayıtlar (ör. STOCK_DECREASE); kullanıcı kayıt event'lerinde tip yoktur
+     */
+    private String eventType;
+
+    /**
+     * Event zamanı alt sınırı (dahil)
+     */
+    private LocalDateTime from;
+
+    /**
+     * Event zamanı üst sınırı (hariç)
+     */
+    private LocalDateTime to;
+
+    /**
+     * Saniyede en fazla gönderilecek kayıt
+     */
+    @Builder.Default
+    private Integer ratePerSecond = 500;
+
+    /**
+     * Tek seferde gönderilip onayı beklenen kayıt sayısı
+     */
+    @Builder.Default
+    private Integer batchSize = 200;
+
+    /**
+     * En fazla yeniden gönderilecek kayıt (boş = sınırsız)
+     */
+    private Long maxRecords;
+
+    /**
+     * true ise kontrol noktası yok sayılır ve DLQ'nun başından taranır (filtresiz replay'de kontrol noktası da sıfırlanır)
+     */
+    @Builder.Default
+    private Boolean fromBeginning = false;
+}
@@ -0,0 +1,57 @@
+package com.d_tech.libsys.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 NEW: DLQ replay ilerleme durumu
+ * Sayaçlar replay thread'i tarafından kendi kopyasında güncellenir; dışarıya her adımda
+ * toBuilder ile alınan ve bir daha değişmeyen kopya verilir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DlqReplayStatus {
+
+    private String replayId;
+
+    private String dlqTopic;
+
+    private String targetTopic;
+
+    private ReplayState state;
+
+    /**
+     * Replay başlangıcında DLQ'da taranacak toplam kayıt
+     */
+    private long total;
+
+    private long scanned;
+
+    private long matched;
+
+    private long replayed;
+
+    private long failed;
+
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    public enum ReplayState {
+        RUNNING,    // Taranıyor ve gönderiliyor
+        COMPLETED,  // Başlangıçtaki son offset'e ulaşıldı
+        CANCELLED,  // Admin tarafından durduruldu
+        FAILED      // Gönderim hatası; kontrol noktasından devam edilebilir
+    }
+}
@@ -0,0 +1,62 @@
+package com.d_tech.libsys.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 NEW: Stok rezervasyonu (süreli tutma / hold)
+ * Rezervasyonlar bellekte tutulur, onay anında miktar veritabanındaki stoktan atomik olarak düşülür.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    /**
+     * Eşsiz rezervasyon ID'si
+     */
+    private String reservationId;
+
+    /**
+     * Kitap ID'si
+     */
+    private Long bookId;
+
+    /**
+     * Ayrılan miktar
+     */
+    private Integer quantity;
+
+    /**
+     * Rezervasyonu yapan kullanıcı
+     */
+    private String userId;
+
+    /**
+     * Rezervasyon durumu
+     */
+    private ReservationStatus status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /**
+     * Bu zamana kadar onaylanmazsa rezervasyon otomatik olarak serbest bırakılır
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public enum ReservationStatus {
+        HELD,       // Stok ayrıldı, onay bekleniyor
+        CONFIRMED,  // Onaylandı, stoktan düşüldü
+        RELEASED,   // Kullanıcı tarafından bırakıldı
+        EXPIRED,    // Süresi doldu
+        FAILED      // Onay anında veritabanındaki stok yetersizdi, tutma bırakıldı
+    }
+}
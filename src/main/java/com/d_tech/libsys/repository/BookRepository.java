@@ -1,7 +1,41 @@
 package com.d_tech.libsys.repository;
 
 import com.d_tech.libsys.domain.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
-}
\ No newline at end of file
+
+    // 🚀 NEW: Keyset (id > cursor) sayfalama sorguları - Pageable sadece LIMIT için kullanılır
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<Book> findByCategoryContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String category, Long afterId, Pageable pageable);
+
+    List<Book> findByAuthorContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String author, Long afterId, Pageable pageable);
+
+    List<Book> findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String title, Long afterId, Pageable pageable);
+
+    /**
+     * Boş olmayan kategoriler (tüm kitapları yüklemeden)
+     */
+    @Query("SELECT DISTINCT b.category FROM Book b WHERE b.category IS NOT NULL AND TRIM(b.category) <> '' ORDER BY b.category")
+    List<String> findDistinctCategories();
+
+    /**
+     * 🚀 NEW: Export için kitap + stok satırlarını akış olarak döndürür (Object[]{Book, BookStock|null})
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b, bs FROM Book b LEFT JOIN BookStock bs ON bs.book = b ORDER BY b.id")
+    Stream<Object[]> streamAllWithStock();
+}
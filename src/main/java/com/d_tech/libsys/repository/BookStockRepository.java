@@ -1,25 +1,49 @@
 package com.d_tech.libsys.repository;
 
 import com.d_tech.libsys.domain.model.BookStock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * BookStock repository
  */
 @Repository
-public interface BookStockRepository extends JpaRepository<BookStock, Long> {
+public interface BookStockRepository extends JpaRepository<BookStock, Long>, BookStockRepositoryCustom {
 
     /**
      * Kitaba göre stok bilgisini bulur
      */
     Optional<BookStock> findByBookId(Long bookId);
 
+    /**
+     * 🚀 NEW: Birden fazla kitabın stok bilgisini tek sorguda getirir (N+1 yerine)
+     */
+    @Query("SELECT bs FROM BookStock bs WHERE bs.book.id IN :bookIds")
+    List<BookStock> findByBookIdIn(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * 🚀 NEW: Batch consumer için stokları kilitleyerek getirir (kitap başına tek satır kilidi)
+     * bookId sırasıyla kilitlenir, böylece eşzamanlı batch'ler arasında deadlock oluşmaz.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT bs FROM BookStock bs JOIN FETCH bs.book b WHERE b.id IN :bookIds ORDER BY b.id")
+    List<BookStock> findByBookIdInForUpdate(@Param("bookIds") Collection<Long> bookIds);
+
     /**
      * Düşük stoklu kitapları bulur
      */
@@ -58,5 +82,65 @@ public interface BookStockRepository extends JpaRepository<BookStock, Long> {
      * Kitap var mı kontrolü
      */
     boolean existsByBookId(Long bookId);
+
+    /**
+     * 🚀 NEW: Atomik, koşullu stok azaltma - tek SQL ifadesi
+     * Yeterli stok yoksa hiçbir satır güncellenmez (0 döner), böylece eşzamanlı azaltmalarda eksi stok oluşmaz.
+     * Stok durumu aynı ifadede BookStock.updateStockStatus() kurallarıyla yeniden hesaplanır.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE book_stocks SET " +
+            "current_quantity = current_quantity - :quantity, " +
+            "status = CASE " +
+            "  WHEN current_quantity - :quantity = 0 THEN 'OUT_OF_STOCK' " +
+            "  WHEN current_quantity - :quantity <= minimum_quantity THEN 'LOW_STOCK' " +
+            "  WHEN current_quantity - :quantity >= maximum_quantity THEN 'OVERSTOCK' " +
+            "  ELSE 'SUFFICIENT' END, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE book_id = :bookId AND current_quantity >= :quantity",
+            nativeQuery = true)
+    int decreaseStockIfAvailable(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+
+    /**
+     * 🚀 NEW: Atomik stok artırma - tek SQL ifadesi, durum aynı ifadede yeniden hesaplanır
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE book_stocks SET " +
+            "current_quantity = current_quantity + :quantity, " +
+            "status = CASE " +
+            "  WHEN current_quantity + :quantity = 0 THEN 'OUT_OF_STOCK' " +
+            "  WHEN current_quantity + :quantity <= minimum_quantity THEN 'LOW_STOCK' " +
+            "  WHEN current_quantity + :quantity >= maximum_quantity THEN 'OVERSTOCK' " +
+            "  ELSE 'SUFFICIENT' END, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE book_id = :bookId",
+            nativeQuery = true)
+    int increaseStock(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+
+    // 🚀 NEW: Keyset (id > cursor) sayfalama sorguları - Pageable sadece LIMIT için kullanılır
+
+    @Query("SELECT bs FROM BookStock bs WHERE (bs.status = 'LOW_STOCK' OR bs.status = 'OUT_OF_STOCK') " +
+            "AND bs.id > :afterId ORDER BY bs.id")
+    List<BookStock> findLowStockBooksAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT bs FROM BookStock bs WHERE bs.currentQuantity <= bs.minimumQuantity " +
+            "AND bs.id > :afterId ORDER BY bs.id")
+    List<BookStock> findBooksNeedingRestockAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    List<BookStock> findByStatusAndIdGreaterThanOrderByIdAsc(BookStock.StockStatus status, Long afterId, Pageable pageable);
+
+    List<BookStock> findBySupplierNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String supplierName, Long afterId, Pageable pageable);
+
+    /**
+     * 🚀 NEW: Export için tüm stokları kitaplarıyla birlikte akış olarak döndürür
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT bs FROM BookStock bs JOIN FETCH bs.book ORDER BY bs.id")
+    Stream<BookStock> streamAllWithBook();
 }
 
@@ -0,0 +1,18 @@
+package com.d_tech.libsys.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🚀 NEW: BookStock için JDBC batch ile çalışan toplu stok güncellemeleri
+ * Her kitap için atomik tek satır UPDATE; tüm kitaplar tek batch round-trip ile gönderilir.
+ */
+public interface BookStockRepositoryCustom {
+
+    /**
+     * Teslimat sonrası kitap başına stok artırma; son sipariş tarihi ve miktarı da güncellenir
+     *
+     * @return stok kaydı olmadığı için güncellenemeyen bookId'ler
+     */
+    Set<Long> batchIncreaseStock(Map<Long, Integer> quantitiesByBookId);
+}
@@ -0,0 +1,67 @@
+package com.d_tech.libsys.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * BookStockRepositoryCustom implementasyonu - JdbcTemplate batchUpdate
+ * Satırlar bookId sırasıyla güncellenir, böylece eşzamanlı batch'ler arasında deadlock oluşmaz.
+ */
+@RequiredArgsConstructor
+public class BookStockRepositoryCustomImpl implements BookStockRepositoryCustom {
+
+    // Durum hesaplaması BookStock.updateStockStatus() kuralları ile aynıdır
+    private static final String INCREASE_SQL = "UPDATE book_stocks SET " +
+            "current_quantity = current_quantity + ?, " +
+            "status = CASE " +
+            "  WHEN current_quantity + ? = 0 THEN 'OUT_OF_STOCK' " +
+            "  WHEN current_quantity + ? <= minimum_quantity THEN 'LOW_STOCK' " +
+            "  WHEN current_quantity + ? >= maximum_quantity THEN 'OVERSTOCK' " +
+            "  ELSE 'SUFFICIENT' END, " +
+            "last_order_date = CURRENT_TIMESTAMP, " +
+            "last_order_quantity = ?, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE book_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<Long> batchIncreaseStock(Map<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(new TreeMap<>(quantitiesByBookId).entrySet());
+        int[][] results = jdbcTemplate.batchUpdate(INCREASE_SQL, entries, entries.size(), (ps, entry) -> {
+            int quantity = entry.getValue();
+            ps.setInt(1, quantity);
+            ps.setInt(2, quantity);
+            ps.setInt(3, quantity);
+            ps.setInt(4, quantity);
+            ps.setInt(5, quantity);
+            ps.setLong(6, entry.getKey());
+        });
+
+        return rejectedBookIds(entries, results[0]);
+    }
+
+    private static Set<Long> rejectedBookIds(List<Map.Entry<Long, Integer>> entries, int[] updateCounts) {
+        Set<Long> rejected = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            // Bazı sürücüler batch için SUCCESS_NO_INFO döndürür, bu başarı sayılır
+            int count = updateCounts[i];
+            if (count == 0 || (count < 0 && count != Statement.SUCCESS_NO_INFO)) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+}
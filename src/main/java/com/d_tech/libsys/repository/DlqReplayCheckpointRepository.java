@@ -0,0 +1,28 @@
+package com.d_tech.libsys.repository;
+
+import com.d_tech.libsys.domain.model.DlqReplayCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 🚀 NEW: DLQ replay kontrol noktası repository
+ */
+@Repository
+public interface DlqReplayCheckpointRepository extends JpaRepository<DlqReplayCheckpoint, Long> {
+
+    List<DlqReplayCheckpoint> findByDlqTopic(String dlqTopic);
+
+    /**
+     * Topic'in kontrol noktalarını siler (replay baştan başlatıldığında)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DlqReplayCheckpoint c WHERE c.dlqTopic = :dlqTopic")
+    int deleteByDlqTopic(@Param("dlqTopic") String dlqTopic);
+}
@@ -1,14 +1,19 @@
 package com.d_tech.libsys.repository;
 
 import com.d_tech.libsys.domain.model.Invoice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * ✅ SIMPLIFIED: Invoice repository - Sadece kullanılan metodlar
@@ -73,6 +78,29 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT i FROM Invoice i WHERE i.id = :id")
     Optional<Invoice> getByInvoiceId(@Param("id") Long id);
 
+    // 🚀 NEW: Keyset (id > cursor) sayfalama sorguları - Pageable sadece LIMIT için kullanılır
+
+    List<Invoice> findByPaymentStatusAndIdGreaterThanOrderByIdAsc(Invoice.PaymentStatus paymentStatus, Long afterId, Pageable pageable);
+
+    @Query("SELECT i FROM Invoice i WHERE i.dueDate < :currentDate AND i.paymentStatus IN ('UNPAID', 'PARTIAL_PAID') " +
+            "AND i.id > :afterId ORDER BY i.id")
+    List<Invoice> findOverdueInvoicesAfter(@Param("currentDate") LocalDateTime currentDate,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+
+    List<Invoice> findBySupplierNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String supplierName, Long afterId, Pageable pageable);
+
+    List<Invoice> findByCreatedByAndIdGreaterThanOrderByIdAsc(String createdBy, Long afterId, Pageable pageable);
+
+    /**
+     * 🚀 NEW: Export için tüm faturaları siparişleriyle birlikte akış olarak döndürür
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.stockOrder ORDER BY i.id")
+    Stream<Invoice> streamAllWithOrder();
+
 
 
 }
\ No newline at end of file
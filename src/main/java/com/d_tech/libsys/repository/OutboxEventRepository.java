@@ -0,0 +1,70 @@
+package com.d_tech.libsys.repository;
+
+import com.d_tech.libsys.domain.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 🚀 NEW: Outbox repository - relay için sıralı batch okuma
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 🚀 UPDATED: En eski, park edilmemiş ve sahiplenilmemiş kayıtlardan bir batch'i kilitleyerek alır
+     * SELECT ... FOR UPDATE SKIP LOCKED: başka bir relay'in o an kilitlediği kayıtlar atlanır.
+     * Aynı transaction'da claim() ile sahiplenilmelidir; gönderim transaction dışında yapılır.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = SKIP LOCKED
+    @Query("SELECT o FROM OutboxEvent o WHERE o.parked = false " +
+            "AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * 🚀 NEW: Kayıtları verilen zamana kadar sahiplenir
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.claimedUntil = :until WHERE o.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    /**
+     * 🚀 NEW: Gönderilmeden bırakılan kayıtların sahipliğini kaldırır
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.claimedUntil = NULL WHERE o.id IN :ids")
+    int release(@Param("ids") List<Long> ids);
+
+    /**
+     * 🚀 NEW: Anahtar başına en eski park edilmemiş kaydın ID'si (kilit beklemeden okunur)
+     * Batch'teki ilk kaydından daha eski bir kaydı olan anahtar başka bir relay'de gönderiliyordur.
+     */
+    @Query("SELECT o.messageKey, MIN(o.id) FROM OutboxEvent o " +
+            "WHERE o.parked = false AND o.messageKey IN :keys GROUP BY o.messageKey")
+    List<Object[]> findOldestIdByKey(@Param("keys") Collection<String> keys);
+
+    /**
+     * 🚀 UPDATED: Gönderilemeyen kayıtların deneme sayısını artırır; sınıra ulaşanlar park edilir
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.attempts = o.attempts + 1, o.lastError = :error, " +
+            "o.claimedUntil = NULL, " +
+            "o.parked = CASE WHEN o.attempts + 1 >= :maxAttempts THEN true ELSE false END WHERE o.id IN :ids")
+    int markFailed(@Param("ids") List<Long> ids, @Param("error") String error, @Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,34 @@
+package com.d_tech.libsys.repository;
+
+import com.d_tech.libsys.domain.model.ProcessedEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 🚀 NEW: İşlenmiş event repository
+ */
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    /**
+     * Bellek içi kümeyi ısıtmak için pencere içindeki en yeni event'ler
+     */
+    @Query("SELECT p FROM ProcessedEvent p WHERE p.processedAt >= :since ORDER BY p.processedAt DESC")
+    List<ProcessedEvent> findRecent(@Param("since") LocalDateTime since, Pageable pageable);
+
+    /**
+     * Saklama süresi dolan kayıtları tek sorguda siler
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessedEvent p WHERE p.processedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,10 +1,13 @@
 package com.d_tech.libsys.repository;
 
 import com.d_tech.libsys.domain.model.RegistrationEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -36,12 +39,41 @@ public interface RegistrationEventRepository extends JpaRepository<RegistrationE
      */
     List<RegistrationEvent> findByCreatedAtAfter(LocalDateTime after);
 
+    /**
+     * 🚀 NEW: Duruma göre event sayıları tek sorguda (Object[]{EventStatus, Long})
+     */
+    @Query("SELECT e.status, COUNT(e) FROM RegistrationEvent e GROUP BY e.status")
+    List<Object[]> countByStatus();
+
     /**
      * Pending ve Processing durumundaki event'leri bulur (cleanup için)
      */
     @Query("SELECT e FROM RegistrationEvent e WHERE e.status IN ('PENDING', 'PROCESSING') AND e.createdAt < :cutoffTime")
     List<RegistrationEvent> findStaleEvents(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    /**
+     * 🚀 NEW: Belirli durumda takılı kalmış event'lerin id'lerinden bir batch getirir
+     * (status, created_at) indeksi üzerinden okunur
+     */
+    @Query("SELECT e.id FROM RegistrationEvent e WHERE e.status = :status AND e.createdAt < :cutoffTime ORDER BY e.createdAt")
+    List<Long> findStaleEventIds(@Param("status") RegistrationEvent.EventStatus status,
+                                 @Param("cutoffTime") LocalDateTime cutoffTime,
+                                 Pageable pageable);
+
+    /**
+     * 🚀 NEW: Verilen event'leri tek ifadede FAILED yapar - kendi kısa transaction'ında çalışır
+     * Durum koşulu arada tamamlanan event'lerin ezilmesini önler; güncellenen satır sayısını döner
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RegistrationEvent e SET e.status = com.d_tech.libsys.domain.model.RegistrationEvent.EventStatus.FAILED, " +
+            "e.message = :message, e.updatedAt = :now, e.completedAt = :now " +
+            "WHERE e.id IN :ids AND e.status = :status")
+    int markFailed(@Param("ids") List<Long> ids,
+                   @Param("status") RegistrationEvent.EventStatus status,
+                   @Param("message") String message,
+                   @Param("now") LocalDateTime now);
+
     /**
      * Event ID'nin var olup olmadığını kontrol eder
      */
@@ -21,6 +21,13 @@ public interface StockOrderItemRepository extends JpaRepository<StockOrderItem,
      */
     List<StockOrderItem> findByStockOrderId(Long stockOrderId);
 
+    /**
+     * 🚀 NEW: Sipariş kalemlerini kitaplarıyla birlikte tek sorguda getirir
+     */
+    @Query("SELECT soi FROM StockOrderItem soi JOIN FETCH soi.book " +
+            "WHERE soi.stockOrder.id = :orderId ORDER BY soi.id")
+    List<StockOrderItem> findByStockOrderIdWithBook(@Param("orderId") Long orderId);
+
     /**
      * Kitap ID'sine göre sipariş kalemlerini bulur
      */
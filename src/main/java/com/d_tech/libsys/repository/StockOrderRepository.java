@@ -1,14 +1,19 @@
 package com.d_tech.libsys.repository;
 
 import com.d_tech.libsys.domain.model.StockOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * ✅ CLEAN: StockOrder repository - Problem çözüldü
@@ -16,6 +21,15 @@ import java.util.Optional;
 @Repository
 public interface StockOrderRepository extends JpaRepository<StockOrder, Long> {
 
+    /**
+     * 🚀 NEW: Sipariş detayı - kalemler ve fatura tek sorguda (primary key + fetch join)
+     */
+    @Query("SELECT so FROM StockOrder so " +
+            "LEFT JOIN FETCH so.orderItems " +
+            "LEFT JOIN FETCH so.invoice " +
+            "WHERE so.id = :id")
+    Optional<StockOrder> findByIdWithDetails(@Param("id") Long id);
+
     /**
      * Sipariş numarasına göre bulur
      */
@@ -61,6 +75,46 @@ public interface StockOrderRepository extends JpaRepository<StockOrder, Long> {
      */
     boolean existsByOrderNumber(String orderNumber);
 
+    // 🚀 NEW: Keyset (id > cursor) sayfalama sorguları - Pageable sadece LIMIT için kullanılır
+    // 🚀 UPDATED: invoice ters (mappedBy) @OneToOne olduğu için lazy yüklenemez; her siparişte ayrı sorgu
+    // atılmasın diye (N+1) tüm liste ve export sorgularında aynı sorguda getirilir (LEFT JOIN FETCH)
+
+    @Query("SELECT so FROM StockOrder so LEFT JOIN FETCH so.invoice " +
+            "WHERE so.status = :status AND so.id > :afterId ORDER BY so.id")
+    List<StockOrder> findByStatusAndIdGreaterThanOrderByIdAsc(@Param("status") StockOrder.OrderStatus status,
+                                                              @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT so FROM StockOrder so LEFT JOIN FETCH so.invoice " +
+            "WHERE so.status IN ('PENDING', 'CONFIRMED', 'SHIPPED') AND so.id > :afterId " +
+            "ORDER BY so.id")
+    List<StockOrder> findPendingOrdersAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT so FROM StockOrder so LEFT JOIN FETCH so.invoice WHERE so.expectedDeliveryDate < :currentDate " +
+            "AND so.status NOT IN ('DELIVERED', 'CANCELLED') AND so.id > :afterId ORDER BY so.id")
+    List<StockOrder> findOverdueOrdersAfter(@Param("currentDate") LocalDateTime currentDate,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT so FROM StockOrder so LEFT JOIN FETCH so.invoice " +
+            "WHERE LOWER(so.supplierName) LIKE LOWER(CONCAT('%', :supplierName, '%')) AND so.id > :afterId ORDER BY so.id")
+    List<StockOrder> findBySupplierNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(@Param("supplierName") String supplierName,
+                                                                                        @Param("afterId") Long afterId,
+                                                                                        Pageable pageable);
+
+    @Query("SELECT so FROM StockOrder so LEFT JOIN FETCH so.invoice " +
+            "WHERE so.createdBy = :createdBy AND so.id > :afterId ORDER BY so.id")
+    List<StockOrder> findByCreatedByAndIdGreaterThanOrderByIdAsc(@Param("createdBy") String createdBy,
+                                                                 @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 🚀 NEW: Export için tüm siparişleri akış olarak döndürür
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT so FROM StockOrder so LEFT JOIN FETCH so.invoice ORDER BY so.id")
+    Stream<StockOrder> streamAll();
+
     // ✅ DEBUG METHODS - Sadece çalışan olanlar
 
     /**
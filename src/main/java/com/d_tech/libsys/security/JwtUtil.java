@@ -1,134 +1,187 @@
 package com.d_tech.libsys.security;
 
-import io.jsonwebtoken.*;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
-
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 🚀 UPDATED: Durumsuz (stateless) JWT üretimi ve doğrulaması
+ *
+ * - Roller token'a "roles" claim'i olarak gömülür; doğrulama için veritabanına gidilmez
+ * - İmza ve süre kontrolü tek, yeniden kullanılan parser ile tek seferde yapılır
+ * - Doğrulanmış token'lar özetlerine (SHA-256) göre sınırlı bir önbellekte token'ın süresi dolana
+ *   kadar tutulur; aynı token'la gelen sonraki istekler imza kontrolü yapmadan kimlik bulur
+ *
+ * Rol değişiklikleri yeni token alındığında geçerli olur.
+ */
 @Component
+@Slf4j
 public class JwtUtil {
 
-    private static final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; // 24 hours
+    static final String ROLES_CLAIM = "roles";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final SecretKey secretKey;
+    private final JwtParser parser;
+    private final long expirationMs;
+    private final int maxCachedTokens;
+
+    // token özeti -> doğrulanmış kimlik; ekleme sırasında tutulur, sınır aşılınca en eski kayıt atılır.
+    // Harita ve sıra tek yapıda olduğundan süresi dolan kaydın silinmesi sırayı da temizler.
+    private final Map<String, CachedPrincipal> principalCache;
+
+    public JwtUtil(@Value("${jwt.secret:}") String secret,
+                   @Value("${jwt.expiration:86400000}") long expirationMs,
+                   @Value("${jwt.cache-size:10000}") int maxCachedTokens,
+                   @Value("#{environment.matchesProfiles('prod')}") boolean secretRequired) {
+        // Roller token'dan okunduğu için anahtar tahmin edilemez olmalı: repoda varsayılan yok, kısa anahtarla
+        // açılış reddedilir. Tanımlı değilse prod'da açılış reddedilir, diğer profillerde rastgele anahtar kullanılır.
+        if (secret.isBlank()) {
+            if (secretRequired) {
+                throw new IllegalStateException("jwt.secret tanımlı değil (JWT_SECRET), prod profilinde zorunludur");
+            }
+            log.warn("jwt.secret tanımlı değil, rastgele anahtar kullanılıyor (token'lar yeniden başlatmada geçersizleşir)");
+            this.secretKey = Jwts.SIG.HS256.key().build();
+        } else {
+            byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (secretBytes.length < 32) {
+                throw new IllegalStateException("jwt.secret en az 32 bayt olmalı (HS256)");
+            }
+            this.secretKey = Keys.hmacShaKeyFor(secretBytes);
+        }
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.expirationMs = expirationMs;
+        this.maxCachedTokens = maxCachedTokens;
+        this.principalCache = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > JwtUtil.this.maxCachedTokens;
+            }
+        };
+    }
 
-    public String generateToken(String username) {
-        System.out.println("🎫 JWT Token oluşturuluyor: username=" + username);
+    /**
+     * Kullanıcı adı ve rolleri (ROLE_ öneki olmadan) içeren token üretir
+     */
+    public String generateToken(UserDetails userDetails) {
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .toList();
 
+        Date now = new Date();
         String token = Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SECRET_KEY)
+                .subject(userDetails.getUsername())
+                .claim(ROLES_CLAIM, roles)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + expirationMs))
+                .signWith(secretKey)
                 .compact();
 
-        System.out.println("✅ JWT Token oluşturuldu:");
-        System.out.println("   ├── Username: " + username);
-        System.out.println("   ├── Token uzunluğu: " + token.length());
-        System.out.println("   ├── İlk 30 karakter: " + token.substring(0, Math.min(token.length(), 30)) + "...");
-        System.out.println("   └── Expiration: " + new Date(System.currentTimeMillis() + EXPIRATION_TIME));
-
+        log.debug("JWT token oluşturuldu: username={}, roles={}", userDetails.getUsername(), roles);
         return token;
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        System.out.println("🔐 JWT Token validation başlatılıyor:");
-        System.out.println("   ├── UserDetails username: " + userDetails.getUsername());
-        System.out.println("   └── Token uzunluğu: " + token.length());
+    /**
+     * Token'ı doğrular ve kimliği döndürür; geçersiz veya süresi dolmuşsa boş döner
+     */
+    public Optional<UserDetails> resolvePrincipal(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+
+        CachedPrincipal cached;
+        synchronized (principalCache) {
+            cached = principalCache.get(digest);
+            if (cached != null && now >= cached.expiresAt()) {
+                principalCache.remove(digest);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            return Optional.of(cached.principal());
+        }
 
+        Claims claims;
         try {
-            final String username = extractUsername(token);
-            System.out.println("   ├── Token'dan çıkarılan username: " + username);
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT doğrulanamadı: type={}, message={}", e.getClass().getSimpleName(), e.getMessage());
+            return Optional.empty();
+        }
 
-            boolean usernameMatches = username.equals(userDetails.getUsername());
-            System.out.println("   ├── Username eşleşmesi: " + usernameMatches);
+        UserDetails principal = User.withUsername(claims.getSubject())
+                .password("")
+                .authorities(authoritiesOf(claims))
+                .build();
+        cache(digest, new CachedPrincipal(principal, claims.getExpiration().getTime()));
+        return Optional.of(principal);
+    }
 
-            boolean tokenExpired = isTokenExpired(token);
-            System.out.println("   ├── Token süresi dolmuş mu: " + tokenExpired);
+    /**
+     * Token'dan kullanıcı adını çıkarır (imza ve süre doğrulanır)
+     */
+    public String extractUsername(String token) {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
 
-            boolean valid = usernameMatches && !tokenExpired;
-            System.out.println("   └── Final validation result: " + valid);
+    public boolean validateToken(String token) {
+        return resolvePrincipal(token).isPresent();
+    }
+
+    // 🚀 Yardımcı metodlar
 
-            return valid;
-        } catch (Exception e) {
-            System.out.println("❌ Token validation hatası:");
-            System.out.println("   ├── Exception type: " + e.getClass().getSimpleName());
-            System.out.println("   └── Message: " + e.getMessage());
-            return false;
+    private void cache(String digest, CachedPrincipal principal) {
+        synchronized (principalCache) {
+            principalCache.put(digest, principal);
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        try {
-            Date expiration = parseToken(token).getBody().getExpiration();
-            Date now = new Date();
-            boolean expired = expiration.before(now);
-
-            System.out.println("🕐 Token expiration kontrolü:");
-            System.out.println("   ├── Token expiration: " + expiration);
-            System.out.println("   ├── Şu anki zaman: " + now);
-            System.out.println("   └── Süresi dolmuş mu: " + expired);
-
-            return expired;
-        } catch (Exception e) {
-            System.out.println("❌ Token expiration kontrol hatası: " + e.getMessage());
-            return true; // Hata varsa expired olarak kabul et
+    int cachedTokenCount() {
+        synchronized (principalCache) {
+            return principalCache.size();
         }
     }
 
-    public String extractUsername(String token) {
-        try {
-            String username = parseToken(token).getBody().getSubject();
-            System.out.println("👤 Username çıkarıldı: " + username);
-            return username;
-        } catch (ExpiredJwtException e) {
-            System.out.println("❌ Token süresi dolmuş: " + e.getMessage());
-            System.out.println("   └── Süresi dolan username: " + e.getClaims().getSubject());
-            throw e;
-        } catch (Exception e) {
-            System.out.println("❌ Username çıkarma hatası:");
-            System.out.println("   ├── Exception type: " + e.getClass().getSimpleName());
-            System.out.println("   └── Message: " + e.getMessage());
-            throw e;
+    private static Collection<GrantedAuthority> authoritiesOf(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
         }
+        return values.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                .toList();
     }
 
-    public boolean validateToken(String token) {
-        System.out.println("🔐 Simple token validation:");
+    private static String digest(String token) {
         try {
-            parseToken(token);
-            System.out.println("✅ Token format geçerli");
-            return true;
-        } catch (ExpiredJwtException e) {
-            System.out.println("❌ Token süresi dolmuş: " + e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            System.out.println("❌ Desteklenmeyen token: " + e.getMessage());
-        } catch (MalformedJwtException e) {
-            System.out.println("❌ Bozuk token format: " + e.getMessage());
-        } catch (SecurityException e) {
-            System.out.println("❌ Token güvenlik hatası: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            System.out.println("❌ Token argument hatası: " + e.getMessage());
-        } catch (Exception e) {
-            System.out.println("❌ Genel token doğrulama hatası: " + e.getMessage());
-            e.printStackTrace();
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
         }
-        return false;
     }
 
-    private Jws<Claims> parseToken(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token);
-        } catch (Exception e) {
-            System.out.println("❌ Token parse hatası:");
-            System.out.println("   ├── Exception type: " + e.getClass().getSimpleName());
-            System.out.println("   └── Message: " + e.getMessage());
-            throw e;
-        }
+    private record CachedPrincipal(UserDetails principal, long expiresAt) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package com.d_tech.libsys.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🚀 NEW: Kullanıcı bazlı başarısız giriş sınırlayıcı
+ *
+ * Bir kullanıcı adı için pencere içinde max-failures kadar hatalı giriş olursa, kilit süresi
+ * boyunca yeni denemeler BCrypt doğrulamasına hiç gönderilmeden reddedilir. Başarılı giriş sayacı sıfırlar.
+ * Kayıtlar bellektedir; süresi dolanlar periyodik olarak temizlenir.
+ *
+ * 🚀 UPDATED:
+ * - Deneme doğrulamaya gönderilmeden önce tryAcquire ile atomik olarak ayrılır; sonuçlanmamış (in-flight) denemeler
+ *   de sınıra sayılır, böylece eşzamanlı istekler sınırı aşamaz. Ayrılan deneme recordFailure/recordSuccess/release
+ *   ile kapatılmalıdır.
+ * - Takip edilen kullanıcı adı sayısı max-tracked-users ile sınırlıdır (var olmayan adlarla yapılan denemeler
+ *   belleği büyütemez); dolunca önce kilitsiz ve boştaki kayıtlar atılır, yer açılamazsa yeni ad geçici reddedilir.
+ */
+@Component
+@Slf4j
+public class LoginAttemptLimiter {
+
+    private final int maxFailures;
+    private final long windowMs;
+    private final long lockoutMs;
+    private final int maxTrackedUsers;
+
+    // Sınıra in-flight denemelerle ulaşıldığında veya tablo doluyken önerilen bekleme
+    private static final long BUSY_RETRY_MS = 1000;
+
+    // kullanıcı adı (küçük harf) -> hatalı deneme durumu
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+
+    public LoginAttemptLimiter(@Value("${app.security.login.max-failures:5}") int maxFailures,
+                               @Value("${app.security.login.window-seconds:300}") long windowSeconds,
+                               @Value("${app.security.login.lockout-seconds:300}") long lockoutSeconds,
+                               @Value("${app.security.login.max-tracked-users:100000}") int maxTrackedUsers) {
+        this.maxFailures = maxFailures;
+        this.windowMs = windowSeconds * 1000;
+        this.lockoutMs = lockoutSeconds * 1000;
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+
+    /**
+     * Bir giriş denemesi ayırır. Ayrıldıysa 0, değilse tekrar denemeden önce beklenecek süre (ms) döner.
+     */
+    public long tryAcquire(String username) {
+        String key = key(username);
+        long now = System.currentTimeMillis();
+
+        if (!attempts.containsKey(key) && attempts.size() >= maxTrackedUsers) {
+            makeRoom(now);
+            if (attempts.size() >= maxTrackedUsers) {
+                log.warn("Giriş denemesi takip tablosu dolu, deneme reddedildi: username={}", username);
+                return BUSY_RETRY_MS;
+            }
+        }
+
+        long[] waitMs = {0};
+        attempts.compute(key, (name, current) -> {
+            if (current == null) {
+                return new Attempts(0, 1, now, 0);
+            }
+            if (now < current.lockedUntil) {
+                waitMs[0] = current.lockedUntil - now;
+                return current;
+            }
+            Attempts active = now - current.windowStart > windowMs
+                    ? new Attempts(0, current.inFlight, now, 0) : current;
+            if (active.failures + active.inFlight >= maxFailures) {
+                waitMs[0] = BUSY_RETRY_MS;
+                return active;
+            }
+            return new Attempts(active.failures, active.inFlight + 1, active.windowStart, active.lockedUntil);
+        });
+        return waitMs[0];
+    }
+
+    /**
+     * Kullanıcı kilitliyse kilidin bitmesine kalan süre (ms), değilse 0
+     */
+    public long remainingLockMs(String username) {
+        Attempts current = attempts.get(key(username));
+        if (current == null) {
+            return 0;
+        }
+        return Math.max(0, current.lockedUntil - System.currentTimeMillis());
+    }
+
+    public void recordFailure(String username) {
+        long now = System.currentTimeMillis();
+        Attempts updated = attempts.compute(key(username), (name, current) -> {
+            int inFlight = current == null ? 0 : Math.max(0, current.inFlight - 1);
+            if (current == null || now - current.windowStart > windowMs) {
+                return new Attempts(1, inFlight, now, 0);
+            }
+            int failures = current.failures + 1;
+            long lockedUntil = failures >= maxFailures ? now + lockoutMs : current.lockedUntil;
+            return new Attempts(failures, inFlight, current.windowStart, lockedUntil);
+        });
+
+        if (updated.failures == maxFailures) {
+            log.warn("Çok sayıda hatalı giriş, kullanıcı geçici olarak kilitlendi: username={}, süre={} sn",
+                    username, lockoutMs / 1000);
+        }
+    }
+
+    public void recordSuccess(String username) {
+        long now = System.currentTimeMillis();
+        attempts.computeIfPresent(key(username), (name, current) ->
+                current.inFlight <= 1 ? null : new Attempts(0, current.inFlight - 1, now, 0));
+    }
+
+    /**
+     * Sonucu hatalı şifre olmayan (ör. kuyruk dolu, beklenmeyen hata) ayrılmış denemeyi bırakır
+     */
+    public void release(String username) {
+        long now = System.currentTimeMillis();
+        attempts.computeIfPresent(key(username), (name, current) -> {
+            int inFlight = Math.max(0, current.inFlight - 1);
+            if (inFlight == 0 && current.failures == 0 && now >= current.lockedUntil) {
+                return null;
+            }
+            return new Attempts(current.failures, inFlight, current.windowStart, current.lockedUntil);
+        });
+    }
+
+    /**
+     * Penceresi ve kilidi bitmiş kayıtları temizler
+     */
+    @Scheduled(fixedDelayString = "${app.security.login.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        attempts.entrySet().removeIf(entry -> entry.getValue().inFlight == 0
+                && now - entry.getValue().windowStart > windowMs && now >= entry.getValue().lockedUntil);
+    }
+
+    /**
+     * Tablo dolduğunda önce süresi dolanları, yetmezse kilitsiz ve boştaki kayıtları atar
+     */
+    private synchronized void makeRoom(long now) {
+        if (attempts.size() < maxTrackedUsers) {
+            return;
+        }
+        purgeExpired();
+        if (attempts.size() >= maxTrackedUsers) {
+            attempts.entrySet().removeIf(entry -> entry.getValue().inFlight == 0 && now >= entry.getValue().lockedUntil);
+        }
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Attempts(int failures, int inFlight, long windowStart, long lockedUntil) {
+    }
+}
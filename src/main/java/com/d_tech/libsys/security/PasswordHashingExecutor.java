@@ -0,0 +1,67 @@
+package com.d_tech.libsys.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 🚀 NEW: BCrypt doğrulaması için sınırlı worker havuzu
+ *
+ * - Şifre doğrulaması Tomcat thread'inde değil, sabit sayıda worker'da çalışır
+ * - Kuyruk sınırlıdır; dolunca iş kuyruğa alınmaz, RejectedExecutionException ile hemen reddedilir
+ *   (login fırtınasında istekler dakikalarca beklemek yerine 503 alır)
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingExecutor(@Value("${app.security.hashing.threads:0}") int configuredThreads,
+                                   @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity) {
+        // 🚀 0 veya negatif: çekirdek sayısı kadar worker (BCrypt tamamen CPU işidir)
+        int threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Şifre doğrulama havuzu başlatıldı: worker={}, kuyrukKapasitesi={}", threads, queueCapacity);
+    }
+
+    /**
+     * İşi havuza verir
+     *
+     * @throws RejectedExecutionException kuyruk doluysa (çağıran hemen yanıt dönmeli)
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Kuyrukta bekleyen iş sayısı
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,6 +1,7 @@
 package com.d_tech.libsys.security;
 
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,6 +29,7 @@ import java.util.List;
  */
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
+@Slf4j
 public class SecurityConfig {
 
     @Bean
@@ -54,7 +56,7 @@ public class SecurityConfig {
      */
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
-        System.out.println("🌐 CORS Configuration oluşturuluyor - Ngrok için optimize edildi");
+        log.debug("🌐 CORS Configuration oluşturuluyor - Ngrok için optimize edildi");
 
         CorsConfiguration configuration = new CorsConfiguration();
 
@@ -88,6 +90,7 @@ public class SecurityConfig {
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
                 "X-Total-Count",
+                "X-Next-Cursor",
                 "Access-Control-Allow-Origin",
                 "Access-Control-Allow-Credentials",
                 "Content-Type"
@@ -96,7 +99,7 @@ public class SecurityConfig {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
 
-        System.out.println("✅ CORS yapılandırması tamamlandı - Tüm origins ve methods destekleniyor");
+        log.debug("✅ CORS yapılandırması tamamlandı - Tüm origins ve methods destekleniyor");
         return source;
     }
 
@@ -106,7 +109,7 @@ public class SecurityConfig {
                                                    JwtFilter jwtFilter,
                                                    CorsConfigurationSource corsConfigurationSource) throws Exception {
 
-        System.out.println("🔐 SecurityFilterChain yapılandırılıyor - Ngrok Edition...");
+        log.debug("🔐 SecurityFilterChain yapılandırılıyor - Ngrok Edition...");
 
         http
                 // ✅ CORS configuration - MUST be first
@@ -118,11 +121,10 @@ public class SecurityConfig {
                 // ✅ Exception handling with CORS headers
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(
                         (request, response, authException) -> {
-                            System.out.println("🚨 AUTHENTICATION ENTRY POINT TRIGGERED!");
-                            System.out.println("❌ 401 Unauthorized: " + request.getMethod() + " " + request.getRequestURI());
-                            System.out.println("🔍 Origin: " + request.getHeader("Origin"));
-                            System.out.println("🔍 Auth Header: " + request.getHeader("Authorization"));
-                            System.out.println("💥 Exception: " + authException.getMessage());
+                            // Authorization header'ının değeri loglanmaz, sadece var olup olmadığı
+                            log.debug("401 Unauthorized: {} {}, origin={}, authHeader={}, error={}",
+                                    request.getMethod(), request.getRequestURI(), request.getHeader("Origin"),
+                                    request.getHeader("Authorization") != null, authException.getMessage());
 
                             // ✅ Set CORS headers for error responses
                             response.setHeader("Access-Control-Allow-Origin", "*");
@@ -148,7 +150,7 @@ public class SecurityConfig {
 
                 // ✅ Authorization rules - Ngrok friendly
                 .authorizeHttpRequests(auth -> {
-                    System.out.println("🛡️ URL yetkilendirme kuralları yapılandırılıyor - Ngrok Edition...");
+                    log.debug("🛡️ URL yetkilendirme kuralları yapılandırılıyor - Ngrok Edition...");
 
                     auth
                             // ✅ Public endpoints - NO AUTH REQUIRED
@@ -181,7 +183,7 @@ public class SecurityConfig {
                             // ✅ All other requests require authentication
                             .anyRequest().authenticated();
 
-                    System.out.println("✅ URL yetkilendirme kuralları tamamlandı - Ngrok Ready");
+                    log.debug("✅ URL yetkilendirme kuralları tamamlandı - Ngrok Ready");
                 })
 
                 // ✅ H2 Console support (for ngrok demo)
@@ -193,11 +195,11 @@ public class SecurityConfig {
                 // ✅ JWT filter
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
-        System.out.println("🎯 SecurityFilterChain tamamlandı - Ngrok Edition!");
-        System.out.println("🌐 CORS: Enabled for all origins");
-        System.out.println("🔐 JWT: Enabled");
-        System.out.println("🏥 H2 Console: Enabled at /h2-console");
-        System.out.println("📊 Actuator: Public access enabled");
+        log.debug("🎯 SecurityFilterChain tamamlandı - Ngrok Edition!");
+        log.debug("🌐 CORS: Enabled for all origins");
+        log.debug("🔐 JWT: Enabled");
+        log.debug("🏥 H2 Console: Enabled at /h2-console");
+        log.debug("📊 Actuator: Public access enabled");
 
         return http.build();
     }
@@ -5,14 +5,13 @@ import com.d_tech.libsys.dto.SignupResponse;
 import com.d_tech.libsys.dto.UserRegistrationEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 /**
- * Conditional Async User Service - fallback to sync when Kafka is disabled
+ * Async User Service - registration events go through EventPublisher
+ * (Kafka when enabled, or the in-process event bus when app.events.in-process.async-signup=true);
+ * otherwise, and on errors, falls back to sync registration
  */
 @Service
 @RequiredArgsConstructor
@@ -20,19 +19,21 @@ import java.util.UUID;
 public class AsyncUserService {
 
     private final UserService userService;
-
-    @Autowired(required = false)
-    private KafkaProducerService kafkaProducerService;
+    private final IdGenerator idGenerator;
+    private final EventPublisher eventPublisher;
 
     @Value("${app.kafka.enabled:false}")
     private boolean kafkaEnabled;
 
+    @Value("${app.events.in-process.async-signup:false}")
+    private boolean inProcessAsyncSignup;
+
     public SignupResponse registerUserAsync(SignupRequest signupRequest) {
         log.info("Async user registration request: username={}, kafkaEnabled={}",
                 signupRequest.getUsername(), kafkaEnabled);
 
-        if (!kafkaEnabled || kafkaProducerService == null) {
-            log.info("Kafka disabled or producer not available, falling back to sync registration");
+        if (!isAsyncEnabled()) {
+            log.info("Kafka disabled and in-process async signup off, falling back to sync registration");
             return userService.registerUser(signupRequest);
         }
 
@@ -59,8 +60,8 @@ public class AsyncUserService {
                     .confirmPassword(signupRequest.getConfirmPassword())
                     .build();
 
-            // Send to Kafka
-            kafkaProducerService.sendUserRegistrationEvent(event)
+            // Send to Kafka or the in-process event bus
+            eventPublisher.sendUserRegistrationEvent(event)
                     .whenComplete((success, throwable) -> {
                         if (success != null && success) {
                             log.info("User registration event sent successfully: eventId={}, username={}",
@@ -89,6 +90,13 @@ public class AsyncUserService {
         }
     }
 
+    /**
+     * Registration is async with Kafka; without Kafka only when explicitly enabled for the in-process bus
+     */
+    public boolean isAsyncEnabled() {
+        return kafkaEnabled || inProcessAsyncSignup;
+    }
+
     private String validateSignupRequest(SignupRequest request) {
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
             return "Kullanıcı adı boş olamaz!";
@@ -110,8 +118,7 @@ public class AsyncUserService {
     }
 
     private String generateEventId() {
-        return "USER_REG_" + System.currentTimeMillis() + "_" +
-                UUID.randomUUID().toString().substring(0, 8);
+        return idGenerator.nextId("USER_REG_");
     }
 
     public String getRegistrationStatus(String eventId) {
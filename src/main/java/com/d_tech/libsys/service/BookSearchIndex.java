@@ -0,0 +1,236 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 🚀 NEW: Kitap araması için bellek içi ters indeks (inverted index)
+ *
+ * - Başlık, yazar, kategori ve açıklama 1, 2 ve 3 karakterlik harf gruplarına (n-gram) bölünür;
+ *   boşluk ve noktalama da dahildir ("c#" gibi sorgular için). Her n-gram kitap ID'lerine işaret eder
+ * - 1-3 karakterlik sorgular tek posting listesiyle birebir cevaplanır, daha uzun sorgularda sorgunun
+ *   trigram'larının kesişimi alınır; aday küme her durumda "contains" eşleşmelerinin üst kümesidir
+ * - Arama sadece aday ID'leri döndürür, satırlar veritabanından ID ile yüklenir
+ * - Kitap başına n-gram kümesi de tutulur; yeniden indekslemede sadece fark güncellenir, eski değerler gerekmez
+ *
+ * İndeks uygulama açılışında bir kez doldurulur, sonrasında BookServiceImpl tarafından commit sonrası güncel tutulur.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+
+    // n-gram (1-3 karakter) -> kitap ID'leri (tüm alanlar)
+    private final ConcurrentMap<String, Set<Long>> gramIndex = new ConcurrentHashMap<>();
+
+    // kitap ID'si -> indekslenmiş n-gram'ları (güncelleme ve silme için)
+    private final ConcurrentMap<Long, Set<String>> bookGrams = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Uygulama hazır olduğunda (DataLoader sonrası) indeksi sayfa sayfa doldurur
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        gramIndex.clear();
+        bookGrams.clear();
+
+        int pageNumber = 0;
+        long indexed = 0;
+        Page<Book> page;
+        do {
+            page = bookRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            for (Book book : page.getContent()) {
+                index(book);
+                indexed++;
+            }
+        } while (page.hasNext());
+
+        ready = true;
+        log.info("Kitap arama indeksi hazır: kitap={}, n-gram={}, süre={}ms",
+                indexed, gramIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * İndeks kullanıma hazır mı? (açılış sırasında false)
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Kitabı indekse ekler veya güncel değerleriyle yeniden indeksler
+     */
+    public void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Long id = book.getId();
+        Set<String> grams = gramsOf(book);
+        // Aynı kitabın eşzamanlı güncellemeleri compute ile sıraya girer
+        bookGrams.compute(id, (key, previous) -> {
+            for (String gram : grams) {
+                if (previous == null || !previous.contains(gram)) {
+                    gramIndex.compute(gram, (g, ids) -> add(ids, id));
+                }
+            }
+            if (previous != null) {
+                for (String gram : previous) {
+                    if (!grams.contains(gram)) {
+                        gramIndex.computeIfPresent(gram, (g, ids) -> discard(ids, id));
+                    }
+                }
+            }
+            return grams;
+        });
+    }
+
+    /**
+     * Kitabı indeksten çıkarır
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        bookGrams.computeIfPresent(id, (key, previous) -> {
+            for (String gram : previous) {
+                gramIndex.computeIfPresent(gram, (g, ids) -> discard(ids, id));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Sorguyla eşleşebilecek kitap ID'lerini döndürür.
+     * Sonuç bir üst kümedir (3 karakterden uzun sorgularda trigram'lar farklı alanlardan gelebilir);
+     * kesin eşleşme satırlar yüklendikten sonra kontrol edilmelidir.
+     */
+    public Set<Long> findCandidates(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        if (normalized.length() <= GRAM_SIZE) {
+            Set<Long> ids = gramIndex.get(normalized);
+            return ids == null ? Collections.emptySet() : new HashSet<>(ids);
+        }
+        return gramMatches(normalized);
+    }
+
+    /**
+     * Sorgu ile karşılaştırma için metni normalize eder
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Basit sıralama puanı: başlık > yazar > kategori > açıklama, tam/önek eşleşmesi bonuslu
+     */
+    public static int score(Book book, String normalizedQuery) {
+        int score = 0;
+        String title = normalize(book.getTitle());
+        if (title.equals(normalizedQuery)) {
+            score += 100;
+        } else if (title.startsWith(normalizedQuery)) {
+            score += 60;
+        } else if (title.contains(normalizedQuery)) {
+            score += 40;
+        }
+        String author = normalize(book.getAuthor());
+        if (author.startsWith(normalizedQuery)) {
+            score += 30;
+        } else if (author.contains(normalizedQuery)) {
+            score += 20;
+        }
+        if (normalize(book.getCategory()).contains(normalizedQuery)) {
+            score += 10;
+        }
+        if (normalize(book.getDescription()).contains(normalizedQuery)) {
+            score += 1;
+        }
+        return score;
+    }
+
+    // 🚀 Yardımcı metodlar
+
+    /**
+     * Trigram posting listelerinin kesişimi; en küçük listeden başlanır
+     */
+    private Set<Long> gramMatches(String normalized) {
+        Set<String> queryGrams = new HashSet<>();
+        collectGrams(normalized, GRAM_SIZE, queryGrams);
+
+        List<Set<Long>> postings = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            Set<Long> ids = gramIndex.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            postings.add(ids);
+        }
+        return intersect(postings);
+    }
+
+    private static Set<Long> intersect(List<Set<Long>> postings) {
+        if (postings.isEmpty()) {
+            return Collections.emptySet();
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private static Set<String> gramsOf(Book book) {
+        Set<String> grams = new HashSet<>();
+        for (String field : new String[]{book.getTitle(), book.getAuthor(), book.getCategory(), book.getDescription()}) {
+            String text = normalize(field);
+            for (int size = 1; size <= GRAM_SIZE; size++) {
+                collectGrams(text, size, grams);
+            }
+        }
+        return grams;
+    }
+
+    private static void collectGrams(String text, int size, Set<String> target) {
+        for (int i = 0; i + size <= text.length(); i++) {
+            target.add(text.substring(i, i + size));
+        }
+    }
+
+    private static Set<Long> add(Set<Long> ids, Long id) {
+        Set<Long> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+        target.add(id);
+        return target;
+    }
+
+    private static Set<Long> discard(Set<Long> ids, Long id) {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+    }
+}
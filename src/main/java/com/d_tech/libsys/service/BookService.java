@@ -10,4 +10,12 @@ public interface BookService {
     Book saveBook(Book book);
     Optional<Book> updateBook(Long id, Book book);
     boolean deleteBook(Long id);
-}
\ No newline at end of file
+    List<Book> searchBooks(String query);
+
+    // 🚀 NEW: Keyset sayfalama - id'si afterId'den büyük en fazla limit kadar kitap
+    List<Book> getBooksPage(Long afterId, int limit);
+    List<Book> getBooksByCategoryPage(String category, Long afterId, int limit);
+    List<Book> searchByAuthorPage(String author, Long afterId, int limit);
+    List<Book> searchByTitlePage(String title, Long afterId, int limit);
+    List<String> getCategories();
+}
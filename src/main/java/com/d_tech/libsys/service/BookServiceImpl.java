@@ -3,17 +3,29 @@ package com.d_tech.libsys.service;
 import com.d_tech.libsys.domain.model.Book;
 import com.d_tech.libsys.repository.BookRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final int SEARCH_LOAD_CHUNK_SIZE = 1000;
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
     @Override
     public List<Book> getAllBooks() {
         return bookRepository.findAll();
@@ -26,7 +38,9 @@ public class BookServiceImpl implements BookService {
 
     @Override
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        indexAfterCommit(savedBook);
+        return savedBook;
     }
 
     @Override
@@ -37,7 +51,9 @@ public class BookServiceImpl implements BookService {
             book.setTitle(bookDetails.getTitle());
             book.setAuthor(bookDetails.getAuthor());
             book.setYear(bookDetails.getYear());
-            return Optional.of(bookRepository.save(book));
+            Book savedBook = bookRepository.save(book);
+            indexAfterCommit(savedBook);
+            return Optional.of(savedBook);
         }
         return Optional.empty();
     }
@@ -47,8 +63,102 @@ public class BookServiceImpl implements BookService {
         Optional<Book> optionalBook = bookRepository.findById(id);
         if (optionalBook.isPresent()) {
             bookRepository.deleteById(id);
+            removeAfterCommit(id);
             return true;
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * 🚀 NEW: İndeks destekli arama - sadece aday kitaplar yüklenir, sonuçlar puana göre sıralanır
+     */
+    @Override
+    public List<Book> searchBooks(String query) {
+        String normalized = BookSearchIndex.normalize(query);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // İndeks açılışta henüz dolmadıysa eski tam taramaya düş
+        List<Book> candidates = bookSearchIndex.isReady()
+                ? loadByIds(bookSearchIndex.findCandidates(normalized))
+                : bookRepository.findAll();
+
+        return candidates.stream()
+                .filter(book -> matches(book, normalized))
+                .sorted(Comparator.comparingInt((Book book) -> BookSearchIndex.score(book, normalized))
+                        .reversed()
+                        .thenComparing(Book::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Book> getBooksPage(Long afterId, int limit) {
+        return bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Book> getBooksByCategoryPage(String category, Long afterId, int limit) {
+        return bookRepository.findByCategoryContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                category, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Book> searchByAuthorPage(String author, Long afterId, int limit) {
+        return bookRepository.findByAuthorContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                author, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Book> searchByTitlePage(String title, Long afterId, int limit) {
+        return bookRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                title, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<String> getCategories() {
+        return bookRepository.findDistinctCategories();
+    }
+
+    private List<Book> loadByIds(Set<Long> ids) {
+        List<Long> sortedIds = ids.stream().sorted().collect(Collectors.toList());
+        List<Book> books = new ArrayList<>(sortedIds.size());
+        for (int i = 0; i < sortedIds.size(); i += SEARCH_LOAD_CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(i, Math.min(i + SEARCH_LOAD_CHUNK_SIZE, sortedIds.size()));
+            books.addAll(bookRepository.findAllById(chunk));
+        }
+        return books;
+    }
+
+    /**
+     * İndeks sadece kayıt kalıcı olduktan sonra güncellenir: çağıran transaction içindeyse commit sonrasına
+     * ertelenir, geri alınırsa indeks değişmez. İndeks eski değerleri kendisi tuttuğundan ayrıca okuma gerekmez.
+     */
+    private void indexAfterCommit(Book book) {
+        runAfterCommit(() -> bookSearchIndex.index(book));
+    }
+
+    private void removeAfterCommit(Long id) {
+        runAfterCommit(() -> bookSearchIndex.remove(id));
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean matches(Book book, String normalizedQuery) {
+        return BookSearchIndex.normalize(book.getTitle()).contains(normalizedQuery) ||
+                BookSearchIndex.normalize(book.getAuthor()).contains(normalizedQuery) ||
+                BookSearchIndex.normalize(book.getCategory()).contains(normalizedQuery) ||
+                BookSearchIndex.normalize(book.getDescription()).contains(normalizedQuery);
+    }
+}
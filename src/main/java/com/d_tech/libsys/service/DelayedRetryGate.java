@@ -0,0 +1,116 @@
+package com.d_tech.libsys.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ContainerPartitionPausingBackOffManager;
+import org.springframework.kafka.listener.ContainerPausingBackOffHandler;
+import org.springframework.kafka.listener.KafkaBackoffException;
+import org.springframework.kafka.listener.KafkaConsumerBackoffManager;
+import org.springframework.kafka.listener.ListenerContainerPauseService;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 🚀 NEW: Kademeli gecikmeli retry topic'leri için bekletme kapısı (Thread.sleep yerine)
+ *
+ * Retry event'leri retryCount'a göre .retry-1s / .retry-10s / .retry-60s topic'lerine,
+ * ne zaman işlenebileceğini belirten "x-retry-due-at" header'ı ile gönderilir.
+ * Retry listener'ı zamanı gelmemiş bir kayıt gördüğünde:
+ * - sadece o partition duraklatılır (pause) ve KafkaBackoffException fırlatılır
+ * - container'ın hata işleyicisi (KafkaConfig) kaydı ve aynı poll'dan kalanları commit etmeden geri sarar;
+ *   transactional modda Kafka transaction'ı geri alınır, offset ilerlemez
+ * - süre dolunca partition devam ettirilir (resume) ve kayıt yeniden okunur
+ * Listener thread'i hiç uyumaz; diğer partition'lar ve ana topic'ler akmaya devam eder.
+ */
+@Component
+@Slf4j
+public class DelayedRetryGate {
+
+    public static final String DUE_AT_HEADER = "x-retry-due-at";
+
+    // Bu süreden kısa beklemeler için partition duraklatılmaz, kayıt hemen işlenir
+    private static final long MIN_PAUSE_MS = 50;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    private final ThreadPoolTaskScheduler resumeScheduler;
+
+    private final KafkaConsumerBackoffManager backoffManager;
+
+    public DelayedRetryGate(KafkaListenerEndpointRegistry listenerRegistry) {
+        this.listenerRegistry = listenerRegistry;
+        this.resumeScheduler = new ThreadPoolTaskScheduler();
+        resumeScheduler.setThreadNamePrefix("kafka-retry-resume-");
+        resumeScheduler.setDaemon(true);
+        resumeScheduler.initialize();
+        this.backoffManager = new ContainerPartitionPausingBackOffManager(listenerRegistry,
+                new ContainerPausingBackOffHandler(new ListenerContainerPauseService(listenerRegistry, resumeScheduler)));
+    }
+
+    /**
+     * Retry sayısına göre gecikme kademesinin topic son ekini döndürür
+     */
+    public static String tierSuffix(int retryCount) {
+        if (retryCount <= 1) {
+            return ".retry-1s";
+        }
+        return retryCount == 2 ? ".retry-10s" : ".retry-60s";
+    }
+
+    /**
+     * Kademenin gecikme süresi (ms)
+     */
+    public static long tierDelayMs(int retryCount) {
+        if (retryCount <= 1) {
+            return 1_000;
+        }
+        return retryCount == 2 ? 10_000 : 60_000;
+    }
+
+    /**
+     * Kaydın zamanı gelmemişse partition'ı duraklatır ve {@link KafkaBackoffException} fırlatır.
+     * Consumer thread'inden, listener metodunun başında çağrılmalı ve istisna yakalanmamalıdır.
+     */
+    public void backOffIfNotDue(String listenerId, ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        long dueAt = dueAt(record);
+        long delay = dueAt - System.currentTimeMillis();
+        if (delay < MIN_PAUSE_MS) {
+            return;
+        }
+
+        if (listenerRegistry.getListenerContainer(listenerId) == null) {
+            log.warn("Retry listener container bulunamadı, kayıt beklemeden işlenecek: listenerId={}", listenerId);
+            return;
+        }
+
+        log.debug("Retry kaydı bekletiliyor: topic={}, partition={}, offset={}, kalan={}ms",
+                record.topic(), record.partition(), record.offset(), delay);
+        backoffManager.backOffIfNecessary(backoffManager.createContext(
+                dueAt, listenerId, new TopicPartition(record.topic(), record.partition()), consumer));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resumeScheduler.shutdown();
+    }
+
+    private static long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        if (header == null) {
+            // Eski .retry topic'inden gelen kayıtlar hemen işlenir
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
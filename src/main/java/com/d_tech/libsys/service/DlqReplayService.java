@@ -0,0 +1,557 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.DlqReplayCheckpoint;
+import com.d_tech.libsys.dto.DlqReplayRequest;
+import com.d_tech.libsys.dto.DlqReplayStatus;
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+import com.d_tech.libsys.repository.DlqReplayCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚀 NEW: DLQ kayıtlarını filtreleyip ana topic'e kontrollü hızda yeniden gönderen replay aracı
+ *
+ * - DLQ, kendi consumer'ı ile partition'lar elle atanarak (consumer group'a katılmadan) taranır;
+ *   replay başladığı andaki son offset'lere kadar okunur, sonradan gelen kayıtlar bir sonraki replay'e kalır
+ * - Her poll bir batch'tir: eşleşen kayıtlar orijinal anahtarlarıyla beklemeden gönderilir, onaylar
+ *   toplanır, ardından partition başına kontrol noktası (DlqReplayCheckpoint) ilerletilir
+ * - Kontrol noktası sadece filtresiz (eventType/from/to verilmemiş) replay'lerde ilerletilir veya sıfırlanır;
+ *   filtreli replay kontrol noktasından okur ama atladığı kayıtları "gönderildi" saymaz, böylece sonraki
+ *   filtresiz replay onları yine gönderir
+ * - Hız sınırı: her gönderimden önce izin alınır; toplam gönderim, başlangıçtan bu yana geçen süre × ratePerSecond'ı
+ *   aşmaz. Bir poll en fazla ratePerSecond kayıt getirir, böylece tek batch hız sınırını patlatamaz
+ * - İlerleme replay thread'inde güncellenir; HTTP thread'lerine her adımda yayınlanan değişmez kopya döner.
+ *   Bitmiş replay'lerden en yeni max-finished-jobs kadarı tutulur
+ *
+ * Gönderim hatasında replay FAILED olarak durur ve o batch'in kontrol noktası ilerletilmez;
+ * tekrar başlatıldığında batch yeniden gönderilir (consumer'lar eventId ile tekrarları atlar).
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class DlqReplayService {
+
+    private static final String DLQ_SUFFIX = ".dlq";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_BATCH_SIZE = 5_000;
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DlqReplayCheckpointRepository checkpointRepository;
+    private final IdGenerator idGenerator;
+
+    private final String userRegistrationTopic;
+    private final Set<String> replayableTopics;
+
+    @Value("${app.outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.kafka.dlq-replay.max-finished-jobs:100}")
+    private int maxFinishedJobs;
+
+    // replayId -> replay (tamamlananlar dahil)
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    // DLQ topic -> çalışan replay; aynı DLQ için aynı anda tek replay
+    private final Map<String, ReplayJob> runningByTopic = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dlq-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DlqReplayService(ConsumerFactory<String, Object> consumerFactory,
+                            KafkaTemplate<String, Object> kafkaTemplate,
+                            DlqReplayCheckpointRepository checkpointRepository,
+                            IdGenerator idGenerator,
+                            @Value("${app.kafka.topic.user-registration:user-registration-topic}") String userRegistrationTopic,
+                            @Value("${app.kafka.topic.stock-control:stock-control-topic}") String stockControlTopic,
+                            @Value("${app.kafka.topic.stock-order:stock-order-topic}") String stockOrderTopic) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.idGenerator = idGenerator;
+        this.userRegistrationTopic = userRegistrationTopic;
+        // DLQ'ya yazan topic'ler (KafkaProducerService.send*ToDLQ)
+        this.replayableTopics = Set.of(userRegistrationTopic, stockControlTopic, stockOrderTopic);
+    }
+
+    /**
+     * Replay'i arka planda başlatır
+     */
+    public DlqReplayStatus startReplay(DlqReplayRequest request) {
+        validate(request);
+
+        String dlqTopic = request.getTopic() + DLQ_SUFFIX;
+        DlqReplayStatus status = DlqReplayStatus.builder()
+                .replayId(idGenerator.nextId("REPLAY_"))
+                .dlqTopic(dlqTopic)
+                .targetTopic(request.getTopic())
+                .state(DlqReplayStatus.ReplayState.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build();
+        ReplayJob job = new ReplayJob(status, request);
+
+        if (runningByTopic.putIfAbsent(dlqTopic, job) != null) {
+            throw new IllegalStateException("Bu DLQ için zaten çalışan bir replay var: " + dlqTopic);
+        }
+        pruneFinished();
+        jobs.put(status.getReplayId(), job);
+
+        log.info("DLQ replay başlatılıyor: replayId={}, dlq={}, eventType={}, from={}, to={}, rate={}/s, batch={}",
+                status.getReplayId(), dlqTopic, request.getEventType(), request.getFrom(), request.getTo(),
+                request.getRatePerSecond(), request.getBatchSize());
+
+        DlqReplayStatus snapshot = job.snapshot();
+        executor.execute(() -> run(job));
+        return snapshot;
+    }
+
+    public Optional<DlqReplayStatus> getReplay(String replayId) {
+        return Optional.ofNullable(jobs.get(replayId)).map(ReplayJob::snapshot);
+    }
+
+    public List<DlqReplayStatus> getReplays() {
+        return jobs.values().stream()
+                .map(ReplayJob::snapshot)
+                .sorted(Comparator.comparing(DlqReplayStatus::getStartedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Çalışan replay'i durdurur; o ana kadar gönderilen batch'lerin kontrol noktası korunur
+     */
+    public DlqReplayStatus cancelReplay(String replayId) {
+        ReplayJob job = jobs.get(replayId);
+        if (job == null) {
+            throw new IllegalArgumentException("Replay bulunamadı: " + replayId);
+        }
+        DlqReplayStatus snapshot = job.snapshot();
+        if (snapshot.getState() != DlqReplayStatus.ReplayState.RUNNING) {
+            throw new IllegalStateException("Replay çalışmıyor: " + snapshot.getState());
+        }
+        job.cancelled = true;
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+    }
+
+    // 🚀 Replay döngüsü
+
+    private void run(ReplayJob job) {
+        DlqReplayStatus status = job.status();
+        DlqReplayRequest request = job.request();
+        String dlqTopic = status.getDlqTopic();
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        // Bir poll hız sınırının bir saniyelik payından fazlasını getirmez
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                String.valueOf(Math.min(request.getBatchSize(), request.getRatePerSecond())));
+
+        try (Consumer<String, Object> consumer =
+                     consumerFactory.createConsumer("libsys-dlq-replay", "dlq-replay", null, overrides)) {
+
+            List<TopicPartition> partitions = partitionsOf(consumer, dlqTopic);
+            Map<TopicPartition, DlqReplayCheckpoint> checkpoints =
+                    loadCheckpoints(dlqTopic, request.getFromBeginning(), isFiltered(request));
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+
+            consumer.assign(partitions);
+            long total = 0;
+            for (TopicPartition partition : partitions) {
+                DlqReplayCheckpoint checkpoint = checkpoints.get(partition);
+                long start = Math.max(beginningOffsets.get(partition),
+                        checkpoint != null ? checkpoint.getNextOffset() : 0L);
+                consumer.seek(partition, start);
+                total += Math.max(0, endOffsets.get(partition) - start);
+            }
+            status.setTotal(total);
+            job.publish();
+
+            job.startNanos = System.nanoTime();
+            while (!job.cancelled && !reachedEnd(consumer, partitions, endOffsets) && !reachedLimit(status, request)) {
+                ConsumerRecords<String, Object> records;
+                try {
+                    records = consumer.poll(POLL_TIMEOUT);
+                } catch (RecordDeserializationException e) {
+                    // Çözülemeyen kayıt atlanır; sayılır ama tekrar gönderilmez
+                    log.error("DLQ kaydı çözülemedi, atlanıyor: replayId={}, partition={}, offset={}, error={}",
+                            status.getReplayId(), e.topicPartition(), e.offset(), e.getMessage());
+                    consumer.seek(e.topicPartition(), e.offset() + 1);
+                    status.setScanned(status.getScanned() + 1);
+                    status.setFailed(status.getFailed() + 1);
+                    job.publish();
+                    continue;
+                }
+                if (records.isEmpty()) {
+                    continue;
+                }
+
+                if (!replayBatch(job, records, endOffsets, checkpoints)) {
+                    finish(job, DlqReplayStatus.ReplayState.FAILED,
+                            "Gönderim hatası; kontrol noktasından tekrar başlatılabilir");
+                    return;
+                }
+            }
+
+            if (job.cancelled) {
+                finish(job, DlqReplayStatus.ReplayState.CANCELLED, "Replay durduruldu");
+            } else {
+                finish(job, DlqReplayStatus.ReplayState.COMPLETED, "Replay tamamlandı");
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, DlqReplayStatus.ReplayState.CANCELLED, "Replay kesildi");
+        } catch (Exception e) {
+            log.error("DLQ replay hatası: replayId={}, error={}", status.getReplayId(), e.getMessage(), e);
+            finish(job, DlqReplayStatus.ReplayState.FAILED, "Replay hatası: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tek poll'u işler: filtrele, gönder, onayları bekle, kontrol noktasını ilerlet
+     *
+     * @return tüm gönderimler onaylandıysa true
+     */
+    private boolean replayBatch(ReplayJob job, ConsumerRecords<String, Object> records,
+                                Map<TopicPartition, Long> endOffsets,
+                                Map<TopicPartition, DlqReplayCheckpoint> checkpoints) throws InterruptedException {
+        DlqReplayStatus status = job.status();
+        DlqReplayRequest request = job.request();
+
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>();
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        Map<TopicPartition, Long> sentPerPartition = new HashMap<>();
+        long scanned = 0;
+        long matched = 0;
+
+        scan:
+        for (TopicPartition partition : records.partitions()) {
+            long end = endOffsets.get(partition);
+            for (ConsumerRecord<String, Object> record : records.records(partition)) {
+                if (record.offset() >= end) {
+                    // Replay başladıktan sonra DLQ'ya düşen kayıtlar
+                    break;
+                }
+                if (request.getMaxRecords() != null && status.getMatched() + matched >= request.getMaxRecords()) {
+                    break scan;
+                }
+                scanned++;
+                nextOffsets.put(partition, record.offset() + 1);
+
+                if (!matches(record.value(), request)) {
+                    continue;
+                }
+                matched++;
+                prepareForReplay(record.value(), status.getReplayId());
+                // Gönderim başına izin: hız sınırı batch içinde de uygulanır
+                throttle(job.dispatched++, request.getRatePerSecond(), job.startNanos);
+                futures.add(kafkaTemplate.send(status.getTargetTopic(), record.key(), record.value()));
+                sentPerPartition.merge(partition, 1L, Long::sum);
+            }
+        }
+        kafkaTemplate.flush();
+
+        long replayed = 0;
+        long failed = 0;
+        for (CompletableFuture<SendResult<String, Object>> future : futures) {
+            try {
+                future.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                replayed++;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failed++;
+                log.error("DLQ kaydı yeniden gönderilemedi: replayId={}, error={}", status.getReplayId(), e.getMessage());
+            }
+        }
+
+        status.setScanned(status.getScanned() + scanned);
+        status.setMatched(status.getMatched() + matched);
+        status.setReplayed(status.getReplayed() + replayed);
+        status.setFailed(status.getFailed() + failed);
+        job.publish();
+
+        if (failed > 0) {
+            return false;
+        }
+        if (!isFiltered(request)) {
+            saveCheckpoints(status.getDlqTopic(), nextOffsets, sentPerPartition, checkpoints);
+        }
+
+        log.info("DLQ replay batch'i gönderildi: replayId={}, taranan={}/{}, gönderilen={}",
+                status.getReplayId(), status.getScanned(), status.getTotal(), status.getReplayed());
+        return true;
+    }
+
+    private void saveCheckpoints(String dlqTopic, Map<TopicPartition, Long> nextOffsets,
+                                 Map<TopicPartition, Long> sentPerPartition,
+                                 Map<TopicPartition, DlqReplayCheckpoint> checkpoints) {
+        if (nextOffsets.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<DlqReplayCheckpoint> changed = new ArrayList<>(nextOffsets.size());
+
+        nextOffsets.forEach((partition, nextOffset) -> {
+            DlqReplayCheckpoint checkpoint = checkpoints.computeIfAbsent(partition, p -> DlqReplayCheckpoint.builder()
+                    .dlqTopic(dlqTopic)
+                    .partition(p.partition())
+                    .build());
+            checkpoint.setNextOffset(nextOffset);
+            checkpoint.setReplayedCount(checkpoint.getReplayedCount() + sentPerPartition.getOrDefault(partition, 0L));
+            checkpoint.setUpdatedAt(now);
+            changed.add(checkpoint);
+        });
+
+        // Yeni kayıtlar ID alır; sonraki batch'ler aynı nesneleri günceller
+        checkpointRepository.saveAll(changed).forEach(saved ->
+                checkpoints.put(new TopicPartition(dlqTopic, saved.getPartition()), saved));
+    }
+
+    private Map<TopicPartition, DlqReplayCheckpoint> loadCheckpoints(String dlqTopic, Boolean fromBeginning,
+                                                                      boolean filtered) {
+        if (Boolean.TRUE.equals(fromBeginning) && filtered) {
+            // Filtreli replay başından okur ama filtresiz replay'lerin ilerlemesini silmez
+            return new HashMap<>();
+        }
+        if (Boolean.TRUE.equals(fromBeginning)) {
+            int deleted = checkpointRepository.deleteByDlqTopic(dlqTopic);
+            log.info("DLQ replay kontrol noktaları sıfırlandı: dlq={}, silinen={}", dlqTopic, deleted);
+            return new HashMap<>();
+        }
+        Map<TopicPartition, DlqReplayCheckpoint> checkpoints = new HashMap<>();
+        for (DlqReplayCheckpoint checkpoint : checkpointRepository.findByDlqTopic(dlqTopic)) {
+            checkpoints.put(new TopicPartition(dlqTopic, checkpoint.getPartition()), checkpoint);
+        }
+        return checkpoints;
+    }
+
+    private static List<TopicPartition> partitionsOf(Consumer<String, Object> consumer, String dlqTopic) {
+        List<PartitionInfo> infos = consumer.partitionsFor(dlqTopic);
+        if (infos == null || infos.isEmpty()) {
+            throw new IllegalArgumentException("DLQ topic bulunamadı: " + dlqTopic);
+        }
+        return infos.stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+    }
+
+    private static boolean reachedEnd(Consumer<String, Object> consumer, List<TopicPartition> partitions,
+                                      Map<TopicPartition, Long> endOffsets) {
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < endOffsets.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean reachedLimit(DlqReplayStatus status, DlqReplayRequest request) {
+        return request.getMaxRecords() != null && status.getMatched() >= request.getMaxRecords();
+    }
+
+    /**
+     * Gönderilen kayıt sayısı, geçen süre × hız sınırını aşmışsa aradaki fark kadar bekler
+     */
+    private static void throttle(long sent, int ratePerSecond, long startNanos) throws InterruptedException {
+        long expectedNanos = TimeUnit.SECONDS.toNanos(sent) / ratePerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+
+    private void finish(ReplayJob job, DlqReplayStatus.ReplayState state, String message) {
+        DlqReplayStatus status = job.status();
+        status.setMessage(message);
+        status.setFinishedAt(LocalDateTime.now());
+        status.setState(state);
+        job.publish();
+        runningByTopic.remove(status.getDlqTopic(), job);
+
+        log.info("DLQ replay bitti: replayId={}, state={}, taranan={}, eşleşen={}, gönderilen={}, hatalı={}",
+                status.getReplayId(), state, status.getScanned(), status.getMatched(),
+                status.getReplayed(), status.getFailed());
+    }
+
+    /**
+     * Bitmiş replay'lerden en yeni maxFinishedJobs kadarını tutar, gerisini atar
+     */
+    private void pruneFinished() {
+        jobs.values().stream()
+                .map(ReplayJob::snapshot)
+                .filter(snapshot -> snapshot.getState() != DlqReplayStatus.ReplayState.RUNNING)
+                .sorted(Comparator.comparing(DlqReplayStatus::getStartedAt).reversed())
+                .skip(maxFinishedJobs)
+                .forEach(snapshot -> jobs.remove(snapshot.getReplayId()));
+    }
+
+    // 🚀 Filtreleme ve hazırlık
+
+    private void validate(DlqReplayRequest request) {
+        if (request.getTopic() == null || !replayableTopics.contains(request.getTopic())) {
+            throw new IllegalArgumentException("Geçersiz topic. Desteklenenler: " + replayableTopics);
+        }
+        if (request.getRatePerSecond() == null || request.getRatePerSecond() <= 0) {
+            throw new IllegalArgumentException("ratePerSecond pozitif olmalıdır");
+        }
+        if (request.getBatchSize() == null || request.getBatchSize() <= 0 || request.getBatchSize() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize 1 ile " + MAX_BATCH_SIZE + " arasında olmalıdır");
+        }
+        if (request.getMaxRecords() != null && request.getMaxRecords() <= 0) {
+            throw new IllegalArgumentException("maxRecords pozitif olmalıdır");
+        }
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("from, to'dan önce olmalıdır");
+        }
+        if (request.getEventType() != null && userRegistrationTopic.equals(request.getTopic())) {
+            throw new IllegalArgumentException("Kullanıcı kayıt event'leri tip ile filtrelenemez");
+        }
+    }
+
+    /**
+     * maxRecords filtre sayılmaz: sınıra gelindiğinde tarama durur, taranan her kayıt gönderilmiştir
+     */
+    private static boolean isFiltered(DlqReplayRequest request) {
+        return request.getEventType() != null || request.getFrom() != null || request.getTo() != null;
+    }
+
+    private static boolean matches(Object event, DlqReplayRequest request) {
+        if (event == null) {
+            return false;
+        }
+        if (request.getEventType() != null && !request.getEventType().equalsIgnoreCase(eventTypeOf(event))) {
+            return false;
+        }
+        LocalDateTime eventTime = eventTimeOf(event);
+        if (request.getFrom() != null && (eventTime == null || eventTime.isBefore(request.getFrom()))) {
+            return false;
+        }
+        return request.getTo() == null || (eventTime != null && eventTime.isBefore(request.getTo()));
+    }
+
+    private static String eventTypeOf(Object event) {
+        if (event instanceof StockControlEvent stockEvent && stockEvent.getEventType() != null) {
+            return stockEvent.getEventType().name();
+        }
+        if (event instanceof StockOrderEvent orderEvent && orderEvent.getEventType() != null) {
+            return orderEvent.getEventType().name();
+        }
+        if (event instanceof InvoiceEvent invoiceEvent && invoiceEvent.getEventType() != null) {
+            return invoiceEvent.getEventType().name();
+        }
+        return null;
+    }
+
+    private static LocalDateTime eventTimeOf(Object event) {
+        if (event instanceof StockControlEvent stockEvent) {
+            return stockEvent.getEventTime();
+        }
+        if (event instanceof StockOrderEvent orderEvent) {
+            return orderEvent.getEventTime();
+        }
+        if (event instanceof InvoiceEvent invoiceEvent) {
+            return invoiceEvent.getEventTime();
+        }
+        if (event instanceof UserRegistrationEvent registrationEvent) {
+            return registrationEvent.getEventTime();
+        }
+        return null;
+    }
+
+    /**
+     * Retry hakkı sıfırlanır; eventId korunur (daha önce tamamlanmışsa consumer atlar)
+     */
+    private static void prepareForReplay(Object event, String replayId) {
+        String message = "DLQ replay: " + replayId;
+        if (event instanceof StockControlEvent stockEvent) {
+            stockEvent.setRetryCount(0);
+            stockEvent.setStatus(StockControlEvent.EventStatus.PENDING);
+            stockEvent.setMessage(message);
+        } else if (event instanceof StockOrderEvent orderEvent) {
+            orderEvent.setRetryCount(0);
+            orderEvent.setStatus(StockOrderEvent.EventStatus.PENDING);
+            orderEvent.setMessage(message);
+        } else if (event instanceof UserRegistrationEvent registrationEvent) {
+            registrationEvent.setRetryCount(0);
+            registrationEvent.setStatus(UserRegistrationEvent.EventStatus.PENDING);
+            registrationEvent.setMessage(message);
+        }
+    }
+
+    /**
+     * Replay durumu ve iptal bayrağı
+     * status ve hız sayaçları sadece replay thread'inde değişir; diğer thread'ler yayınlanan kopyayı okur.
+     */
+    private static final class ReplayJob {
+        private final DlqReplayStatus status;
+        private final DlqReplayRequest request;
+        private volatile DlqReplayStatus snapshot;
+        private volatile boolean cancelled;
+        private long startNanos;
+        private long dispatched;
+
+        private ReplayJob(DlqReplayStatus status, DlqReplayRequest request) {
+            this.status = status;
+            this.request = request;
+            publish();
+        }
+
+        private DlqReplayStatus status() {
+            return status;
+        }
+
+        private DlqReplayStatus snapshot() {
+            return snapshot;
+        }
+
+        private void publish() {
+            snapshot = status.toBuilder().build();
+        }
+
+        private DlqReplayRequest request() {
+            return request;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+
+/**
+ * 🚀 NEW: Event'lerin partition / shard anahtarları
+ *
+ * Aynı varlığa ait event'ler aynı anahtarı taşır; Kafka'da aynı partition'a, bellek içi bus'ta
+ * aynı worker'a düşerek sırayla işlenir. Farklı varlıklar paralel işlenebilir.
+ * - Stok kontrol: bookId
+ * - Stok sipariş ve fatura: orderId (henüz ID'si olmayan CREATE_ORDER için eventId)
+ * - Kullanıcı kaydı: username
+ */
+public final class EventKeys {
+
+    private EventKeys() {
+    }
+
+    public static String of(StockControlEvent event) {
+        return keyOrEventId(event.getBookId(), event.getEventId());
+    }
+
+    public static String of(StockOrderEvent event) {
+        return keyOrEventId(event.getOrderId(), event.getEventId());
+    }
+
+    public static String of(InvoiceEvent event) {
+        return keyOrEventId(event.getOrderId(), event.getEventId());
+    }
+
+    public static String of(UserRegistrationEvent event) {
+        return keyOrEventId(event.getUsername(), event.getEventId());
+    }
+
+    private static String keyOrEventId(Object key, String eventId) {
+        return key != null ? key.toString() : eventId;
+    }
+}
@@ -0,0 +1,106 @@
+package com.d_tech.libsys.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚀 NEW: Event işleme ve Kafka gönderim metrikleri (actuator /actuator/metrics üzerinden)
+ *
+ * - libsys.events.handled: handler süresi; handler, eventType ve outcome etiketli (count = işlenen event)
+ * - libsys.events.batch / libsys.events.batch.size: batch consumer süresi ve batch büyüklüğü
+ * - libsys.events.routed: retry / DLQ'ya yönlendirilen event sayısı
+ * - libsys.kafka.producer.send: gönderimden broker onayına kadar geçen süre; topic ve outcome etiketli
+ *
+ * Zamanlayıcılar percentile histogramı yayınlar (p99 vb. izleme sisteminde hesaplanır).
+ * Partition başına consumer lag, Kafka client metrikleri olarak KafkaConfig'de kaydedilir
+ * (kafka.consumer.fetch.manager.records.lag).
+ */
+@Component
+@RequiredArgsConstructor
+public class EventMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILED = "failed";
+    public static final String DUPLICATE = "duplicate";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Tek event'in handler süresini kaydeder
+     *
+     * @param startNanos handler başında alınan System.nanoTime()
+     */
+    public void recordHandled(String handler, Object eventType, String outcome, long startNanos) {
+        Timer.builder("libsys.events.handled")
+                .description("Event handler süresi")
+                .tag("handler", handler)
+                .tag("eventType", eventType != null ? eventType.toString() : "UNKNOWN")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Batch handler süresini ve batch'teki kayıtların sonuçlarını kaydeder
+     */
+    public void recordBatch(String handler, int records, int failed, int duplicates, long startNanos) {
+        Timer.builder("libsys.events.batch")
+                .description("Batch handler süresi")
+                .tag("handler", handler)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("libsys.events.batch.size")
+                .description("Poll başına kayıt sayısı")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(records);
+
+        batchCounter(handler, SUCCESS).increment(Math.max(0, records - failed - duplicates));
+        batchCounter(handler, FAILED).increment(failed);
+        batchCounter(handler, DUPLICATE).increment(duplicates);
+    }
+
+    /**
+     * Retry veya DLQ'ya yönlendirilen event'i sayar
+     *
+     * @param route "retry" veya "dlq"
+     */
+    public void recordRouted(String topic, String route) {
+        Counter.builder("libsys.events.routed")
+                .description("Retry / DLQ'ya yönlendirilen event sayısı")
+                .tag("topic", topic)
+                .tag("route", route)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Producer gönderiminin onay süresini kaydeder
+     */
+    public void recordSend(String topic, boolean success, long startNanos) {
+        Timer.builder("libsys.kafka.producer.send")
+                .description("Kafka gönderiminden broker onayına kadar geçen süre")
+                .tag("topic", topic)
+                .tag("outcome", success ? SUCCESS : FAILED)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter batchCounter(String handler, String outcome) {
+        return Counter.builder("libsys.events.batch.records")
+                .description("Batch handler'da işlenen kayıt sayısı")
+                .tag("handler", handler)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 🚀 NEW: Event gönderim API'si
+ *
+ * app.kafka.enabled=true iken KafkaProducerService, aksi halde InProcessEventBus kullanılır;
+ * servisler ve consumer'lar hangi taşıyıcının aktif olduğunu bilmez.
+ */
+public interface EventPublisher {
+
+    CompletableFuture<Boolean> sendUserRegistrationEvent(UserRegistrationEvent event);
+
+    CompletableFuture<Boolean> sendStockEvent(StockControlEvent event);
+
+    CompletableFuture<Boolean> sendStockOrderEvent(StockOrderEvent event);
+
+    CompletableFuture<Boolean> sendInvoiceEvent(InvoiceEvent event);
+
+    void sendRetryEvent(UserRegistrationEvent event);
+
+    void sendToDLQ(UserRegistrationEvent event, String errorReason);
+
+    void sendStockEventRetry(StockControlEvent event);
+
+    void sendStockEventToDLQ(StockControlEvent event, String errorReason);
+
+    void sendStockOrderEventRetry(StockOrderEvent event);
+
+    void sendStockOrderEventToDLQ(StockOrderEvent event, String errorReason);
+}
@@ -0,0 +1,89 @@
+package com.d_tech.libsys.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 🚀 NEW: Sınırlı, kilitsiz çok üreticili / çok tüketicili halka tampon
+ *
+ * Her slot bir sıra numarası taşır; üretici ve tüketici imleçleri CAS ile ilerletilir.
+ * Tampon doluysa offer beklemeden false döner (geri basınç çağırana bırakılır).
+ */
+final class EventRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+
+    // Tüketici (okuma) ve üretici (yazma) imleçleri
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    EventRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Kapasite en az 2 olmalıdır: " + requestedCapacity);
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Elemanı ekler; tampon doluysa false döner
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    // Slotu tüketicilere aç
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // Başka bir üretici slotu aldı, tekrar dene
+        }
+    }
+
+    /**
+     * Sıradaki elemanı alır; tampon boşsa null döner
+     */
+    E poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - (position + 1);
+
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = slots.get(index);
+                    slots.set(index, null);
+                    // Slotu bir sonraki turdaki üreticiye aç
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
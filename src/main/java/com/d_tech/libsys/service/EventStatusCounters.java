@@ -0,0 +1,116 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.RegistrationEvent;
+import com.d_tech.libsys.repository.RegistrationEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 🚀 NEW: Kayıt event'lerinin duruma göre sayaçları (istatistik endpoint'i için O(1))
+ *
+ * - İlk okumada ve periyodik olarak tek GROUP BY sorgusuyla veritabanından yüklenir
+ * - Arada durum geçişleri EventTrackingService tarafından bildirilir; sayaçlar transaction
+ *   commit edildikten sonra güncellenir (rollback olan değişiklik sayılmaz)
+ *
+ * Sayaçlar instance başınadır; başka instance'ların veya toplu güncellemelerin yaptığı değişiklikler
+ * bir sonraki resync'te yansır.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventStatusCounters {
+
+    private static final RegistrationEvent.EventStatus[] STATUSES = RegistrationEvent.EventStatus.values();
+
+    private final RegistrationEventRepository eventRepository;
+
+    // durum ordinal'i -> event sayısı
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Yeni event kaydını sayar
+     */
+    public void recordCreated(RegistrationEvent.EventStatus status) {
+        recordTransition(null, status);
+    }
+
+    /**
+     * Durum geçişini sayar; from null ise yeni kayıttır
+     */
+    public void recordTransition(RegistrationEvent.EventStatus from, RegistrationEvent.EventStatus to) {
+        recordTransitions(from, to, 1);
+    }
+
+    /**
+     * Aynı geçişi yapan birden çok kaydı sayar (toplu güncellemeler için)
+     */
+    public void recordTransitions(RegistrationEvent.EventStatus from, RegistrationEvent.EventStatus to, int count) {
+        if (from == to || count <= 0) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(from, to, count);
+                }
+            });
+        } else {
+            apply(from, to, count);
+        }
+    }
+
+    /**
+     * Durum başına güncel sayıları döndürür (ordinal sırasıyla)
+     */
+    public long[] snapshot() {
+        if (!loaded) {
+            resync();
+        }
+        long[] snapshot = new long[STATUSES.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = Math.max(0, counts.get(i));
+        }
+        return snapshot;
+    }
+
+    public long get(long[] snapshot, RegistrationEvent.EventStatus status) {
+        return snapshot[status.ordinal()];
+    }
+
+    /**
+     * Sayaçları tek GROUP BY sorgusuyla veritabanından yeniden yükler
+     */
+    @Scheduled(fixedDelayString = "${app.events.statistics.resync-interval-ms:300000}")
+    public synchronized void resync() {
+        long[] fresh = new long[STATUSES.length];
+        List<Object[]> rows = eventRepository.countByStatus();
+        for (Object[] row : rows) {
+            fresh[((RegistrationEvent.EventStatus) row[0]).ordinal()] = ((Number) row[1]).longValue();
+        }
+        for (int i = 0; i < fresh.length; i++) {
+            counts.set(i, fresh[i]);
+        }
+        loaded = true;
+        log.debug("Event durum sayaçları yenilendi: {}", rows.size());
+    }
+
+    private void apply(RegistrationEvent.EventStatus from, RegistrationEvent.EventStatus to, int count) {
+        if (from != null) {
+            counts.addAndGet(from.ordinal(), -count);
+        }
+        if (to != null) {
+            counts.addAndGet(to.ordinal(), count);
+        }
+    }
+}
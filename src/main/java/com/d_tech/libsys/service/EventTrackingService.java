@@ -5,6 +5,8 @@ import com.d_tech.libsys.dto.UserRegistrationEvent;
 import com.d_tech.libsys.repository.RegistrationEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +25,10 @@ import java.util.Optional;
 public class EventTrackingService {
 
     private final RegistrationEventRepository eventRepository;
+    private final EventStatusCounters statusCounters;
+
+    @Value("${app.events.cleanup.batch-size:1000}")
+    private int cleanupBatchSize;
 
     /**
      * Yeni event kaydı oluşturur
@@ -41,6 +47,7 @@ public class EventTrackingService {
                 .build();
 
         RegistrationEvent savedEvent = eventRepository.save(event);
+        statusCounters.recordCreated(savedEvent.getStatus());
         log.info("Event tracking kaydı oluşturuldu: id={}, eventId={}", savedEvent.getId(), savedEvent.getEventId());
 
         return savedEvent;
@@ -57,6 +64,7 @@ public class EventTrackingService {
         Optional<RegistrationEvent> optionalEvent = eventRepository.findByEventId(eventId);
         if (optionalEvent.isPresent()) {
             RegistrationEvent event = optionalEvent.get();
+            RegistrationEvent.EventStatus previousStatus = event.getStatus();
             event.setStatus(mapStatus(kafkaStatus));
             event.setMessage(message);
             event.setUpdatedAt(LocalDateTime.now());
@@ -68,6 +76,7 @@ public class EventTrackingService {
             }
 
             RegistrationEvent savedEvent = eventRepository.save(event);
+            statusCounters.recordTransition(previousStatus, savedEvent.getStatus());
             log.info("Event durumu güncellendi: eventId={}, newStatus={}", eventId, savedEvent.getStatus());
         } else {
             log.warn("Event bulunamadı, yeni kayıt oluşturuluyor: eventId={}", eventId);
@@ -82,6 +91,7 @@ public class EventTrackingService {
                     .build();
 
             eventRepository.save(newEvent);
+            statusCounters.recordCreated(newEvent.getStatus());
         }
     }
 
@@ -95,12 +105,14 @@ public class EventTrackingService {
         Optional<RegistrationEvent> optionalEvent = eventRepository.findByEventId(eventId);
         if (optionalEvent.isPresent()) {
             RegistrationEvent event = optionalEvent.get();
+            RegistrationEvent.EventStatus previousStatus = event.getStatus();
             event.setRetryCount(retryCount);
             event.setStatus(RegistrationEvent.EventStatus.RETRY);
             event.setMessage("Retry işlemi - " + retryCount + ". deneme");
             event.setUpdatedAt(LocalDateTime.now());
 
             RegistrationEvent savedEvent = eventRepository.save(event);
+            statusCounters.recordTransition(previousStatus, savedEvent.getStatus());
             log.info("Event retry count güncellendi: eventId={}, retryCount={}", eventId, savedEvent.getRetryCount());
         } else {
             log.warn("Retry update için event bulunamadı: eventId={}", eventId);
@@ -148,33 +160,25 @@ public class EventTrackingService {
     }
 
     /**
-     * Eski/takılı kalmış event'leri temizler
+     * 🚀 UPDATED: Eski/takılı kalmış event'leri temizler
      * Bu metot scheduled olarak çalışır (her saat)
+     *
+     * Event'ler yüklenmez: her durum için id'ler (status, created_at) indeksinden batch'ler halinde okunur ve
+     * tek UPDATE ile FAILED yapılır. Her batch kendi kısa transaction'ındadır, tablo boyunca kilit tutulmaz.
      */
     @Scheduled(fixedRate = 3600000) // Her saat (3600000 ms)
-    @Transactional
     public void cleanupStaleEvents() {
         log.info("Eski event'ler temizleniyor...");
 
         try {
             // 2 saatten eski pending/processing event'ler
             LocalDateTime cutoffTime = LocalDateTime.now().minusHours(2);
-            List<RegistrationEvent> staleEvents = eventRepository.findStaleEvents(cutoffTime);
 
-            log.info("Temizlenecek eski event sayısı: {}", staleEvents.size());
-
-            for (RegistrationEvent event : staleEvents) {
-                event.setStatus(RegistrationEvent.EventStatus.FAILED);
-                event.setMessage("Timeout - sistem tarafından başarısız olarak işaretlendi");
-                event.setUpdatedAt(LocalDateTime.now());
-                event.setCompletedAt(LocalDateTime.now());
+            int total = markStaleAsFailed(RegistrationEvent.EventStatus.PENDING, cutoffTime)
+                    + markStaleAsFailed(RegistrationEvent.EventStatus.PROCESSING, cutoffTime);
 
-                eventRepository.save(event);
-                log.warn("Event timeout nedeniyle başarısız olarak işaretlendi: eventId={}", event.getEventId());
-            }
-
-            if (staleEvents.size() > 0) {
-                log.info("Toplam {} eski event temizlendi", staleEvents.size());
+            if (total > 0) {
+                log.warn("Toplam {} eski event timeout nedeniyle başarısız olarak işaretlendi", total);
             }
 
         } catch (Exception e) {
@@ -183,18 +187,44 @@ public class EventTrackingService {
     }
 
     /**
-     * Event istatistiklerini getirir
+     * Verilen durumda cutoff'tan eski event'leri batch batch FAILED yapar, güncellenen sayıyı döner
+     */
+    private int markStaleAsFailed(RegistrationEvent.EventStatus status, LocalDateTime cutoffTime) {
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = eventRepository.findStaleEventIds(status, cutoffTime, PageRequest.of(0, cleanupBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            // Güncellenen satırlar koşuldan çıktığı için sonraki batch yine ilk sayfadır
+            int updated = eventRepository.markFailed(ids, status,
+                    "Timeout - sistem tarafından başarısız olarak işaretlendi", LocalDateTime.now());
+            statusCounters.recordTransitions(status, RegistrationEvent.EventStatus.FAILED, updated);
+            total += updated;
+
+            log.debug("Eski event batch'i temizlendi: status={}, batch={}, updated={}", status, ids.size(), updated);
+        } while (ids.size() == cleanupBatchSize);
+
+        return total;
+    }
+
+    /**
+     * 🚀 UPDATED: Event istatistiklerini getirir
+     * Sayılar bellekteki durum sayaçlarından okunur (EventStatusCounters); entity yüklenmez
      */
     public EventStatistics getEventStatistics() {
-        log.info("Event istatistikleri hesaplanıyor...");
+        log.debug("Event istatistikleri hesaplanıyor...");
 
         try {
-            long totalEvents = eventRepository.count();
-            long pendingEvents = eventRepository.findByStatus(RegistrationEvent.EventStatus.PENDING).size();
-            long processingEvents = eventRepository.findByStatus(RegistrationEvent.EventStatus.PROCESSING).size();
-            long completedEvents = eventRepository.findByStatus(RegistrationEvent.EventStatus.COMPLETED).size();
-            long failedEvents = eventRepository.findByStatus(RegistrationEvent.EventStatus.FAILED).size();
-            long retryEvents = eventRepository.findByStatus(RegistrationEvent.EventStatus.RETRY).size();
+            long[] counts = statusCounters.snapshot();
+            long pendingEvents = statusCounters.get(counts, RegistrationEvent.EventStatus.PENDING);
+            long processingEvents = statusCounters.get(counts, RegistrationEvent.EventStatus.PROCESSING);
+            long completedEvents = statusCounters.get(counts, RegistrationEvent.EventStatus.COMPLETED);
+            long failedEvents = statusCounters.get(counts, RegistrationEvent.EventStatus.FAILED);
+            long retryEvents = statusCounters.get(counts, RegistrationEvent.EventStatus.RETRY);
+            long totalEvents = pendingEvents + processingEvents + completedEvents + failedEvents + retryEvents;
 
             EventStatistics stats = EventStatistics.builder()
                     .totalEvents(totalEvents)
@@ -241,6 +271,7 @@ public class EventTrackingService {
         Optional<RegistrationEvent> optionalEvent = eventRepository.findByEventId(eventId);
         if (optionalEvent.isPresent()) {
             RegistrationEvent event = optionalEvent.get();
+            statusCounters.recordTransition(event.getStatus(), RegistrationEvent.EventStatus.COMPLETED);
             event.setStatus(RegistrationEvent.EventStatus.COMPLETED);
             event.setMessage("Manuel olarak tamamlandı: " + adminMessage);
             event.setUpdatedAt(LocalDateTime.now());
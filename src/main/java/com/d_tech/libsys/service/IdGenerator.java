@@ -0,0 +1,22 @@
+package com.d_tech.libsys.service;
+
+/**
+ * 🚀 NEW: Sipariş, fatura ve event ID'leri için ortak ID üretici
+ *
+ * Üretilen ID'ler instance içinde monoton artar ve farklı node'lar arasında çakışmaz;
+ * benzersizlik için veritabanı kontrolüne gerek yoktur.
+ */
+public interface IdGenerator {
+
+    /**
+     * Yeni, benzersiz ve monoton artan bir ID üretir
+     */
+    long nextId();
+
+    /**
+     * Önekli ID üretir, örn. "ORD-" + id
+     */
+    default String nextId(String prefix) {
+        return prefix + nextId();
+    }
+}
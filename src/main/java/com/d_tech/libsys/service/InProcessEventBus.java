@@ -0,0 +1,275 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 🚀 NEW: Kafka kapalıyken kullanılan gömülü event bus
+ *
+ * - Event'ler anahtarlarına göre (kitap, sipariş, kullanıcı) shard'lara dağıtılır; her shard'ın
+ *   kendi sınırlı halka tamponu ve tek worker thread'i vardır, böylece anahtar başına sıra korunur
+ * - Gönderim kilitsizdir; boşta bekleyen worker doğrudan uyandırılır (mikro saniye mertebesinde aktarım)
+ * - Event'ler Kafka listener'larıyla aynı consumer metodlarına (transaction proxy'si üzerinden) iletilir
+ * - Retry'lar Kafka'daki gecikme kademeleriyle aynı sürelerde yeniden kuyruğa alınır; DLQ loglanır
+ *
+ * Event'ler kalıcı değildir: tampon doluysa gönderim false döner, kapanışta kuyruktakiler işlenir.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.kafka.enabled", havingValue = "false", matchIfMissing = true)
+public class InProcessEventBus implements EventPublisher {
+
+    // Boşta worker'ın park etmeden önce döneceği tur sayısı ve varsayılan en uzun park süresi
+    private static final int SPIN_LIMIT = 100;
+    private static final long DEFAULT_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Kafka listener imzalarındaki manuel ack'in karşılığı; bellek içi teslimatta commit yoktur
+    private static final Acknowledgment NO_OP_ACK = () -> {
+    };
+
+    private final ObjectProvider<StockControlConsumer> stockControlConsumer;
+    private final ObjectProvider<StockOrderConsumer> stockOrderConsumer;
+    private final ObjectProvider<InvoiceConsumer> invoiceConsumer;
+    private final ObjectProvider<UserRegistrationConsumer> userRegistrationConsumer;
+
+    private final Shard[] shards;
+    private final long parkNanos;
+
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-bus-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public InProcessEventBus(ObjectProvider<StockControlConsumer> stockControlConsumer,
+                             ObjectProvider<StockOrderConsumer> stockOrderConsumer,
+                             ObjectProvider<InvoiceConsumer> invoiceConsumer,
+                             ObjectProvider<UserRegistrationConsumer> userRegistrationConsumer,
+                             @Value("${app.events.in-process.workers:0}") int configuredWorkers,
+                             @Value("${app.events.in-process.capacity:8192}") int capacity) {
+        this(stockControlConsumer, stockOrderConsumer, invoiceConsumer, userRegistrationConsumer,
+                configuredWorkers, capacity, DEFAULT_PARK_NANOS);
+    }
+
+    /**
+     * Park süresi testlerde uzatılabilir; böylece event'in park zaman aşımıyla değil uyandırmayla alındığı doğrulanır
+     */
+    InProcessEventBus(ObjectProvider<StockControlConsumer> stockControlConsumer,
+                      ObjectProvider<StockOrderConsumer> stockOrderConsumer,
+                      ObjectProvider<InvoiceConsumer> invoiceConsumer,
+                      ObjectProvider<UserRegistrationConsumer> userRegistrationConsumer,
+                      int configuredWorkers, int capacity, long parkNanos) {
+        this.parkNanos = parkNanos;
+        this.stockControlConsumer = stockControlConsumer;
+        this.stockOrderConsumer = stockOrderConsumer;
+        this.invoiceConsumer = invoiceConsumer;
+        this.userRegistrationConsumer = userRegistrationConsumer;
+
+        // 🚀 0 veya negatif: çekirdek sayısı kadar worker (anahtar başına sıra shard ile korunur)
+        int workers = configuredWorkers > 0 ? configuredWorkers : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[workers];
+        for (int i = 0; i < workers; i++) {
+            shards[i] = new Shard(i, new EventRingBuffer<>(capacity));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Shard shard : shards) {
+            Thread worker = new Thread(() -> runWorker(shard), "event-bus-worker-" + shard.index);
+            worker.setDaemon(true);
+            shard.worker = worker;
+            worker.start();
+        }
+        log.info("Bellek içi event bus başlatıldı: worker={}, shardKapasitesi={}",
+                shards.length, shards[0].ring.capacity());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendUserRegistrationEvent(UserRegistrationEvent event) {
+        event.setStatus(UserRegistrationEvent.EventStatus.PENDING);
+        return CompletableFuture.completedFuture(publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendStockEvent(StockControlEvent event) {
+        event.setStatus(StockControlEvent.EventStatus.PENDING);
+        return CompletableFuture.completedFuture(publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendStockOrderEvent(StockOrderEvent event) {
+        event.setStatus(StockOrderEvent.EventStatus.PENDING);
+        return CompletableFuture.completedFuture(publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendInvoiceEvent(InvoiceEvent event) {
+        event.setStatus(InvoiceEvent.EventStatus.PENDING);
+        return CompletableFuture.completedFuture(publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public void sendRetryEvent(UserRegistrationEvent event) {
+        scheduleRetry(event.getRetryCount(), () -> publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public void sendToDLQ(UserRegistrationEvent event, String errorReason) {
+        event.setMessage("DLQ: " + errorReason);
+        event.setStatus(UserRegistrationEvent.EventStatus.FAILED);
+        logDeadLetter(event.getEventId(), errorReason);
+    }
+
+    @Override
+    public void sendStockEventRetry(StockControlEvent event) {
+        scheduleRetry(event.getRetryCount(), () -> publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public void sendStockEventToDLQ(StockControlEvent event, String errorReason) {
+        event.setMessage("DLQ: " + errorReason);
+        event.setStatus(StockControlEvent.EventStatus.FAILED);
+        logDeadLetter(event.getEventId(), errorReason);
+    }
+
+    @Override
+    public void sendStockOrderEventRetry(StockOrderEvent event) {
+        scheduleRetry(event.getRetryCount(), () -> publish(EventKeys.of(event), event.getEventId(), event));
+    }
+
+    @Override
+    public void sendStockOrderEventToDLQ(StockOrderEvent event, String errorReason) {
+        event.setMessage("DLQ: " + errorReason);
+        event.setStatus(StockOrderEvent.EventStatus.FAILED);
+        logDeadLetter(event.getEventId(), errorReason);
+    }
+
+    /**
+     * Kapanışta kuyruktaki event'ler işlenir, ardından worker'lar durdurulur
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.worker);
+        }
+        for (Shard shard : shards) {
+            shard.worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        log.info("Bellek içi event bus durduruldu");
+    }
+
+    // 🚀 Yardımcı metodlar
+
+    private boolean publish(String key, String eventId, Object event) {
+        if (!running) {
+            log.warn("Event bus kapanıyor, event reddedildi: eventId={}", eventId);
+            return false;
+        }
+
+        Shard shard = shards[Math.floorMod(key != null ? key.hashCode() : 0, shards.length)];
+
+        if (!shard.ring.offer(event)) {
+            log.warn("Event bus tamponu dolu, event reddedildi: eventId={}, shard={}", eventId, shard.index);
+            return false;
+        }
+        if (shard.parked) {
+            LockSupport.unpark(shard.worker);
+        }
+        return true;
+    }
+
+    private void scheduleRetry(int retryCount, Runnable republish) {
+        if (!running) {
+            return;
+        }
+        retryScheduler.schedule(republish, DelayedRetryGate.tierDelayMs(retryCount), TimeUnit.MILLISECONDS);
+    }
+
+    private void runWorker(Shard shard) {
+        int idleSpins = 0;
+        while (running || shard.ring.size() > 0) {
+            Object event = shard.ring.poll();
+            if (event != null) {
+                idleSpins = 0;
+                dispatch(shard, event);
+                continue;
+            }
+
+            if (++idleSpins < SPIN_LIMIT) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            // Üretici parked bayrağını görüp uyandırır; bayrak kuyruk kontrolünden önce yazılır
+            shard.parked = true;
+            if (running && shard.ring.size() == 0) {
+                LockSupport.parkNanos(this, parkNanos);
+            }
+            shard.parked = false;
+            idleSpins = 0;
+        }
+    }
+
+    private void dispatch(Shard shard, Object event) {
+        long offset = shard.offset++;
+        try {
+            if (event instanceof StockControlEvent stockEvent) {
+                stockControlConsumer.getObject().handleStockControlEvent(stockEvent, shard.index, offset, NO_OP_ACK);
+            } else if (event instanceof StockOrderEvent orderEvent) {
+                stockOrderConsumer.getObject().handleStockOrderEvent(orderEvent, shard.index, offset);
+            } else if (event instanceof InvoiceEvent invoiceEvent) {
+                invoiceConsumer.getObject().handleInvoiceEvent(invoiceEvent, shard.index, offset);
+            } else if (event instanceof UserRegistrationEvent registrationEvent) {
+                userRegistrationConsumer.getObject().handleUserRegistration(registrationEvent, shard.index, offset);
+            } else {
+                log.warn("Bilinmeyen event tipi atlandı: {}", event.getClass().getName());
+            }
+        } catch (Exception e) {
+            log.error("Bellek içi event işlenemedi: type={}, shard={}, offset={}, error={}",
+                    event.getClass().getSimpleName(), shard.index, offset, e.getMessage(), e);
+        }
+    }
+
+    private static void logDeadLetter(String eventId, String errorReason) {
+        log.error("Event maximum retry'a ulaştı, manuel müdahale gerekli: eventId={}, reason={}", eventId, errorReason);
+    }
+
+    /**
+     * Tek worker'a ait halka tampon; offset sadece worker thread'i tarafından artırılır
+     */
+    private static final class Shard {
+        private final int index;
+        private final EventRingBuffer<Object> ring;
+        private volatile Thread worker;
+        private volatile boolean parked;
+        private long offset;
+
+        private Shard(int index, EventRingBuffer<Object> ring) {
+            this.index = index;
+            this.ring = ring;
+        }
+    }
+}
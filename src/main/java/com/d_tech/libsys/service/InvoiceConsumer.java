@@ -19,7 +19,12 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class InvoiceConsumer {
 
+    // Metrik etiketi
+    private static final String HANDLER = "invoice";
+
     private final InvoiceService invoiceService;
+    private final ProcessedEventStore processedEventStore;
+    private final EventMetrics eventMetrics;
 
     /**
      * 🚀 CRITICAL FIX: Acknowledgment parametresi kaldırıldı - AUTO_COMMIT kullanılıyor
@@ -27,7 +32,9 @@ public class InvoiceConsumer {
     @KafkaListener(
             topics = "${app.kafka.topic.invoice:invoice-topic}",
             groupId = "${spring.kafka.consumer.group-id:libsys-group}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     @Transactional
     public void handleInvoiceEvent(
@@ -35,9 +42,17 @@ public class InvoiceConsumer {
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset) {
 
+        long start = System.nanoTime();
         log.info("✅ Fatura event'i alındı: eventId={}, type={}, orderId={}, partition={}, offset={}",
                 event.getEventId(), event.getEventType(), event.getOrderId(), partition, offset);
 
+        // 🚀 Idempotency: daha önce başarıyla işlenmiş event tekrar uygulanmaz (sadece bellek kontrolü)
+        if (processedEventStore.isProcessed(event.getEventId())) {
+            log.info("Event zaten işlenmiş, atlanıyor: eventId={}", event.getEventId());
+            eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.DUPLICATE, start);
+            return;
+        }
+
         try {
             event.setStatus(InvoiceEvent.EventStatus.PROCESSING);
 
@@ -55,10 +70,13 @@ public class InvoiceConsumer {
 
             // ✅ Auto-commit ile başarı durumu
             if (event.getStatus() == InvoiceEvent.EventStatus.COMPLETED) {
+                processedEventStore.markProcessed(event.getEventId());
+                eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.SUCCESS, start);
                 log.info("✅ Fatura event'i başarıyla işlendi: eventId={}", event.getEventId());
             } else {
                 log.error("❌ Fatura event'i başarısız: eventId={}, message={}",
                         event.getEventId(), event.getMessage());
+                eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.FAILED, start);
             }
 
         } catch (Exception e) {
@@ -66,6 +84,7 @@ public class InvoiceConsumer {
                     event.getEventId(), e.getMessage(), e);
             event.setStatus(InvoiceEvent.EventStatus.FAILED);
             event.setMessage("İşleme hatası: " + e.getMessage());
+            eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.FAILED, start);
         }
     }
 
@@ -8,14 +8,15 @@ import com.d_tech.libsys.repository.InvoiceRepository;
 import com.d_tech.libsys.repository.StockOrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * 🚀 UPDATED: Fatura yönetim servisi - DELIVERED kontrolü düzeltildi
@@ -27,11 +28,13 @@ public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final StockOrderRepository stockOrderRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final IdGenerator idGenerator;
 
     /**
      * 🚀 FIXED: Asenkron fatura oluşturma - doğru method signature
      */
+    @Transactional
     public CompletableFuture<String> generateInvoiceAsync(Long orderId, InvoiceRequest invoiceRequest) {
         log.info("Asenkron fatura oluşturma başlatılıyor: orderId={}", orderId);
 
@@ -47,17 +50,10 @@ public class InvoiceService {
                     .invoiceRequest(invoiceRequest)
                     .build();
 
-            // Kafka'ya gönder
-            return kafkaProducerService.sendInvoiceEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Fatura oluşturma event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            log.error("Fatura oluşturma event'i gönderilemedi: orderId={}", orderId);
-                            throw new RuntimeException("Fatura oluşturma event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueInvoiceEvent(event);
+            log.info("Fatura oluşturma event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Asenkron fatura oluşturma hatası: orderId={}, error={}", orderId, e.getMessage(), e);
@@ -68,6 +64,7 @@ public class InvoiceService {
     /**
      * 🚀 FIXED: Fatura ödendi işareti - doğru method signature
      */
+    @Transactional
     public CompletableFuture<String> markInvoiceAsPaidAsync(Long invoiceId, String paymentMethod, String userId) {
         log.info("Fatura ödendi olarak işaretleniyor: invoiceId={}, paymentMethod={}", invoiceId, paymentMethod);
 
@@ -78,15 +75,10 @@ public class InvoiceService {
                     .message("Payment method: " + paymentMethod + ", User: " + userId)
                     .build();
 
-            return kafkaProducerService.sendInvoiceEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Fatura ödeme event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            throw new RuntimeException("Fatura ödeme event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueInvoiceEvent(event);
+            log.info("Fatura ödeme event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Fatura ödeme hatası: invoiceId={}, error={}", invoiceId, e.getMessage(), e);
@@ -233,6 +225,32 @@ public class InvoiceService {
         return invoiceRepository.findByCreatedByOrderByInvoiceDateDesc(userId);
     }
 
+    // 🚀 NEW: Keyset sayfalı listeler - id'si afterId'den büyük en fazla limit kadar fatura
+
+    public List<Invoice> getInvoicesByPaymentStatus(Invoice.PaymentStatus paymentStatus, Long afterId, int limit) {
+        return invoiceRepository.findByPaymentStatusAndIdGreaterThanOrderByIdAsc(paymentStatus, afterId, PageRequest.of(0, limit));
+    }
+
+    public List<Invoice> getOverdueInvoices(Long afterId, int limit) {
+        return invoiceRepository.findOverdueInvoicesAfter(LocalDateTime.now(), afterId, PageRequest.of(0, limit));
+    }
+
+    public List<Invoice> getInvoicesBySupplier(String supplierName, Long afterId, int limit) {
+        return invoiceRepository.findBySupplierNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                supplierName, afterId, PageRequest.of(0, limit));
+    }
+
+    public List<Invoice> getInvoicesByUser(String userId, Long afterId, int limit) {
+        return invoiceRepository.findByCreatedByAndIdGreaterThanOrderByIdAsc(userId, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * 🚀 NEW: Export için fatura akışı - açık bir transaction içinde tüketilmelidir
+     */
+    public Stream<Invoice> streamAllInvoices() {
+        return invoiceRepository.streamAllWithOrder();
+    }
+
     public Double getTotalUnpaidAmount() {
         return invoiceRepository.calculateTotalUnpaidAmount();
     }
@@ -310,15 +328,11 @@ public class InvoiceService {
     }
 
     private String generateInvoiceNumber() {
-        String invoiceNumber;
-        do {
-            invoiceNumber = Invoice.generateInvoiceNumber();
-        } while (invoiceRepository.existsByInvoiceNumber(invoiceNumber));
-
-        return invoiceNumber;
+        // 🚀 UPDATED: Snowflake ID - çakışmaz, veritabanı kontrolü gerekmez
+        return idGenerator.nextId("INV-");
     }
 
     private String generateEventId(String prefix) {
-        return prefix + "_" + System.currentTimeMillis() + "_" + UUID.randomUUID().toString().substring(0, 8);
+        return idGenerator.nextId(prefix + "_");
     }
 }
\ No newline at end of file
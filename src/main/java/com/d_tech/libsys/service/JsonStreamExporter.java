@@ -0,0 +1,77 @@
+package com.d_tech.libsys.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 🚀 NEW: Tam dışa aktarımlar (export) için akışlı JSON yazıcı
+ *
+ * Repository'den gelen Stream<> satır satır JSON dizisine yazılır. Her parçadan sonra
+ * persistence context temizlenir, böylece bellek kullanımı tablo boyutuyla büyümez.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JsonStreamExporter {
+
+    private static final int CLEAR_EVERY_ROWS = 500;
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Verilen sorguyu read-only bir transaction içinde açar ve her satırı mapper'dan geçirip yazar
+     */
+    public <T> StreamingResponseBody export(String exportName, Supplier<Stream<T>> query, Function<T, ?> mapper) {
+        return outputStream -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            long start = System.currentTimeMillis();
+            Long rowCount = transactionTemplate.execute(status -> {
+                // Her satırdan sonra flush yapılmasın, tampon dolunca yazılsın
+                ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+                try (Stream<T> rows = query.get();
+                     JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+
+                    generator.writeStartArray();
+                    long count = 0;
+                    Iterator<T> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        writer.writeValue(generator, mapper.apply(iterator.next()));
+                        if (++count % CLEAR_EVERY_ROWS == 0) {
+                            generator.flush();
+                            entityManager.clear();
+                        }
+                    }
+                    generator.writeEndArray();
+                    return count;
+
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            log.info("Export tamamlandı: export={}, satır={}, süre={}ms",
+                    exportName, rowCount, System.currentTimeMillis() - start);
+        };
+    }
+}
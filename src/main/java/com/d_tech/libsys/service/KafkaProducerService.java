@@ -3,6 +3,7 @@ package com.d_tech.libsys.service;
 import com.d_tech.libsys.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -10,20 +11,24 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Conditional Kafka Producer Service - only active when Kafka is enabled
+ * 🚀 UPDATED: EventPublisher implementasyonu - Kafka kapalıyken yerini InProcessEventBus alır
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @ConditionalOnProperty(name = "app.kafka.enabled", havingValue = "true", matchIfMissing = false)
-public class KafkaProducerService {
+public class KafkaProducerService implements EventPublisher {
 
     @Autowired(required = false)
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    private final EventMetrics eventMetrics;
+
     @Value("${app.kafka.enabled:false}")
     private boolean kafkaEnabled;
 
@@ -39,6 +44,7 @@ public class KafkaProducerService {
     @Value("${app.kafka.topic.invoice:invoice-topic}")
     private String invoiceTopic;
 
+    @Override
     public CompletableFuture<Boolean> sendUserRegistrationEvent(UserRegistrationEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) {
             log.warn("Kafka disabled or template null - cannot send user registration event: eventId={}", event.getEventId());
@@ -51,10 +57,12 @@ public class KafkaProducerService {
         event.setStatus(UserRegistrationEvent.EventStatus.PENDING);
 
         try {
+            long start = System.nanoTime();
             CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(userRegistrationTopic, event.getEventId(), event);
+                    kafkaTemplate.send(userRegistrationTopic, EventKeys.of(event), event);
 
             return future.handle((result, throwable) -> {
+                eventMetrics.recordSend(userRegistrationTopic, throwable == null, start);
                 if (throwable != null) {
                     log.error("User registration event send failed: eventId={}, error={}",
                             event.getEventId(), throwable.getMessage(), throwable);
@@ -75,6 +83,7 @@ public class KafkaProducerService {
         }
     }
 
+    @Override
     public CompletableFuture<Boolean> sendStockEvent(StockControlEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) {
             log.warn("Kafka disabled or template null - cannot send stock control event: eventId={}", event.getEventId());
@@ -87,10 +96,12 @@ public class KafkaProducerService {
         event.setStatus(StockControlEvent.EventStatus.PENDING);
 
         try {
+            long start = System.nanoTime();
             CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(stockControlTopic, event.getEventId(), event);
+                    kafkaTemplate.send(stockControlTopic, EventKeys.of(event), event);
 
             return future.handle((result, throwable) -> {
+                eventMetrics.recordSend(stockControlTopic, throwable == null, start);
                 if (throwable != null) {
                     log.error("Stock control event send failed: eventId={}, error={}",
                             event.getEventId(), throwable.getMessage(), throwable);
@@ -111,6 +122,7 @@ public class KafkaProducerService {
         }
     }
 
+    @Override
     public CompletableFuture<Boolean> sendStockOrderEvent(StockOrderEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) {
             log.warn("Kafka disabled or template null - cannot send stock order event: eventId={}", event.getEventId());
@@ -123,10 +135,12 @@ public class KafkaProducerService {
         event.setStatus(StockOrderEvent.EventStatus.PENDING);
 
         try {
+            long start = System.nanoTime();
             CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(stockOrderTopic, event.getEventId(), event);
+                    kafkaTemplate.send(stockOrderTopic, EventKeys.of(event), event);
 
             return future.handle((result, throwable) -> {
+                eventMetrics.recordSend(stockOrderTopic, throwable == null, start);
                 if (throwable != null) {
                     log.error("Stock order event send failed: eventId={}, error={}",
                             event.getEventId(), throwable.getMessage(), throwable);
@@ -147,6 +161,7 @@ public class KafkaProducerService {
         }
     }
 
+    @Override
     public CompletableFuture<Boolean> sendInvoiceEvent(InvoiceEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) {
             log.warn("Kafka disabled or template null - cannot send invoice event: eventId={}", event.getEventId());
@@ -159,10 +174,12 @@ public class KafkaProducerService {
         event.setStatus(InvoiceEvent.EventStatus.PENDING);
 
         try {
+            long start = System.nanoTime();
             CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(invoiceTopic, event.getEventId(), event);
+                    kafkaTemplate.send(invoiceTopic, EventKeys.of(event), event);
 
             return future.handle((result, throwable) -> {
+                eventMetrics.recordSend(invoiceTopic, throwable == null, start);
                 if (throwable != null) {
                     log.error("Invoice event send failed: eventId={}, error={}",
                             event.getEventId(), throwable.getMessage(), throwable);
@@ -184,19 +201,20 @@ public class KafkaProducerService {
     }
 
     // Retry and DLQ methods with null checks
+    @Override
     public void sendRetryEvent(UserRegistrationEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) {
             log.warn("Kafka disabled or template null - cannot send retry event: eventId={}", event.getEventId());
             return;
         }
 
-        String retryTopic = userRegistrationTopic + ".retry";
         log.info("Sending user registration retry event: eventId={}, retryCount={}",
                 event.getEventId(), event.getRetryCount());
 
-        kafkaTemplate.send(retryTopic, event.getEventId(), event);
+        sendToRetryTier(userRegistrationTopic, EventKeys.of(event), event, event.getRetryCount());
     }
 
+    @Override
     public void sendToDLQ(UserRegistrationEvent event, String errorReason) {
         if (!kafkaEnabled || kafkaTemplate == null) {
             log.warn("Kafka disabled or template null - cannot send to DLQ: eventId={}", event.getEventId());
@@ -210,36 +228,55 @@ public class KafkaProducerService {
         log.error("Sending user registration event to DLQ: eventId={}, reason={}",
                 event.getEventId(), errorReason);
 
-        kafkaTemplate.send(dlqTopic, event.getEventId(), event);
+        eventMetrics.recordRouted(dlqTopic, "dlq");
+        kafkaTemplate.send(dlqTopic, EventKeys.of(event), event);
     }
 
     // Other retry and DLQ methods with similar null checks...
+    @Override
     public void sendStockEventRetry(StockControlEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) return;
-        String retryTopic = stockControlTopic + ".retry";
-        kafkaTemplate.send(retryTopic, event.getEventId(), event);
+        sendToRetryTier(stockControlTopic, EventKeys.of(event), event, event.getRetryCount());
     }
 
+    @Override
     public void sendStockEventToDLQ(StockControlEvent event, String errorReason) {
         if (!kafkaEnabled || kafkaTemplate == null) return;
         String dlqTopic = stockControlTopic + ".dlq";
         event.setMessage("DLQ: " + errorReason);
         event.setStatus(StockControlEvent.EventStatus.FAILED);
-        kafkaTemplate.send(dlqTopic, event.getEventId(), event);
+        eventMetrics.recordRouted(dlqTopic, "dlq");
+        kafkaTemplate.send(dlqTopic, EventKeys.of(event), event);
     }
 
+    @Override
     public void sendStockOrderEventRetry(StockOrderEvent event) {
         if (!kafkaEnabled || kafkaTemplate == null) return;
-        String retryTopic = stockOrderTopic + ".retry";
-        kafkaTemplate.send(retryTopic, event.getEventId(), event);
+        sendToRetryTier(stockOrderTopic, EventKeys.of(event), event, event.getRetryCount());
     }
 
+    @Override
     public void sendStockOrderEventToDLQ(StockOrderEvent event, String errorReason) {
         if (!kafkaEnabled || kafkaTemplate == null) return;
         String dlqTopic = stockOrderTopic + ".dlq";
         event.setMessage("DLQ: " + errorReason);
         event.setStatus(StockOrderEvent.EventStatus.FAILED);
-        kafkaTemplate.send(dlqTopic, event.getEventId(), event);
+        eventMetrics.recordRouted(dlqTopic, "dlq");
+        kafkaTemplate.send(dlqTopic, EventKeys.of(event), event);
+    }
+
+    /**
+     * 🚀 NEW: Retry event'ini gecikme kademesi topic'ine (.retry-1s/.retry-10s/.retry-60s)
+     * işlenebileceği zamanı taşıyan header ile gönderir
+     */
+    private void sendToRetryTier(String baseTopic, String key, Object event, int retryCount) {
+        String retryTopic = baseTopic + DelayedRetryGate.tierSuffix(retryCount);
+        long dueAt = System.currentTimeMillis() + DelayedRetryGate.tierDelayMs(retryCount);
+
+        ProducerRecord<String, Object> record = new ProducerRecord<>(retryTopic, key, event);
+        record.headers().add(DelayedRetryGate.DUE_AT_HEADER, Long.toString(dueAt).getBytes(StandardCharsets.UTF_8));
+        eventMetrics.recordRouted(baseTopic, "retry");
+        kafkaTemplate.send(record);
     }
 
     public void sendMessage(String topic, String key, Object message) {
@@ -0,0 +1,216 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.OutboxEvent;
+import com.d_tech.libsys.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚀 NEW: Outbox tablosunu Kafka'ya aktaran arka plan relay'i
+ *
+ * Her turda en eski kayıtlardan bir batch okunur, tümü beklemeden gönderilir (pipelining),
+ * tek flush ile producer tamponu boşaltılır ve onaylanan kayıtlar tek sorguda silinir.
+ * Gönderim ile silme arasında çökme olursa kayıt tekrar gönderilir (at-least-once);
+ * consumer'lar eventId üzerinden tekrarları tolere etmelidir.
+ *
+ * 🚀 UPDATED:
+ * - Batch kısa bir transaction içinde FOR UPDATE SKIP LOCKED ile seçilip claimedUntil'e kadar sahiplenilir;
+ *   birden çok instance aynı kaydı göndermez. Gönderim transaction dışında yapılır (DB kilidi broker'ı beklemez);
+ *   sahiplik süresi dolmadan bitmeyen (çöken) relay'in kayıtları süre sonunda yeniden alınır.
+ * - Anahtar başına sıra korunur: batch anahtar başına dalgalar halinde gönderilir (her dalgada her anahtarın
+ *   sıradaki tek kaydı), bir kaydı başarısız olan anahtarın sonraki kayıtları bu turda gönderilmez.
+ *   Daha eski kaydı başka bir relay'de kilitli olan anahtarlar da bu turda bekletilir.
+ * - app.outbox.max-attempts denemeden sonra gönderilemeyen kayıt park edilir ve anahtarın kuyruğunu tıkamaz
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.kafka.enabled", havingValue = "true", matchIfMissing = false)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final EventMetrics eventMetrics;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.claim-ttl-ms:300000}")
+    private long claimTtlMs;
+
+    /**
+     * Tablo boşalana veya bir gönderim hatası alınana kadar batch batch aktarır
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:200}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Tek batch gönderir
+     *
+     * @return başarıyla gönderilen kayıt sayısı (hata veya bekletilen kayıt varsa batch'ten az olur ve tur biter)
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+        List<Long> heldIds = new ArrayList<>();
+        String lastError = null;
+
+        // 1. Kayıtları anahtar kuyruklarına ayır (batch ID sırasında olduğu için kuyruklar da sıralı)
+        Map<String, Deque<OutboxEvent>> queues = new LinkedHashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            queues.computeIfAbsent(queueKey(outboxEvent), key -> new ArrayDeque<>()).add(outboxEvent);
+        }
+        holdKeysClaimedElsewhere(queues, heldIds);
+
+        // 2. Dalga dalga gönder: her dalgada her kuyruğun başı, beklemeden gönderilir ve tek flush yapılır
+        while (!queues.isEmpty()) {
+            List<OutboxEvent> wave = new ArrayList<>(queues.size());
+            for (Deque<OutboxEvent> queue : queues.values()) {
+                wave.add(queue.peekFirst());
+            }
+
+            List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(wave.size());
+            for (OutboxEvent outboxEvent : wave) {
+                futures.add(send(outboxEvent));
+            }
+            kafkaTemplate.flush();
+
+            // 3. Onayları topla; başarısız olan anahtarın kalan kayıtları bu turda gönderilmez
+            for (int i = 0; i < wave.size(); i++) {
+                OutboxEvent outboxEvent = wave.get(i);
+                Deque<OutboxEvent> queue = queues.get(queueKey(outboxEvent));
+                try {
+                    futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                    sentIds.add(outboxEvent.getId());
+                    queue.pollFirst();
+                } catch (Exception e) {
+                    failedIds.add(outboxEvent.getId());
+                    lastError = e.getMessage();
+                    queue.pollFirst();
+                    queue.forEach(rest -> heldIds.add(rest.getId()));
+                    queue.clear();
+                }
+            }
+            queues.values().removeIf(Deque::isEmpty);
+        }
+
+        // 4. Gönderilenleri sil, bekletilenleri bırak, gönderilemeyenleri işaretle (sınırı aşanlar park edilir)
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(sentIds);
+        }
+        if (!heldIds.isEmpty()) {
+            outboxEventRepository.release(heldIds);
+        }
+        if (!failedIds.isEmpty()) {
+            String error = lastError != null && lastError.length() > 1000 ? lastError.substring(0, 1000) : lastError;
+            outboxEventRepository.markFailed(failedIds, error, maxAttempts);
+            log.error("Outbox kayıtları gönderilemedi, bir sonraki turda tekrar denenecek ({} denemeden sonra park edilir): " +
+                    "adet={}, bekletilen={}, error={}", maxAttempts, failedIds.size(), heldIds.size(), lastError);
+        }
+
+        log.debug("Outbox batch'i aktarıldı: gönderilen={}, başarısız={}, bekletilen={}, süre={}ms",
+                sentIds.size(), failedIds.size(), heldIds.size(), System.currentTimeMillis() - start);
+        return failedIds.isEmpty() && heldIds.isEmpty() ? sentIds.size() : 0;
+    }
+
+    // 🚀 Yardımcı metodlar
+
+    /**
+     * En eski boştaki kayıtları tek transaction'da kilitleyip sahiplenir
+     */
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> batch = new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimable = outboxEventRepository.findClaimable(now, PageRequest.of(0, batchSize));
+            if (!claimable.isEmpty()) {
+                outboxEventRepository.claim(claimable.stream().map(OutboxEvent::getId).toList(),
+                        now.plus(claimTtlMs, ChronoUnit.MILLIS));
+            }
+            return claimable;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent outboxEvent) {
+        try {
+            Object payload = objectMapper.readValue(outboxEvent.getPayload(), Class.forName(outboxEvent.getPayloadType()));
+            long sendStart = System.nanoTime();
+            return kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getMessageKey(), payload)
+                    .whenComplete((result, throwable) ->
+                            eventMetrics.recordSend(outboxEvent.getTopic(), throwable == null, sendStart));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Daha eski, park edilmemiş bir kaydı batch dışında kalan (başka relay'in sahiplendiği) anahtarları çıkarır
+     */
+    private void holdKeysClaimedElsewhere(Map<String, Deque<OutboxEvent>> queues, List<Long> heldIds) {
+        Map<String, Long> firstIdInBatch = new HashMap<>();
+        for (Deque<OutboxEvent> queue : queues.values()) {
+            OutboxEvent first = queue.peekFirst();
+            if (first.getMessageKey() != null) {
+                firstIdInBatch.put(first.getMessageKey(), first.getId());
+            }
+        }
+        if (firstIdInBatch.isEmpty()) {
+            return;
+        }
+
+        for (Object[] row : outboxEventRepository.findOldestIdByKey(firstIdInBatch.keySet())) {
+            String key = (String) row[0];
+            if (((Number) row[1]).longValue() < firstIdInBatch.get(key)) {
+                queues.remove(key).forEach(outboxEvent -> heldIds.add(outboxEvent.getId()));
+            }
+        }
+    }
+
+    /**
+     * Anahtarsız kayıtların sırası önemsizdir; her biri kendi kuyruğunda gönderilir
+     */
+    private static String queueKey(OutboxEvent outboxEvent) {
+        return outboxEvent.getMessageKey() != null ? outboxEvent.getMessageKey() : "\u0000" + outboxEvent.getId();
+    }
+}
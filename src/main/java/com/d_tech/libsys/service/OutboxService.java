@@ -0,0 +1,116 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.OutboxEvent;
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 🚀 NEW: Transactional outbox - event'ler Kafka yerine çağıranın transaction'ı içinde tabloya yazılır
+ *
+ * HTTP thread'i broker'ı beklemez; broker kapalıyken de istek başarılı olur.
+ * Gönderim OutboxRelay tarafından arka planda, toplu olarak yapılır.
+ *
+ * 🚀 UPDATED: Kafka kapalıyken tablo kullanılmaz; event commit sonrasında InProcessEventBus'a verilir.
+ *
+ * Tüm metodlar açık bir transaction içinden çağrılmalıdır; iş değişikliği geri alınırsa event de geri alınır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final EventPublisher eventPublisher;
+
+    @Value("${app.kafka.enabled:false}")
+    private boolean kafkaEnabled;
+
+    @Value("${app.kafka.topic.stock-control:stock-control-topic}")
+    private String stockControlTopic;
+
+    @Value("${app.kafka.topic.stock-order:stock-order-topic}")
+    private String stockOrderTopic;
+
+    @Value("${app.kafka.topic.invoice:invoice-topic}")
+    private String invoiceTopic;
+
+    public void enqueueStockEvent(StockControlEvent event) {
+        event.setStatus(StockControlEvent.EventStatus.PENDING);
+        if (!kafkaEnabled) {
+            publishAfterCommit(event.getEventId(), () -> eventPublisher.sendStockEvent(event));
+            return;
+        }
+        enqueue(stockControlTopic, EventKeys.of(event), event.getEventId(), event);
+    }
+
+    public void enqueueStockOrderEvent(StockOrderEvent event) {
+        event.setStatus(StockOrderEvent.EventStatus.PENDING);
+        if (!kafkaEnabled) {
+            publishAfterCommit(event.getEventId(), () -> eventPublisher.sendStockOrderEvent(event));
+            return;
+        }
+        enqueue(stockOrderTopic, EventKeys.of(event), event.getEventId(), event);
+    }
+
+    public void enqueueInvoiceEvent(InvoiceEvent event) {
+        event.setStatus(InvoiceEvent.EventStatus.PENDING);
+        if (!kafkaEnabled) {
+            publishAfterCommit(event.getEventId(), () -> eventPublisher.sendInvoiceEvent(event));
+            return;
+        }
+        enqueue(invoiceTopic, EventKeys.of(event), event.getEventId(), event);
+    }
+
+    /**
+     * Event'i outbox tablosuna yazar
+     */
+    public void enqueue(String topic, String key, String eventId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event serileştirilemedi: " + eventId, e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventId(eventId)
+                .topic(topic)
+                .messageKey(key)
+                .payloadType(payload.getClass().getName())
+                .payload(json)
+                .build());
+
+        log.debug("Event outbox'a yazıldı: eventId={}, topic={}", eventId, topic);
+    }
+
+    /**
+     * Bellek içi bus'a gönderimi transaction commit'ine bağlar (rollback'te event hiç yayınlanmaz)
+     */
+    private void publishAfterCommit(String eventId, Supplier<CompletableFuture<Boolean>> publish) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (!publish.get().join()) {
+                    log.error("Event bellek içi bus'a verilemedi: eventId={}", eventId);
+                }
+            }
+        });
+    }
+}
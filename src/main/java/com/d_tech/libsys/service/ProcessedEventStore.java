@@ -0,0 +1,135 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.ProcessedEvent;
+import com.d_tech.libsys.repository.ProcessedEventRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 🚀 NEW: Idempotent consumer için işlenmiş event deposu
+ *
+ * - Sıcak yol: eventId bellek içi, zaman pencereli ve sınırlı bir kümede aranır (veritabanı sorgusu yok)
+ * - Başarıyla işlenen event, handler'ın transaction'ı içinde processed_events tablosuna yazılır ve
+ *   commit sonrasında kümeye eklenir
+ * - Kümede olmayan (başka instance'ta işlenmiş veya kümeden düşmüş) bir tekrar, tablodaki primary key
+ *   çakışması ile commit'te reddedilir; iş değişiklikleri geri alınır
+ * - Açılışta küme pencere içindeki son kayıtlarla ısıtılır, süresi dolanlar periyodik olarak temizlenir
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessedEventStore {
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    @Value("${app.events.dedup.window-hours:24}")
+    private long windowHours;
+
+    @Value("${app.events.dedup.max-entries:100000}")
+    private int maxEntries;
+
+    // eventId -> işlenme zamanı (ms)
+    private final Map<String, Long> processed = new ConcurrentHashMap<>();
+
+    // Ekleme sırası - en eski kayıtlar önce düşer
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minus(window());
+        List<ProcessedEvent> recent = processedEventRepository.findRecent(since, PageRequest.of(0, maxEntries));
+        // En eskiden yeniye ekle ki taşmada önce eskiler düşsün
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            ProcessedEvent event = recent.get(i);
+            remember(event.getEventId(), event.getProcessedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        log.info("İşlenmiş event kümesi ısıtıldı: adet={}, pencere={}s", processed.size(), window().toSeconds());
+    }
+
+    /**
+     * Event daha önce başarıyla işlendiyse true (sadece bellek kontrolü)
+     */
+    public boolean isProcessed(String eventId) {
+        return eventId != null && processed.containsKey(eventId);
+    }
+
+    /**
+     * Event'i işlenmiş olarak kaydeder. Handler'ın transaction'ı içinden, iş değişikliklerinden sonra çağrılmalıdır.
+     */
+    public void markProcessed(String eventId) {
+        if (eventId == null) {
+            return;
+        }
+        processedEventRepository.save(new ProcessedEvent(eventId, LocalDateTime.now()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(eventId, System.currentTimeMillis());
+                }
+            });
+        } else {
+            remember(eventId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Pencere dışına çıkan kayıtları bellekten ve tablodan temizler
+     */
+    @Scheduled(fixedDelayString = "${app.events.dedup.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long cutoffMillis = System.currentTimeMillis() - window().toMillis();
+        int evicted = 0;
+        String eventId;
+        while ((eventId = insertionOrder.peek()) != null) {
+            Long processedAt = processed.get(eventId);
+            if (processedAt != null && processedAt >= cutoffMillis) {
+                break;
+            }
+            insertionOrder.poll();
+            processed.remove(eventId);
+            evicted++;
+        }
+
+        int deleted = processedEventRepository.deleteOlderThan(LocalDateTime.now().minus(window()));
+        if (evicted > 0 || deleted > 0) {
+            log.info("İşlenmiş event kayıtları temizlendi: bellek={}, tablo={}", evicted, deleted);
+        }
+    }
+
+    private void remember(String eventId, long processedAt) {
+        if (processed.putIfAbsent(eventId, processedAt) != null) {
+            return;
+        }
+        insertionOrder.add(eventId);
+        // Sınır aşılırsa en eskiler düşer; tablodaki primary key tekrarları yine engeller
+        while (processed.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            processed.remove(oldest);
+        }
+    }
+
+    private Duration window() {
+        return Duration.ofHours(windowHours);
+    }
+}
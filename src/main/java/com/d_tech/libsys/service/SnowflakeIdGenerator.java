@@ -0,0 +1,86 @@
+package com.d_tech.libsys.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🚀 NEW: Snowflake düzeninde kilitsiz (lock-free) ID üretici
+ *
+ * 64 bit yerleşim: [1 bit işaret = 0][41 bit milisaniye (EPOCH'tan beri)][10 bit node][12 bit sıra]
+ *
+ * - Zaman ve sıra tek bir AtomicLong içinde tutulur, CAS ile ilerletilir (kilit yok)
+ * - Aynı milisaniyede 4096'dan fazla ID istenirse ya da saat geri giderse bir sonraki
+ *   milisaniye "ödünç" alınır; böylece ID'ler hiçbir durumda azalmaz veya tekrarlanmaz
+ * - Node ID'si app.id.node-id (veya NODE_ID) ile verilmelidir; her instance'ta farklı olmalıdır.
+ *   Verilmezse hostname'den türetilir (çakışma ihtimali vardır, uyarı loglanır)
+ */
+@Component
+@Slf4j
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    // 2024-01-01T00:00:00Z - 41 bit zaman alanı bu tarihten itibaren ~69 yıl yeter
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (EPOCH'tan beri milisaniye << SEQUENCE_BITS) | sıra
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(@Value("${app.id.node-id:${NODE_ID:-1}}") long configuredNodeId) {
+        this.nodeId = configuredNodeId >= 0 ? validate(configuredNodeId) : nodeIdFromHostname();
+        log.info("Snowflake ID üretici hazır: nodeId={}", nodeId);
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+
+            // Yeni milisaniyede sıra sıfırdan başlar; aksi halde (aynı ms, taşma veya saat geri gitmesi)
+            // durum bir artırılır - taşan sıra zaman alanına geçer
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    private static long validate(long configuredNodeId) {
+        if (configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(
+                    "app.id.node-id 0-" + MAX_NODE_ID + " aralığında olmalıdır: " + configuredNodeId);
+        }
+        return configuredNodeId;
+    }
+
+    private static long nodeIdFromHostname() {
+        String hostname;
+        try {
+            hostname = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            hostname = String.valueOf(ProcessHandle.current().pid());
+        }
+        long derived = Math.floorMod(hostname.hashCode(), MAX_NODE_ID + 1);
+        log.warn("app.id.node-id tanımlı değil, node ID hostname'den türetildi: host={}, nodeId={}. " +
+                "Birden fazla instance çalışıyorsa her birine farklı NODE_ID verin.", hostname, derived);
+        return derived;
+    }
+}
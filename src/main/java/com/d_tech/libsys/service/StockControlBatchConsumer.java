@@ -0,0 +1,266 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.BookStock;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.repository.BookStockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🚀 NEW: Stok kontrol topic'i için batch consumer
+ *
+ * Bir poll'daki tüm event'ler bookId'ye göre gruplanır, ilgili stoklar tek sorguda kilitlenerek
+ * (kitap başına tek satır kilidi) yüklenir ve event'ler geliş sırasıyla bellekte uygulanır.
+ * Kitap başına net değişiklik tek UPDATE olarak tek transaction içinde yazılır, ardından batch ack'lenir.
+ *
+ * app.kafka.stock-control.batch.enabled=true ile açılır; bu durumda StockControlConsumer'ın
+ * ana topic listener'ı başlatılmaz (retry topic listener'ı çalışmaya devam eder).
+ */
+@Service
+@ConditionalOnProperty(name = {"app.kafka.enabled", "app.kafka.stock-control.batch.enabled"}, havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class StockControlBatchConsumer {
+
+    // Metrik etiketi
+    private static final String HANDLER = "stock-control-batch";
+
+    private final BookStockRepository bookStockRepository;
+    private final EventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final PlatformTransactionManager transactionManager;
+    private final ProcessedEventStore processedEventStore;
+    private final EventMetrics eventMetrics;
+
+    @KafkaListener(
+            topics = "${app.kafka.topic.stock-control:stock-control-topic}",
+            groupId = "${spring.kafka.consumer.group-id:libsys-group}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void handleStockControlBatch(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        // bookId -> event'ler (geliş sırasıyla)
+        Map<Long, List<StockControlEvent>> eventsByBook = new LinkedHashMap<>();
+        List<StockControlEvent> failed = new ArrayList<>();
+        Set<String> seenEventIds = new HashSet<>();
+        int duplicates = 0;
+
+        for (ConsumerRecord<String, Object> record : records) {
+            if (!(record.value() instanceof StockControlEvent event)) {
+                log.warn("Beklenmeyen kayıt tipi atlandı: partition={}, offset={}, type={}",
+                        record.partition(), record.offset(),
+                        record.value() != null ? record.value().getClass().getSimpleName() : "null");
+                continue;
+            }
+            // 🚀 Idempotency: daha önce işlenmiş veya aynı batch'te tekrarlanan event atlanır
+            if (processedEventStore.isProcessed(event.getEventId())
+                    || (event.getEventId() != null && !seenEventIds.add(event.getEventId()))) {
+                duplicates++;
+                continue;
+            }
+            if (event.getBookId() == null || event.getEventType() == null) {
+                fail(event, "Kitap ID'si ve event tipi boş olamaz");
+                failed.add(event);
+                continue;
+            }
+            eventsByBook.computeIfAbsent(event.getBookId(), bookId -> new ArrayList<>()).add(event);
+        }
+
+        BatchResult result;
+        try {
+            result = new TransactionTemplate(transactionManager).execute(status -> applyBatch(eventsByBook));
+        } catch (Exception e) {
+            log.error("Stok kontrol batch'i uygulanamadı, event'ler retry topic'e aktarılıyor: kayıt={}, error={}",
+                    records.size(), e.getMessage(), e);
+            eventsByBook.values().forEach(events -> failed.addAll(events));
+            failed.forEach(event -> routeFailure(event, e.getMessage()));
+            acknowledgment.acknowledge();
+            eventMetrics.recordBatch(HANDLER, records.size(), failed.size(), duplicates, startNanos);
+            return;
+        }
+
+        // Kafka gönderimleri commit sonrası yapılır
+        result.alerts.forEach(this::sendLowStockAlert);
+        failed.addAll(result.failed);
+        failed.forEach(event -> routeFailure(event, event.getMessage()));
+        acknowledgment.acknowledge();
+        eventMetrics.recordBatch(HANDLER, records.size(), failed.size(), duplicates, startNanos);
+
+        log.info("Stok kontrol batch'i işlendi: kayıt={}, kitap={}, başarısız={}, tekrar={}, uyarı={}, süre={}ms",
+                records.size(), eventsByBook.size(), failed.size(), duplicates, result.alerts.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Transaction içinde: stokları kilitle, event'leri sırayla uygula
+     */
+    private BatchResult applyBatch(Map<Long, List<StockControlEvent>> eventsByBook) {
+        BatchResult result = new BatchResult();
+        if (eventsByBook.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, BookStock> stocksByBookId = new HashMap<>();
+        for (BookStock stock : bookStockRepository.findByBookIdInForUpdate(eventsByBook.keySet())) {
+            stocksByBookId.put(stock.getBook().getId(), stock);
+        }
+
+        eventsByBook.forEach((bookId, events) -> {
+            BookStock stock = stocksByBookId.get(bookId);
+            boolean checkRestock = false;
+
+            for (StockControlEvent event : events) {
+                checkRestock |= apply(stock, event);
+                if (event.getStatus() == StockControlEvent.EventStatus.FAILED) {
+                    result.failed.add(event);
+                } else {
+                    processedEventStore.markProcessed(event.getEventId());
+                }
+            }
+
+            // Kitap başına en fazla bir uyarı
+            if (checkRestock && stock.isRestockNeeded()) {
+                result.alerts.add(stock);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Tek event'i bellekteki stoğa uygular
+     *
+     * @return düşük stok kontrolü gerekiyorsa true
+     */
+    private boolean apply(BookStock stock, StockControlEvent event) {
+        switch (event.getEventType()) {
+            case STOCK_CHECK -> {
+                if (stock == null) {
+                    fail(event, "Kitap için stok kaydı bulunamadı");
+                    return false;
+                }
+                complete(event, String.format("Stok kontrolü tamamlandı. Mevcut miktar: %d, Durum: %s",
+                        stock.getCurrentQuantity(), stock.getStatus()));
+                return true;
+            }
+            case STOCK_DECREASE -> {
+                if (!isApplicable(stock, event)) {
+                    return false;
+                }
+                if (stock.decreaseStock(event.getQuantity())) {
+                    complete(event, String.format("Stok başarıyla azaltıldı. Yeni miktar: %d", stock.getCurrentQuantity()));
+                    return true;
+                }
+                fail(event, String.format("Yetersiz stok. Mevcut: %d, İstenen: %d",
+                        stock.getCurrentQuantity(), event.getQuantity()));
+                return false;
+            }
+            case STOCK_INCREASE -> {
+                if (!isApplicable(stock, event)) {
+                    return false;
+                }
+                stock.increaseStock(event.getQuantity());
+                complete(event, String.format("Stok başarıyla artırıldı. Yeni miktar: %d", stock.getCurrentQuantity()));
+                return false;
+            }
+            case LOW_STOCK_ALERT -> {
+                log.warn("Düşük stok uyarısı: bookId={}, message={}", event.getBookId(), event.getMessage());
+                complete(event, "Düşük stok uyarısı işlendi");
+                return false;
+            }
+            case OUT_OF_STOCK_ALERT -> {
+                log.error("Stok tükendi uyarısı: bookId={}, message={}", event.getBookId(), event.getMessage());
+                complete(event, "Stok tükendi uyarısı işlendi");
+                return false;
+            }
+            default -> {
+                log.warn("Bilinmeyen event tipi: {}", event.getEventType());
+                fail(event, "Bilinmeyen event tipi");
+                return false;
+            }
+        }
+    }
+
+    private static boolean isApplicable(BookStock stock, StockControlEvent event) {
+        if (event.getQuantity() == null || event.getQuantity() <= 0) {
+            fail(event, "Miktar pozitif olmalıdır");
+            return false;
+        }
+        if (stock == null) {
+            fail(event, "Kitap için stok kaydı bulunamadı");
+            return false;
+        }
+        return true;
+    }
+
+    private static void complete(StockControlEvent event, String message) {
+        event.setStatus(StockControlEvent.EventStatus.COMPLETED);
+        event.setMessage(message);
+    }
+
+    private static void fail(StockControlEvent event, String message) {
+        event.setStatus(StockControlEvent.EventStatus.FAILED);
+        event.setMessage(message);
+    }
+
+    /**
+     * Başarısız event'i retry topic'e, retry hakkı bittiyse DLQ'ya gönderir
+     */
+    private void routeFailure(StockControlEvent event, String reason) {
+        event.incrementRetry();
+        event.setMessage("Hata: " + reason);
+
+        if (event.canRetry()) {
+            log.warn("Stok kontrol event'i retry edilecek: eventId={}, retryCount={}, error={}",
+                    event.getEventId(), event.getRetryCount(), reason);
+            eventPublisher.sendStockEventRetry(event);
+        } else {
+            log.error("Stok kontrol event'i maximum retry'a ulaştı: eventId={}, error={}",
+                    event.getEventId(), reason);
+            eventPublisher.sendStockEventToDLQ(event, reason);
+        }
+    }
+
+    /**
+     * Düşük stok uyarısı gönder
+     */
+    private void sendLowStockAlert(BookStock stock) {
+        StockControlEvent alertEvent = StockControlEvent.builder()
+                .eventId(idGenerator.nextId("ALERT_"))
+                .eventType(stock.getStatus() == BookStock.StockStatus.OUT_OF_STOCK ?
+                        StockControlEvent.EventType.OUT_OF_STOCK_ALERT :
+                        StockControlEvent.EventType.LOW_STOCK_ALERT)
+                .bookId(stock.getBook().getId())
+                .quantity(stock.getCurrentQuantity())
+                .userId("SYSTEM")
+                .message(String.format("%s - Mevcut: %d, Minimum: %d, Önerilen sipariş: %d",
+                        stock.getBook().getTitle(),
+                        stock.getCurrentQuantity(),
+                        stock.getMinimumQuantity(),
+                        stock.getRecommendedOrderQuantity()))
+                .build();
+
+        eventPublisher.sendStockEvent(alertEvent);
+    }
+
+    private static final class BatchResult {
+        private final List<StockControlEvent> failed = new ArrayList<>();
+        private final List<BookStock> alerts = new ArrayList<>();
+    }
+}
@@ -5,6 +5,8 @@ import com.d_tech.libsys.dto.StockControlEvent;
 import com.d_tech.libsys.repository.BookStockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -23,8 +25,17 @@ import java.util.Optional;
 @Slf4j
 public class StockControlConsumer {
 
+    static final String RETRY_LISTENER_ID = "stockControlRetryListener";
+
+    // Metrik etiketi
+    private static final String HANDLER = "stock-control";
+
     private final BookStockRepository bookStockRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final EventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final DelayedRetryGate delayedRetryGate;
+    private final ProcessedEventStore processedEventStore;
+    private final EventMetrics eventMetrics;
 
     /**
      * Stok kontrol event'lerini işler
@@ -32,7 +43,10 @@ public class StockControlConsumer {
     @KafkaListener(
             topics = "${app.kafka.topic.stock-control:stock-control-topic}",
             groupId = "${spring.kafka.consumer.group-id:libsys-group}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Batch modu açıkken ana topic StockControlBatchConsumer tarafından tüketilir;
+            // Kafka kapalıyken container başlatılmaz, event'ler InProcessEventBus ile gelir
+            autoStartup = "#{${app.kafka.enabled:false} && !${app.kafka.stock-control.batch.enabled:false}}"
     )
     @Transactional
     public void handleStockControlEvent(
@@ -41,9 +55,18 @@ public class StockControlConsumer {
             @Header(KafkaHeaders.OFFSET) long offset,
             Acknowledgment acknowledgment) {
 
+        long start = System.nanoTime();
         log.info("Stok kontrol event'i alındı: eventId={}, type={}, bookId={}, partition={}, offset={}",
                 event.getEventId(), event.getEventType(), event.getBookId(), partition, offset);
 
+        // 🚀 Idempotency: daha önce başarıyla işlenmiş event tekrar uygulanmaz (sadece bellek kontrolü)
+        if (processedEventStore.isProcessed(event.getEventId())) {
+            log.info("Event zaten işlenmiş, atlanıyor: eventId={}", event.getEventId());
+            acknowledgment.acknowledge();
+            eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.DUPLICATE, start);
+            return;
+        }
+
         try {
             // Event'i processing durumuna getir
             event.setStatus(StockControlEvent.EventStatus.PROCESSING);
@@ -64,17 +87,21 @@ public class StockControlConsumer {
 
             // Başarılı tamamlandıysa commit et
             if (event.getStatus() == StockControlEvent.EventStatus.COMPLETED) {
+                processedEventStore.markProcessed(event.getEventId());
                 acknowledgment.acknowledge();
+                eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.SUCCESS, start);
                 log.info("Stok kontrol event'i başarıyla işlendi: eventId={}", event.getEventId());
             } else {
                 // Hata durumunda retry
                 handleStockControlError(event, new RuntimeException(event.getMessage()), acknowledgment);
+                eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.FAILED, start);
             }
 
         } catch (Exception e) {
             log.error("Stok kontrol event'i işlenirken hata: eventId={}, error={}",
                     event.getEventId(), e.getMessage(), e);
             handleStockControlError(event, e, acknowledgment);
+            eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.FAILED, start);
         }
     }
 
@@ -104,51 +131,58 @@ public class StockControlConsumer {
     }
 
     /**
-     * Stok azaltma işlemi
+     * 🚀 UPDATED: Stok azaltma işlemi - tek koşullu UPDATE (oku-değiştir-yaz yok, eksi stok oluşmaz)
      */
     private void handleStockDecrease(StockControlEvent event) {
         log.info("Stok azaltılıyor: bookId={}, quantity={}", event.getBookId(), event.getQuantity());
 
-        Optional<BookStock> stockOpt = bookStockRepository.findByBookId(event.getBookId());
+        if (event.getQuantity() == null || event.getQuantity() <= 0) {
+            event.setStatus(StockControlEvent.EventStatus.FAILED);
+            event.setMessage("Miktar pozitif olmalıdır");
+            return;
+        }
 
-        if (stockOpt.isPresent()) {
-            BookStock stock = stockOpt.get();
+        int updated = bookStockRepository.decreaseStockIfAvailable(event.getBookId(), event.getQuantity());
+        Optional<BookStock> stockOpt = bookStockRepository.findByBookId(event.getBookId());
 
-            if (stock.decreaseStock(event.getQuantity())) {
-                bookStockRepository.save(stock);
-                event.setStatus(StockControlEvent.EventStatus.COMPLETED);
-                event.setMessage(String.format("Stok başarıyla azaltıldı. Yeni miktar: %d", stock.getCurrentQuantity()));
+        if (stockOpt.isEmpty()) {
+            event.setStatus(StockControlEvent.EventStatus.FAILED);
+            event.setMessage("Kitap için stok kaydı bulunamadı");
+            return;
+        }
 
-                // Düşük stok kontrolü
-                if (stock.isRestockNeeded()) {
-                    sendLowStockAlert(stock);
-                }
+        BookStock stock = stockOpt.get();
+        if (updated == 1) {
+            event.setStatus(StockControlEvent.EventStatus.COMPLETED);
+            event.setMessage(String.format("Stok başarıyla azaltıldı. Yeni miktar: %d", stock.getCurrentQuantity()));
 
-            } else {
-                event.setStatus(StockControlEvent.EventStatus.FAILED);
-                event.setMessage(String.format("Yetersiz stok. Mevcut: %d, İstenen: %d",
-                        stock.getCurrentQuantity(), event.getQuantity()));
+            // Düşük stok kontrolü
+            if (stock.isRestockNeeded()) {
+                sendLowStockAlert(stock);
             }
-
         } else {
             event.setStatus(StockControlEvent.EventStatus.FAILED);
-            event.setMessage("Kitap için stok kaydı bulunamadı");
+            event.setMessage(String.format("Yetersiz stok. Mevcut: %d, İstenen: %d",
+                    stock.getCurrentQuantity(), event.getQuantity()));
         }
     }
 
     /**
-     * Stok artırma işlemi
+     * 🚀 UPDATED: Stok artırma işlemi - tek atomik UPDATE
      */
     private void handleStockIncrease(StockControlEvent event) {
         log.info("Stok artırılıyor: bookId={}, quantity={}", event.getBookId(), event.getQuantity());
 
-        Optional<BookStock> stockOpt = bookStockRepository.findByBookId(event.getBookId());
+        if (event.getQuantity() == null || event.getQuantity() <= 0) {
+            event.setStatus(StockControlEvent.EventStatus.FAILED);
+            event.setMessage("Miktar pozitif olmalıdır");
+            return;
+        }
 
-        if (stockOpt.isPresent()) {
-            BookStock stock = stockOpt.get();
-            stock.increaseStock(event.getQuantity());
-            bookStockRepository.save(stock);
+        int updated = bookStockRepository.increaseStock(event.getBookId(), event.getQuantity());
 
+        if (updated == 1) {
+            BookStock stock = bookStockRepository.findByBookId(event.getBookId()).orElseThrow();
             event.setStatus(StockControlEvent.EventStatus.COMPLETED);
             event.setMessage(String.format("Stok başarıyla artırıldı. Yeni miktar: %d", stock.getCurrentQuantity()));
 
@@ -191,7 +225,7 @@ public class StockControlConsumer {
      */
     private void sendLowStockAlert(BookStock stock) {
         StockControlEvent alertEvent = StockControlEvent.builder()
-                .eventId("ALERT_" + System.currentTimeMillis())
+                .eventId(idGenerator.nextId("ALERT_"))
                 .eventType(stock.getStatus() == BookStock.StockStatus.OUT_OF_STOCK ?
                         StockControlEvent.EventType.OUT_OF_STOCK_ALERT :
                         StockControlEvent.EventType.LOW_STOCK_ALERT)
@@ -205,7 +239,7 @@ public class StockControlConsumer {
                         stock.getRecommendedOrderQuantity()))
                 .build();
 
-        kafkaProducerService.sendStockEvent(alertEvent);
+        eventPublisher.sendStockEvent(alertEvent);
     }
 
     /**
@@ -219,44 +253,51 @@ public class StockControlConsumer {
             log.warn("Stok kontrol event'i retry edilecek: eventId={}, retryCount={}, error={}",
                     event.getEventId(), event.getRetryCount(), error.getMessage());
 
-            kafkaProducerService.sendStockEventRetry(event);
+            eventPublisher.sendStockEventRetry(event);
             acknowledgment.acknowledge();
         } else {
             log.error("Stok kontrol event'i maximum retry'a ulaştı: eventId={}, error={}",
                     event.getEventId(), error.getMessage());
 
-            kafkaProducerService.sendStockEventToDLQ(event, error.getMessage());
+            eventPublisher.sendStockEventToDLQ(event, error.getMessage());
             acknowledgment.acknowledge();
         }
     }
 
     /**
-     * Retry topic'ten gelen stok event'lerini işler
+     * 🚀 UPDATED: Gecikmeli retry topic'lerinden gelen stok event'lerini işler
+     * Zamanı gelmemiş kayıtlar için partition duraklatılır; listener thread'i uyumaz.
      */
     @KafkaListener(
-            topics = "${app.kafka.topic.stock-control:stock-control-topic}.retry",
+            id = RETRY_LISTENER_ID,
+            topics = {
+                    "${app.kafka.topic.stock-control:stock-control-topic}.retry-1s",
+                    "${app.kafka.topic.stock-control:stock-control-topic}.retry-10s",
+                    "${app.kafka.topic.stock-control:stock-control-topic}.retry-60s",
+                    "${app.kafka.topic.stock-control:stock-control-topic}.retry"
+            },
             groupId = "${spring.kafka.consumer.group-id:libsys-group}.retry",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     @Transactional
     public void handleStockControlRetry(
-            @Payload StockControlEvent event,
-            Acknowledgment acknowledgment) {
+            ConsumerRecord<String, StockControlEvent> record,
+            Acknowledgment acknowledgment,
+            Consumer<?, ?> consumer) {
 
-        log.info("Stok kontrol retry event'i alındı: eventId={}, retryCount={}",
-                event.getEventId(), event.getRetryCount());
+        // Zamanı gelmemişse KafkaBackoffException fırlatılır; kayıt commit edilmeden geri sarılır
+        delayedRetryGate.backOffIfNotDue(RETRY_LISTENER_ID, record, consumer);
 
-        try {
-            // Kısa bekleme (exponential backoff)
-            long waitTime = (long) Math.pow(2, event.getRetryCount()) * 1000;
-            Thread.sleep(Math.min(waitTime, 30000));
+        StockControlEvent event = record.value();
+        log.info("Stok kontrol retry event'i alındı: eventId={}, retryCount={}, topic={}",
+                event.getEventId(), event.getRetryCount(), record.topic());
 
+        try {
             // Ana işlemi tekrar çalıştır
-            handleStockControlEvent(event, 0, 0, acknowledgment);
+            handleStockControlEvent(event, record.partition(), record.offset(), acknowledgment);
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            acknowledgment.acknowledge();
         } catch (Exception e) {
             handleStockControlError(event, e, acknowledgment);
         }
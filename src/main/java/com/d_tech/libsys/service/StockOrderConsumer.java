@@ -4,6 +4,8 @@ import com.d_tech.libsys.domain.model.StockOrder;
 import com.d_tech.libsys.dto.StockOrderEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -19,9 +21,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class StockOrderConsumer {
 
+    static final String RETRY_LISTENER_ID = "stockOrderRetryListener";
+
+    // Metrik etiketi
+    private static final String HANDLER = "stock-order";
+
     private final StockOrderService stockOrderService;
     private final InvoiceService invoiceService;
-    private final KafkaProducerService kafkaProducerService;
+    private final EventPublisher eventPublisher;
+    private final DelayedRetryGate delayedRetryGate;
+    private final ProcessedEventStore processedEventStore;
+    private final EventMetrics eventMetrics;
 
     /**
      * 🚀 FIXED: Acknowledgment parametresi kaldırıldı - AUTO_COMMIT kullanılıyor
@@ -29,7 +39,9 @@ public class StockOrderConsumer {
     @KafkaListener(
             topics = "${app.kafka.topic.stock-order:stock-order-topic}",
             groupId = "${spring.kafka.consumer.group-id:libsys-group}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     @Transactional
     public void handleStockOrderEvent(
@@ -37,9 +49,17 @@ public class StockOrderConsumer {
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset) {
 
+        long start = System.nanoTime();
         log.info("✅ Stok sipariş event'i alındı: eventId={}, type={}, orderId={}, partition={}, offset={}",
                 event.getEventId(), event.getEventType(), event.getOrderId(), partition, offset);
 
+        // 🚀 Idempotency: daha önce başarıyla işlenmiş event tekrar uygulanmaz (sadece bellek kontrolü)
+        if (processedEventStore.isProcessed(event.getEventId())) {
+            log.info("Event zaten işlenmiş, atlanıyor: eventId={}", event.getEventId());
+            eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.DUPLICATE, start);
+            return;
+        }
+
         try {
             event.setStatus(StockOrderEvent.EventStatus.PROCESSING);
 
@@ -59,17 +79,21 @@ public class StockOrderConsumer {
 
             // ✅ Auto-commit ile başarı durumu
             if (event.getStatus() == StockOrderEvent.EventStatus.COMPLETED) {
+                processedEventStore.markProcessed(event.getEventId());
+                eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.SUCCESS, start);
                 log.info("✅ Stok sipariş event'i başarıyla işlendi: eventId={}", event.getEventId());
             } else {
                 log.error("❌ Stok sipariş event'i başarısız: eventId={}, message={}",
                         event.getEventId(), event.getMessage());
                 handleStockOrderError(event, new RuntimeException(event.getMessage()));
+                eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.FAILED, start);
             }
 
         } catch (Exception e) {
             log.error("💥 Stok sipariş event'i işlenirken hata: eventId={}, error={}",
                     event.getEventId(), e.getMessage(), e);
             handleStockOrderError(event, e);
+            eventMetrics.recordHandled(HANDLER, event.getEventType(), EventMetrics.FAILED, start);
         }
     }
 
@@ -231,43 +255,48 @@ public class StockOrderConsumer {
             log.warn("🔄 Stok sipariş event'i retry edilecek: eventId={}, retryCount={}",
                     event.getEventId(), event.getRetryCount());
 
-            kafkaProducerService.sendStockOrderEventRetry(event);
+            eventPublisher.sendStockOrderEventRetry(event);
         } else {
             log.error("💀 Stok sipariş event'i maximum retry'a ulaştı: eventId={}",
                     event.getEventId());
 
-            kafkaProducerService.sendStockOrderEventToDLQ(event, error.getMessage());
+            eventPublisher.sendStockOrderEventToDLQ(event, error.getMessage());
         }
     }
 
     /**
-     * ✅ FIXED: Retry consumer - Acknowledgment kaldırıldı
+     * 🚀 UPDATED: Gecikmeli retry topic'lerinden gelen sipariş event'lerini işler
+     * Zamanı gelmemiş kayıtlar için partition duraklatılır; listener thread'i uyumaz.
      */
     @KafkaListener(
-            topics = "${app.kafka.topic.stock-order:stock-order-topic}.retry",
+            id = RETRY_LISTENER_ID,
+            topics = {
+                    "${app.kafka.topic.stock-order:stock-order-topic}.retry-1s",
+                    "${app.kafka.topic.stock-order:stock-order-topic}.retry-10s",
+                    "${app.kafka.topic.stock-order:stock-order-topic}.retry-60s",
+                    "${app.kafka.topic.stock-order:stock-order-topic}.retry"
+            },
             groupId = "${spring.kafka.consumer.group-id:libsys-group}.retry",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     @Transactional
     public void handleStockOrderRetry(
-            @Payload StockOrderEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            ConsumerRecord<String, StockOrderEvent> record,
+            Consumer<?, ?> consumer) {
 
-        log.info("🔄 Stok sipariş retry event'i alındı: eventId={}, retryCount={}, partition={}, offset={}",
-                event.getEventId(), event.getRetryCount(), partition, offset);
+        // Zamanı gelmemişse KafkaBackoffException fırlatılır; kayıt commit edilmeden geri sarılır
+        delayedRetryGate.backOffIfNotDue(RETRY_LISTENER_ID, record, consumer);
 
-        try {
-            // Exponential backoff
-            long waitTime = (long) Math.pow(2, event.getRetryCount()) * 1000;
-            Thread.sleep(Math.min(waitTime, 30000));
+        StockOrderEvent event = record.value();
+        log.info("🔄 Stok sipariş retry event'i alındı: eventId={}, retryCount={}, topic={}, partition={}, offset={}",
+                event.getEventId(), event.getRetryCount(), record.topic(), record.partition(), record.offset());
 
+        try {
             // Ana işlemi tekrar çalıştır
-            handleStockOrderEvent(event, partition, offset);
+            handleStockOrderEvent(event, record.partition(), record.offset());
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("🛑 Retry işlemi kesildi: eventId={}", event.getEventId());
         } catch (Exception e) {
             log.error("💥 Retry işleminde hata: eventId={}, error={}", event.getEventId(), e.getMessage(), e);
             handleStockOrderError(event, e);
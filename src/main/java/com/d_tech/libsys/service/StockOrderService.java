@@ -6,18 +6,22 @@ import com.d_tech.libsys.dto.*;
 import com.d_tech.libsys.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
-import jakarta.persistence.Query;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 🚀 UPDATED: Stok sipariş yönetim servisi - SHIPPED endpoint ve orderItems getirme eklendi
@@ -31,12 +35,13 @@ public class StockOrderService {
     private final StockOrderItemRepository stockOrderItemRepository;
     private final BookRepository bookRepository;
     private final BookStockRepository bookStockRepository;
-    private final KafkaProducerService kafkaProducerService;
-    private final EntityManager entityManager;
+    private final OutboxService outboxService;
+    private final IdGenerator idGenerator;
 
     /**
      * Asenkron sipariş oluşturma
      */
+    @Transactional
     public CompletableFuture<String> createOrderAsync(StockOrderRequest orderRequest) {
         log.info("Asenkron sipariş oluşturma başlatılıyor: supplier={}, itemCount={}",
                 orderRequest.getSupplierName(), orderRequest.getItems().size());
@@ -52,17 +57,10 @@ public class StockOrderService {
                     .orderRequest(orderRequest)
                     .build();
 
-            // Kafka'ya gönder
-            return kafkaProducerService.sendStockOrderEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Sipariş oluşturma event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            log.error("Sipariş oluşturma event'i gönderilemedi");
-                            throw new RuntimeException("Sipariş oluşturma event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockOrderEvent(event);
+            log.info("Sipariş oluşturma event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Asenkron sipariş oluşturma hatası: error={}", e.getMessage(), e);
@@ -73,6 +71,7 @@ public class StockOrderService {
     /**
      * Sipariş onaylama
      */
+    @Transactional
     public CompletableFuture<String> confirmOrderAsync(Long orderId, String userId) {
         log.info("Sipariş onaylama başlatılıyor: orderId={}, userId={}", orderId, userId);
 
@@ -83,15 +82,10 @@ public class StockOrderService {
                     .orderId(orderId)
                     .build();
 
-            return kafkaProducerService.sendStockOrderEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Sipariş onaylama event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            throw new RuntimeException("Sipariş onaylama event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockOrderEvent(event);
+            log.info("Sipariş onaylama event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Sipariş onaylama hatası: orderId={}, error={}", orderId, e.getMessage(), e);
@@ -102,6 +96,7 @@ public class StockOrderService {
     /**
      * 🚀 YENİ: Sipariş kargoya verme (CONFIRMED → SHIPPED)
      */
+    @Transactional
     public CompletableFuture<String> shipOrderAsync(Long orderId, String userId) {
         log.info("Sipariş kargoya verme başlatılıyor: orderId={}, userId={}", orderId, userId);
 
@@ -112,15 +107,10 @@ public class StockOrderService {
                     .orderId(orderId)
                     .build();
 
-            return kafkaProducerService.sendStockOrderEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Sipariş kargoya verme event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            throw new RuntimeException("Sipariş kargoya verme event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockOrderEvent(event);
+            log.info("Sipariş kargoya verme event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Sipariş kargoya verme hatası: orderId={}, error={}", orderId, e.getMessage(), e);
@@ -131,6 +121,7 @@ public class StockOrderService {
     /**
      * Sipariş teslimat alma
      */
+    @Transactional
     public CompletableFuture<String> receiveOrderAsync(Long orderId, List<StockReceiptItem> receiptItems, String userId) {
         log.info("Sipariş teslimat alma başlatılıyor: orderId={}, userId={}", orderId, userId);
 
@@ -142,15 +133,10 @@ public class StockOrderService {
                     .message("Receipt items: " + receiptItems.size())
                     .build();
 
-            return kafkaProducerService.sendStockOrderEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Sipariş teslimat event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            throw new RuntimeException("Sipariş teslimat event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockOrderEvent(event);
+            log.info("Sipariş teslimat event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Sipariş teslimat hatası: orderId={}, error={}", orderId, e.getMessage(), e);
@@ -171,7 +157,7 @@ public class StockOrderService {
                 throw new IllegalArgumentException("Sipariş bulunamadı: " + orderId);
             }
 
-            List<StockOrderItem> items = stockOrderItemRepository.findByStockOrderId(orderId);
+            List<StockOrderItem> items = stockOrderItemRepository.findByStockOrderIdWithBook(orderId);
 
             if (items.isEmpty()) {
                 log.warn("Sipariş kalemleri bulunamadı: orderId={}", orderId);
@@ -199,221 +185,21 @@ public class StockOrderService {
     }
 
     /**
-     * 🚀 FIXED: Sipariş detayını getir - ENHANCED VERSION WITH MULTIPLE STRATEGIES
+     * 🚀 UPDATED: Sipariş detayını getir - kalemler ve fatura tek sorguda (fetch join) yüklenir
+     * Bulunamayan ID için de sadece tek bir primary key sorgusu çalışır.
      */
     @Transactional(readOnly = true)
     public Optional<StockOrder> getOrderById(Long orderId) {
-        System.out.println("=== StockOrderService.getOrderById FIXED VERSION ===");
-        System.out.println("🔍 Aranan ID: " + orderId);
-        System.out.println("🔍 ID Type: " + (orderId != null ? orderId.getClass().getSimpleName() : "null"));
-
-        log.info("Sipariş detayı getiriliyor: orderId={}", orderId);
-
-        try {
-            // ✅ 1. Input validation
-            if (orderId == null || orderId <= 0) {
-                System.out.println("❌ Geçersiz orderId: " + orderId);
-                log.warn("Geçersiz orderId: {}", orderId);
-                return Optional.empty();
-            }
-
-            // ✅ 2. EntityManager flush - pending changes'i commit et
-            System.out.println("🔍 EntityManager flush yapılıyor...");
-            entityManager.flush();
-
-            // ✅ 3. İlk arama - standart repository metodu
-            System.out.println("🔍 Strategy 1: Repository.findById...");
-            Optional<StockOrder> result = stockOrderRepository.findById(orderId);
-
-            if (result.isPresent()) {
-                StockOrder order = result.get();
-                System.out.println("✅ Strategy 1 SUCCESS: ID=" + order.getId() + ", OrderNumber=" + order.getOrderNumber());
-                log.info("Sipariş bulundu (Strategy 1): orderId={}, orderNumber={}", orderId, order.getOrderNumber());
-                return result;
-            }
-
-            // ✅ 4. Strategy 2 - Cache clear ve tekrar dene
-            System.out.println("🔍 Strategy 2: Cache clear + retry...");
-            entityManager.clear();
-            result = stockOrderRepository.findById(orderId);
-
-            if (result.isPresent()) {
-                StockOrder order = result.get();
-                System.out.println("✅ Strategy 2 SUCCESS: Cache clear sonrası bulundu");
-                log.info("Sipariş bulundu (Strategy 2 - Cache Clear): orderId={}, orderNumber={}", orderId, order.getOrderNumber());
-                return result;
-            }
-
-            // ✅ 5. Strategy 3 - Native query
-            System.out.println("🔍 Strategy 3: Native query...");
-            try {
-                Query nativeQuery = entityManager.createNativeQuery(
-                        "SELECT * FROM stock_orders WHERE id = ?", StockOrder.class);
-                nativeQuery.setParameter(1, orderId);
-
-                StockOrder order = (StockOrder) nativeQuery.getSingleResult();
-                System.out.println("✅ Strategy 3 SUCCESS: Native query ile bulundu - " + order.getOrderNumber());
-                log.info("Sipariş bulundu (Strategy 3 - Native): orderId={}, orderNumber={}", orderId, order.getOrderNumber());
-                return Optional.of(order);
-
-            } catch (NoResultException e) {
-                System.out.println("❌ Strategy 3 FAILED: Native query ile de bulunamadı");
-            }
-
-            // ✅ 6. Strategy 4 - Debug repository metodu
-            System.out.println("🔍 Strategy 4: Debug repository metodu...");
-            try {
-                Optional<StockOrder> debugResult = stockOrderRepository.debugFindByIdNative(orderId);
-                if (debugResult.isPresent()) {
-                    StockOrder order = debugResult.get();
-                    System.out.println("✅ Strategy 4 SUCCESS: Debug native query ile bulundu");
-                    log.info("Sipariş bulundu (Strategy 4 - Debug): orderId={}, orderNumber={}", orderId, order.getOrderNumber());
-                    return debugResult;
-                }
-            } catch (Exception debugEx) {
-                System.out.println("⚠️ Strategy 4 ERROR: " + debugEx.getMessage());
-            }
-
-            // ✅ 7. Final check - existsById kontrolü
-            System.out.println("🔍 Final Check: existsById...");
-            boolean exists = stockOrderRepository.existsById(orderId);
-            System.out.println("🔍 ExistsById sonucu: " + exists);
-
-            if (exists) {
-                System.out.println("⚠️ PARADOX: ID var ama hiçbir strategy ile bulunamadı!");
-                log.error("PARADOX: Order exists but not found with any strategy: orderId={}", orderId);
-
-                // Son çare - tüm siparişleri getir ve manuel ara
-                List<StockOrder> allOrders = stockOrderRepository.findAll();
-                Optional<StockOrder> manualFind = allOrders.stream()
-                        .filter(o -> o.getId().equals(orderId))
-                        .findFirst();
-
-                if (manualFind.isPresent()) {
-                    System.out.println("✅ MANUAL SEARCH SUCCESS!");
-                    return manualFind;
-                }
-            }
-
-            // ✅ 8. Son durum - bulunamadı
-            System.out.println("❌ FINAL RESULT: Sipariş hiçbir yöntemle bulunamadı - orderId=" + orderId);
-            log.warn("Sipariş hiçbir strategy ile bulunamadı: orderId={}", orderId);
-
-            // Debug bilgisi yazdır
-            printDebugInfo(orderId);
-
-            return Optional.empty();
-
-        } catch (Exception e) {
-            System.out.println("💥 getOrderById kritik hatası: " + e.getMessage());
-            log.error("Sipariş detayı getirme kritik hatası: orderId={}, error={}", orderId, e.getMessage(), e);
-            e.printStackTrace();
+        if (orderId == null || orderId <= 0) {
+            log.warn("Geçersiz orderId: {}", orderId);
             return Optional.empty();
         }
-    }
-
-    /**
-     * ✅ DEBUG: Detaylı debug bilgisi yazdır
-     */
-    private void printDebugInfo(Long searchId) {
-        try {
-            System.out.println("=== DEBUG INFO ===");
-
-            // Toplam sipariş sayısı
-            long totalCount = stockOrderRepository.count();
-            System.out.println("📊 Toplam sipariş sayısı: " + totalCount);
-
-            // Tüm ID'leri listele
-            List<Long> allIds = stockOrderRepository.debugGetAllIds();
-            System.out.println("📊 Tüm ID'ler (" + allIds.size() + "): " + allIds);
-
-            // Search ID'nin listede var olup olmadığını kontrol et
-            boolean inList = allIds.contains(searchId);
-            System.out.println("🔍 Search ID listede var mı: " + inList);
-
-            // ID range bilgisi
-            if (!allIds.isEmpty()) {
-                Long minId = allIds.stream().min(Long::compare).orElse(0L);
-                Long maxId = allIds.stream().max(Long::compare).orElse(0L);
-                System.out.println("📊 ID Aralığı: " + minId + " - " + maxId);
-                System.out.println("🔍 Search ID aralık içinde mi: " + (searchId >= minId && searchId <= maxId));
-            }
 
-            // İlk 5 siparişin detayları
-            List<StockOrder> sample = stockOrderRepository.findAll().stream().limit(5).toList();
-            System.out.println("📊 İlk 5 sipariş:");
-            sample.forEach(o -> System.out.println("   - ID: " + o.getId() +
-                    " (type: " + o.getId().getClass().getSimpleName() +
-                    "), OrderNumber: " + o.getOrderNumber() +
-                    ", Supplier: " + o.getSupplierName()));
-
-        } catch (Exception debugEx) {
-            System.out.println("⚠️ Debug info yazdırılırken hata: " + debugEx.getMessage());
-        }
-    }
-
-    /**
-     * ✅ Cache clearing ile sipariş arama
-     */
-    @Transactional(readOnly = true)
-    public Optional<StockOrder> getOrderByIdWithCacheClear(Long orderId) {
-        System.out.println("=== Cache Clear Version ===");
-        log.info("Cache clear ile sipariş aranıyor: orderId={}", orderId);
-
-        try {
-            // Cache'i temizle
-            entityManager.clear();
-
-            // Tekrar ara
-            Optional<StockOrder> result = stockOrderRepository.findById(orderId);
-
-            if (result.isPresent()) {
-                System.out.println("✅ Cache clear sonrası bulundu: " + result.get().getOrderNumber());
-                return result;
-            }
-
-            // Native query ile tekrar dene
-            Query nativeQuery = entityManager.createNativeQuery(
-                    "SELECT * FROM stock_orders WHERE id = ?", StockOrder.class);
-            nativeQuery.setParameter(1, orderId);
-
-            try {
-                StockOrder order = (StockOrder) nativeQuery.getSingleResult();
-                result = Optional.of(order);
-                System.out.println("✅ Native query ile bulundu: " + order.getOrderNumber());
-            } catch (NoResultException e) {
-                System.out.println("❌ Native query ile de bulunamadı");
-            }
-
-            return result;
-
-        } catch (Exception e) {
-            log.error("Cache clear version hatası: orderId={}, error={}", orderId, e.getMessage(), e);
-            return Optional.empty();
-        }
-    }
-
-    /**
-     * ✅ DEBUG: Tüm siparişleri getir (debug için)
-     */
-    @Transactional(readOnly = true)
-    public List<StockOrder> getAllOrdersForDebug() {
-        log.info("DEBUG: Tüm siparişler getiriliyor");
-
-        try {
-            List<StockOrder> allOrders = stockOrderRepository.findAll();
-            log.info("DEBUG: Toplam {} sipariş bulundu", allOrders.size());
-
-            allOrders.forEach(order -> {
-                log.info("DEBUG: Order - ID: {}, Number: {}, Supplier: {}, Status: {}",
-                        order.getId(), order.getOrderNumber(), order.getSupplierName(), order.getStatus());
-            });
-
-            return allOrders;
-        } catch (Exception e) {
-            log.error("DEBUG: Tüm siparişler getirme hatası: {}", e.getMessage(), e);
-            return List.of();
+        Optional<StockOrder> result = stockOrderRepository.findByIdWithDetails(orderId);
+        if (result.isEmpty()) {
+            log.debug("Sipariş bulunamadı: orderId={}", orderId);
         }
+        return result;
     }
 
     /**
@@ -426,6 +212,9 @@ public class StockOrderService {
         // Sipariş numarası oluştur
         String orderNumber = generateOrderNumber();
 
+        // 🚀 Siparişteki tüm kitaplar tek sorguda yüklenir
+        Map<Long, Book> booksById = loadBooks(orderRequest.getItems());
+
         // Sipariş oluştur
         StockOrder order = StockOrder.builder()
                 .orderNumber(orderNumber)
@@ -434,44 +223,61 @@ public class StockOrderService {
                 .expectedDeliveryDate(orderRequest.getExpectedDeliveryDate())
                 .notes(orderRequest.getNotes())
                 .createdBy(orderRequest.getCreatedBy())
+                .orderItems(new ArrayList<>(orderRequest.getItems().size()))
                 .build();
 
-        // Sipariş kaydet
-        StockOrder savedOrder = stockOrderRepository.save(order);
-
-        // Sipariş kalemlerini oluştur
+        // Sipariş kalemlerini oluştur, tutarları ilk flush'tan önce hesapla
         for (StockOrderItemRequest itemRequest : orderRequest.getItems()) {
-            StockOrderItem item = createOrderItem(savedOrder, itemRequest);
-            stockOrderItemRepository.save(item);
+            order.getOrderItems().add(createOrderItem(order, itemRequest, booksById));
         }
+        order.calculateTotals();
 
-        // Tutarları hesapla
-        savedOrder.calculateTotals();
-        stockOrderRepository.save(savedOrder);
+        // 🚀 Tek save: kalemler cascade ile aynı flush'ta JDBC batch insert olarak yazılır
+        StockOrder savedOrder = stockOrderRepository.save(order);
 
-        log.info("Sipariş oluşturuldu: orderId={}, orderNumber={}, total={}",
-                savedOrder.getId(), savedOrder.getOrderNumber(), savedOrder.getGrandTotal());
+        log.info("Sipariş oluşturuldu: orderId={}, orderNumber={}, itemCount={}, total={}",
+                savedOrder.getId(), savedOrder.getOrderNumber(), savedOrder.getOrderItems().size(),
+                savedOrder.getGrandTotal());
 
         return savedOrder;
     }
 
     /**
-     * Sipariş kalemi oluştur
+     * 🚀 NEW: Sipariş kalemlerindeki kitapları tek findAllById ile yükler
      */
-    private StockOrderItem createOrderItem(StockOrder order, StockOrderItemRequest itemRequest) {
-        // Kitap kontrol et
-        Book book = bookRepository.findById(itemRequest.getBookId())
-                .orElseThrow(() -> new IllegalArgumentException("Kitap bulunamadı: " + itemRequest.getBookId()));
+    private Map<Long, Book> loadBooks(List<StockOrderItemRequest> items) {
+        Set<Long> bookIds = items.stream()
+                .map(StockOrderItemRequest::getBookId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Book> booksById = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
 
-        return StockOrderItem.builder()
+        for (Long bookId : bookIds) {
+            if (!booksById.containsKey(bookId)) {
+                throw new IllegalArgumentException("Kitap bulunamadı: " + bookId);
+            }
+        }
+        return booksById;
+    }
+
+    /**
+     * Sipariş kalemi oluştur
+     */
+    private StockOrderItem createOrderItem(StockOrder order, StockOrderItemRequest itemRequest,
+                                           Map<Long, Book> booksById) {
+        StockOrderItem item = StockOrderItem.builder()
                 .stockOrder(order)
-                .book(book)
+                .book(booksById.get(itemRequest.getBookId()))
                 .quantity(itemRequest.getQuantity())
                 .unitPrice(itemRequest.getUnitPrice())
                 .vatRate(itemRequest.getVatRate() != null ? itemRequest.getVatRate() : new BigDecimal("18.00"))
                 .discountRate(itemRequest.getDiscountRate() != null ? itemRequest.getDiscountRate() : BigDecimal.ZERO)
                 .notes(itemRequest.getNotes())
                 .build();
+
+        item.calculateAmounts();
+        return item;
     }
 
     /**
@@ -532,28 +338,35 @@ public class StockOrderService {
             throw new IllegalStateException("Sipariş teslimat alınamaz durumda: " + order.getStatus());
         }
 
-        List<StockOrderItem> orderItems = stockOrderItemRepository.findByStockOrderId(orderId);
+        List<StockOrderItem> orderItems = stockOrderItemRepository.findByStockOrderIdWithBook(orderId);
         if (orderItems.isEmpty()) {
             throw new IllegalStateException("Sipariş kalemleri bulunamadı: " + orderId);
         }
 
+        // 🚀 Kalemler ID ile indekslenir - her teslimat satırı O(1) eşleşir
+        Map<Long, StockOrderItem> itemsById = orderItems.stream()
+                .collect(Collectors.toMap(StockOrderItem::getId, Function.identity()));
+
+        // Kitap başına toplam teslim alınan miktar (aynı kitap birden fazla kalemde olabilir)
+        Map<Long, Integer> receivedByBookId = new HashMap<>();
         boolean fullyReceived = true;
 
-        // Her sipariş kalemi için teslimat güncelle
+        // Her sipariş kalemi için teslimat güncelle (kalemler dirty checking ile batch update edilir)
         for (StockReceiptItem receiptItem : receiptItems) {
-            StockOrderItem orderItem = orderItems.stream()
-                    .filter(item -> item.getId().equals(receiptItem.getOrderItemId()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Sipariş kalemi bulunamadı: " + receiptItem.getOrderItemId() +
-                                    " (Mevcut IDs: " + orderItems.stream().map(StockOrderItem::getId).toList() + ")"));
+            StockOrderItem orderItem = itemsById.get(receiptItem.getOrderItemId());
+            if (orderItem == null) {
+                throw new IllegalArgumentException(
+                        "Sipariş kalemi bulunamadı: " + receiptItem.getOrderItemId() +
+                                " (Mevcut IDs: " + itemsById.keySet() + ")");
+            }
+            if (receiptItem.getReceivedQuantity() == null || receiptItem.getReceivedQuantity() < 0) {
+                throw new IllegalArgumentException(
+                        "Geçersiz teslim miktarı: orderItemId=" + receiptItem.getOrderItemId());
+            }
 
             // Teslimat miktarını güncelle
             orderItem.setReceivedQuantity(receiptItem.getReceivedQuantity());
-            stockOrderItemRepository.save(orderItem);
-
-            // Stoku güncelle
-            updateBookStockAfterReceipt(orderItem, receiptItem.getReceivedQuantity());
+            receivedByBookId.merge(orderItem.getBook().getId(), receiptItem.getReceivedQuantity(), Integer::sum);
 
             // Tam teslimat kontrolü
             if (!orderItem.isFullyReceived()) {
@@ -561,6 +374,9 @@ public class StockOrderService {
             }
         }
 
+        // 🚀 Stok artışları tek JDBC batch ile uygulanır
+        updateBookStocksAfterReceipt(receivedByBookId);
+
         // Sipariş durumunu güncelle
         if (fullyReceived) {
             order.setStatus(StockOrder.OrderStatus.DELIVERED);
@@ -576,26 +392,22 @@ public class StockOrderService {
     }
 
     /**
-     * Teslimat sonrası stok güncelleme
+     * 🚀 UPDATED: Teslimat sonrası stok güncelleme - tüm kitaplar tek batch UPDATE ile
      */
-    private void updateBookStockAfterReceipt(StockOrderItem orderItem, Integer receivedQuantity) {
-        Optional<BookStock> stockOpt = bookStockRepository.findByBookId(orderItem.getBook().getId());
-
-        if (stockOpt.isPresent()) {
-            BookStock stock = stockOpt.get();
-            stock.increaseStock(receivedQuantity);
-            stock.setLastOrderDate(LocalDateTime.now());
-            stock.setLastOrderQuantity(receivedQuantity);
-            bookStockRepository.save(stock);
-
-            log.info("Stok güncellendi: bookId={}, oldQty={}, receivedQty={}, newQty={}",
-                    orderItem.getBook().getId(),
-                    stock.getCurrentQuantity() - receivedQuantity,
-                    receivedQuantity,
-                    stock.getCurrentQuantity());
-        } else {
-            log.warn("Stok kaydı bulunamadı: bookId={}", orderItem.getBook().getId());
+    private void updateBookStocksAfterReceipt(Map<Long, Integer> receivedByBookId) {
+        Map<Long, Integer> increments = new HashMap<>();
+        receivedByBookId.forEach((bookId, quantity) -> {
+            if (quantity > 0) {
+                increments.put(bookId, quantity);
+            }
+        });
+
+        Set<Long> missing = bookStockRepository.batchIncreaseStock(increments);
+        for (Long bookId : missing) {
+            log.warn("Stok kaydı bulunamadı: bookId={}", bookId);
         }
+
+        log.info("Stoklar güncellendi: kitap={}, bulunamayan={}", increments.size(), missing.size());
     }
 
     /**
@@ -646,6 +458,41 @@ public class StockOrderService {
         return stockOrderRepository.findByCreatedByOrderByOrderDateDesc(userId);
     }
 
+    // 🚀 NEW: Keyset sayfalı listeler - id'si afterId'den büyük en fazla limit kadar sipariş
+
+    @Transactional(readOnly = true)
+    public List<StockOrder> getOrdersByStatus(StockOrder.OrderStatus status, Long afterId, int limit) {
+        return stockOrderRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockOrder> getPendingOrders(Long afterId, int limit) {
+        return stockOrderRepository.findPendingOrdersAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockOrder> getOverdueOrders(Long afterId, int limit) {
+        return stockOrderRepository.findOverdueOrdersAfter(LocalDateTime.now(), afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockOrder> getOrdersBySupplier(String supplierName, Long afterId, int limit) {
+        return stockOrderRepository.findBySupplierNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                supplierName, afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockOrder> getOrdersByUser(String userId, Long afterId, int limit) {
+        return stockOrderRepository.findByCreatedByAndIdGreaterThanOrderByIdAsc(userId, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * 🚀 NEW: Export için sipariş akışı - açık bir transaction içinde tüketilmelidir
+     */
+    public Stream<StockOrder> streamAllOrders() {
+        return stockOrderRepository.streamAll();
+    }
+
     /**
      * Sipariş iptal etme
      */
@@ -698,18 +545,14 @@ public class StockOrderService {
      * Sipariş numarası oluşturucu
      */
     private String generateOrderNumber() {
-        String orderNumber;
-        do {
-            orderNumber = "ORD-" + System.currentTimeMillis();
-        } while (stockOrderRepository.existsByOrderNumber(orderNumber));
-
-        return orderNumber;
+        // 🚀 UPDATED: Snowflake ID - çakışmaz, veritabanı kontrolü gerekmez
+        return idGenerator.nextId("ORD-");
     }
 
     /**
      * Event ID oluşturucu
      */
     private String generateEventId(String prefix) {
-        return prefix + "_" + System.currentTimeMillis() + "_" + UUID.randomUUID().toString().substring(0, 8);
+        return idGenerator.nextId(prefix + "_");
     }
 }
\ No newline at end of file
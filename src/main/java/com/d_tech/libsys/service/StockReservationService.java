@@ -0,0 +1,314 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.BookStock;
+import com.d_tech.libsys.dto.StockReservation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🚀 NEW: Stok rezervasyon motoru (reserve / confirm / release)
+ *
+ * - Tutmalar (hold) bellekte, bookId'ye göre kilit şeritlerine (lock striping) bölünmüş defterlerde tutulur;
+ *   popüler bir kitabı rezerve etmek veritabanında satır kilidi almaz
+ * - 🚀 UPDATED: Onay, miktarı koşullu UPDATE (current_quantity >= miktar) ile anında stoktan düşer; onay ancak
+ *   veritabanı düşümü kabul ederse başarılı döner. Stok başka bir yoldan tükenmişse rezervasyon FAILED olur,
+ *   tutma bırakılır ve çağırana hata döner (onaylanmış miktar sessizce kaybolmaz)
+ * - Defterler periyodik olarak tek sorguyla güncel stokla eşitlenir, süresi dolan tutmalar serbest bırakılır
+ *
+ * Rezervasyonlar instance'a özeldir ve kalıcı değildir; yeniden başlatmada açık tutmalar kaybolur.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final StockService stockService;
+
+    @Value("${app.stock.reservation.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    private final ReentrantLock[] locks = createLocks();
+
+    // bookId -> bellek içi stok defteri (sadece ilgili şerit kilidi altında okunur/yazılır)
+    private final Map<Long, BookLedger> ledgers = new ConcurrentHashMap<>();
+
+    // reservationId -> açık (HELD) rezervasyon
+    private final Map<String, StockReservation> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * Kitaptan belirtilen miktarı TTL süresince ayırır
+     */
+    public StockReservation reserve(Long bookId, Integer quantity, String userId) {
+        if (bookId == null) {
+            throw new IllegalArgumentException("Kitap ID'si gereklidir");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Miktar pozitif olmalıdır");
+        }
+
+        ReentrantLock lock = lockFor(bookId);
+        lock.lock();
+        try {
+            BookLedger ledger = ledgerFor(bookId);
+            int available = ledger.available();
+            if (available < quantity) {
+                throw new IllegalStateException(String.format(
+                        "Yetersiz stok: bookId=%d, kullanılabilir=%d, istenen=%d", bookId, available, quantity));
+            }
+            ledger.held += quantity;
+
+            LocalDateTime now = LocalDateTime.now();
+            StockReservation reservation = StockReservation.builder()
+                    // Rezervasyon id'si istemciye verilen yetki anahtarıdır; tahmin edilemez olmalı (Snowflake değil)
+                    .reservationId("RSV_" + UUID.randomUUID())
+                    .bookId(bookId)
+                    .quantity(quantity)
+                    .userId(userId)
+                    .status(StockReservation.ReservationStatus.HELD)
+                    .createdAt(now)
+                    .expiresAt(now.plusSeconds(ttlSeconds))
+                    .build();
+            reservations.put(reservation.getReservationId(), reservation);
+
+            log.info("Stok rezerve edildi: reservationId={}, bookId={}, quantity={}, user={}",
+                    reservation.getReservationId(), bookId, quantity, userId);
+            return reservation;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rezervasyonu onaylar; miktar veritabanındaki stoktan atomik olarak düşülür
+     *
+     * @throws IllegalStateException rezervasyon açık değilse veya veritabanında yeterli stok kalmadıysa (FAILED)
+     */
+    public StockReservation confirm(String reservationId) {
+        return finish(reservationId, StockReservation.ReservationStatus.CONFIRMED);
+    }
+
+    /**
+     * Rezervasyonu bırakır; ayrılan miktar tekrar kullanılabilir olur
+     */
+    public StockReservation release(String reservationId) {
+        return finish(reservationId, StockReservation.ReservationStatus.RELEASED);
+    }
+
+    /**
+     * Açık rezervasyonu getirir
+     */
+    public Optional<StockReservation> getReservation(String reservationId) {
+        return Optional.ofNullable(reservations.get(reservationId));
+    }
+
+    /**
+     * Kitabın rezervasyonlar düşüldükten sonraki kullanılabilir miktarı
+     */
+    public int getAvailableQuantity(Long bookId) {
+        ReentrantLock lock = lockFor(bookId);
+        lock.lock();
+        try {
+            return ledgerFor(bookId).available();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Süresi dolan tutmaları serbest bırakır
+     */
+    @Scheduled(fixedDelayString = "${app.stock.reservation.sweep-interval-ms:5000}")
+    public void expireReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+
+        for (StockReservation reservation : reservations.values()) {
+            if (reservation.getExpiresAt().isAfter(now)) {
+                continue;
+            }
+            ReentrantLock lock = lockFor(reservation.getBookId());
+            lock.lock();
+            try {
+                // Kilit beklenirken onaylanmış/bırakılmış olabilir
+                if (reservation.getStatus() == StockReservation.ReservationStatus.HELD) {
+                    ledgers.get(reservation.getBookId()).held -= reservation.getQuantity();
+                    reservation.setStatus(StockReservation.ReservationStatus.EXPIRED);
+                    reservations.remove(reservation.getReservationId());
+                    expired++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (expired > 0) {
+            log.info("Süresi dolan rezervasyonlar serbest bırakıldı: adet={}", expired);
+        }
+    }
+
+    /**
+     * Defterleri veritabanındaki güncel miktarla tek sorguda eşitler, boşta kalanları atar.
+     * Okuma sırasında onay alan defterler bu turda atlanır (okunan değer o onayı içermeyebilir).
+     */
+    @Scheduled(fixedDelayString = "${app.stock.reservation.reconcile-interval-ms:1000}")
+    public void reconcileLedgers() {
+        if (ledgers.isEmpty()) {
+            return;
+        }
+
+        // 1. Okumadan önce her defterin onay sayacını al
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long bookId : new ArrayList<>(ledgers.keySet())) {
+            ReentrantLock lock = lockFor(bookId);
+            lock.lock();
+            try {
+                BookLedger ledger = ledgers.get(bookId);
+                if (ledger != null) {
+                    versions.put(bookId, ledger.version);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<Long, BookStock> stocks;
+        try {
+            stocks = stockService.getBookStocks(versions.keySet());
+        } catch (Exception e) {
+            log.error("Rezervasyon defterleri stokla eşitlenemedi, bir sonraki turda tekrar denenecek: {}",
+                    e.getMessage(), e);
+            return;
+        }
+
+        // 2. Arada onay almamış defterleri güncelle
+        versions.forEach((bookId, version) -> {
+            ReentrantLock lock = lockFor(bookId);
+            lock.lock();
+            try {
+                BookLedger ledger = ledgers.get(bookId);
+                if (ledger == null || ledger.version != version) {
+                    return;
+                }
+                BookStock stock = stocks.get(bookId);
+                ledger.onHand = stock != null ? stock.getCurrentQuantity() : 0;
+                if (ledger.isIdle()) {
+                    ledgers.remove(bookId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // 🚀 Yardımcı metodlar
+
+    private StockReservation finish(String reservationId, StockReservation.ReservationStatus targetStatus) {
+        StockReservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new IllegalArgumentException("Rezervasyon bulunamadı veya süresi doldu: " + reservationId);
+        }
+
+        ReentrantLock lock = lockFor(reservation.getBookId());
+        lock.lock();
+        try {
+            if (reservation.getStatus() != StockReservation.ReservationStatus.HELD) {
+                throw new IllegalStateException("Rezervasyon artık açık değil: " + reservation.getStatus());
+            }
+
+            BookLedger ledger = ledgers.get(reservation.getBookId());
+            boolean decremented = true;
+            if (targetStatus == StockReservation.ReservationStatus.CONFIRMED) {
+                // Şerit kilidi tutulurken düşülür: süre dolumu/bırakma ile yarışmaz, tek satırlık kısa bir UPDATE'tir.
+                // Veritabanı hatasında durum değişmez, rezervasyon açık kalır.
+                decremented = stockService.applyStockDecrement(reservation.getBookId(), reservation.getQuantity());
+                ledger.version++;
+            }
+
+            ledger.held -= reservation.getQuantity();
+            reservations.remove(reservationId);
+
+            if (!decremented) {
+                reservation.setStatus(StockReservation.ReservationStatus.FAILED);
+                // Stok başka bir yoldan azalmış; defter bir sonraki eşitlemeye kadar yeni tutma vermez
+                ledger.onHand = Math.min(ledger.onHand, ledger.held);
+                log.error("Rezervasyon onaylanamadı, veritabanında yeterli stok yok: reservationId={}, bookId={}, quantity={}",
+                        reservationId, reservation.getBookId(), reservation.getQuantity());
+                throw new IllegalStateException("Yetersiz stok, rezervasyon onaylanamadı: " + reservationId);
+            }
+            if (targetStatus == StockReservation.ReservationStatus.CONFIRMED) {
+                ledger.onHand -= reservation.getQuantity();
+            }
+            reservation.setStatus(targetStatus);
+
+            log.info("Rezervasyon sonlandırıldı: reservationId={}, bookId={}, status={}",
+                    reservationId, reservation.getBookId(), targetStatus);
+            return reservation;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Defteri getirir, yoksa stoktan yükler. Çağıran şerit kilidini tutmalıdır.
+     */
+    private BookLedger ledgerFor(Long bookId) {
+        BookLedger ledger = ledgers.get(bookId);
+        if (ledger == null) {
+            BookStock stock = stockService.getBookStock(bookId)
+                    .orElseThrow(() -> new IllegalArgumentException("Stok kaydı bulunamadı: " + bookId));
+            ledger = new BookLedger(stock.getCurrentQuantity());
+            ledgers.put(bookId, ledger);
+        }
+        return ledger;
+    }
+
+    private ReentrantLock lockFor(Long bookId) {
+        return locks[Math.floorMod(bookId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    /**
+     * Kitap başına bellek içi stok defteri
+     * onHand: bilinen veritabanı miktarı, held: açık tutmalar, version: onay sayacı (eşitleme yarışı için)
+     */
+    private static final class BookLedger {
+        private int onHand;
+        private int held;
+        private long version;
+
+        private BookLedger(int onHand) {
+            this.onHand = onHand;
+        }
+
+        private int available() {
+            return onHand - held;
+        }
+
+        private boolean isIdle() {
+            return held == 0;
+        }
+    }
+}
@@ -7,14 +7,20 @@ import com.d_tech.libsys.repository.BookRepository;
 import com.d_tech.libsys.repository.BookStockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Stok yönetim servisi
@@ -25,9 +31,12 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class StockService {
 
+    private static final int STOCK_LOOKUP_CHUNK_SIZE = 1000;
+
     private final BookStockRepository bookStockRepository;
     private final BookRepository bookRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final IdGenerator idGenerator;
 
     /**
      * Kitap için stok kaydı oluşturur
@@ -67,6 +76,7 @@ public class StockService {
     /**
      * Asenkron stok kontrolü - Kafka event gönderir
      */
+    @Transactional
     public CompletableFuture<String> checkStockAsync(Long bookId, String userId) {
         log.info("Asenkron stok kontrolü başlatılıyor: bookId={}, userId={}", bookId, userId);
 
@@ -79,17 +89,10 @@ public class StockService {
                     .userId(userId)
                     .build();
 
-            // Kafka'ya gönder
-            return kafkaProducerService.sendStockEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Stok kontrol event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            log.error("Stok kontrol event'i gönderilemedi: bookId={}", bookId);
-                            throw new RuntimeException("Stok kontrol event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockEvent(event);
+            log.info("Stok kontrol event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Asenkron stok kontrolü hatası: bookId={}, error={}", bookId, e.getMessage(), e);
@@ -100,6 +103,7 @@ public class StockService {
     /**
      * Asenkron stok azaltma - Kafka event gönderir
      */
+    @Transactional
     public CompletableFuture<String> decreaseStockAsync(Long bookId, Integer quantity, String userId) {
         log.info("Asenkron stok azaltma başlatılıyor: bookId={}, quantity={}, userId={}", bookId, quantity, userId);
 
@@ -118,17 +122,10 @@ public class StockService {
                     .userId(userId)
                     .build();
 
-            // Kafka'ya gönder
-            return kafkaProducerService.sendStockEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Stok azaltma event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            log.error("Stok azaltma event'i gönderilemedi: bookId={}", bookId);
-                            throw new RuntimeException("Stok azaltma event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockEvent(event);
+            log.info("Stok azaltma event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Asenkron stok azaltma hatası: bookId={}, error={}", bookId, e.getMessage(), e);
@@ -139,6 +136,7 @@ public class StockService {
     /**
      * Asenkron stok artırma - Kafka event gönderir
      */
+    @Transactional
     public CompletableFuture<String> increaseStockAsync(Long bookId, Integer quantity, String userId) {
         log.info("Asenkron stok artırma başlatılıyor: bookId={}, quantity={}, userId={}", bookId, quantity, userId);
 
@@ -155,16 +153,10 @@ public class StockService {
                     .userId(userId)
                     .build();
 
-            return kafkaProducerService.sendStockEvent(event)
-                    .thenApply(success -> {
-                        if (success) {
-                            log.info("Stok artırma event'i gönderildi: eventId={}", event.getEventId());
-                            return event.getEventId();
-                        } else {
-                            log.error("Stok artırma event'i gönderilemedi: bookId={}", bookId);
-                            throw new RuntimeException("Stok artırma event'i gönderilemedi");
-                        }
-                    });
+            // 🚀 UPDATED: Event outbox'a yazılır, Kafka'ya gönderimi OutboxRelay arka planda yapar
+            outboxService.enqueueStockEvent(event);
+            log.info("Stok artırma event'i kuyruğa alındı: eventId={}", event.getEventId());
+            return CompletableFuture.completedFuture(event.getEventId());
 
         } catch (Exception e) {
             log.error("Asenkron stok artırma hatası: bookId={}, error={}", bookId, e.getMessage(), e);
@@ -180,6 +172,39 @@ public class StockService {
         return bookStockRepository.findByBookId(bookId);
     }
 
+    /**
+     * 🚀 NEW: Toplu stok bilgisi getir - bookId -> BookStock
+     * Bir sayfadaki tüm kitaplar için tek sorgu (çok büyük listeler IN limiti için parçalanır)
+     */
+    public Map<Long, BookStock> getBookStocks(Collection<Long> bookIds) {
+        Map<Long, BookStock> stocksByBookId = new HashMap<>();
+        if (bookIds == null || bookIds.isEmpty()) {
+            return stocksByBookId;
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        for (int i = 0; i < ids.size(); i += STOCK_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + STOCK_LOOKUP_CHUNK_SIZE, ids.size()));
+            for (BookStock stock : bookStockRepository.findByBookIdIn(chunk)) {
+                stocksByBookId.put(stock.getBook().getId(), stock);
+            }
+        }
+
+        log.debug("Toplu stok bilgisi getirildi: istenen={}, bulunan={}", ids.size(), stocksByBookId.size());
+        return stocksByBookId;
+    }
+
+    /**
+     * 🚀 NEW: Onaylanan rezervasyonu atomik, koşullu UPDATE ile stoktan düşer (current_quantity >= miktar)
+     *
+     * @return yetersiz stok veya kayıt olmadığı için düşülemediyse false
+     */
+    public boolean applyStockDecrement(Long bookId, int quantity) {
+        boolean applied = bookStockRepository.decreaseStockIfAvailable(bookId, quantity) == 1;
+        log.debug("Rezervasyon stok düşümü: bookId={}, quantity={}, applied={}", bookId, quantity, applied);
+        return applied;
+    }
+
     /**
      * Düşük stoklu kitapları listele
      */
@@ -196,6 +221,32 @@ public class StockService {
         return bookStockRepository.findBooksNeedingRestock();
     }
 
+    // 🚀 NEW: Keyset sayfalı listeler - id'si afterId'den büyük en fazla limit kadar kayıt
+
+    public List<BookStock> getLowStockBooks(Long afterId, int limit) {
+        return bookStockRepository.findLowStockBooksAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    public List<BookStock> getBooksNeedingRestock(Long afterId, int limit) {
+        return bookStockRepository.findBooksNeedingRestockAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    public List<BookStock> getBooksByStockStatus(BookStock.StockStatus status, Long afterId, int limit) {
+        return bookStockRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, PageRequest.of(0, limit));
+    }
+
+    public List<BookStock> getStocksBySupplier(String supplierName, Long afterId, int limit) {
+        return bookStockRepository.findBySupplierNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                supplierName, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * 🚀 NEW: Export için stok akışı - açık bir transaction içinde tüketilmelidir
+     */
+    public Stream<BookStock> streamAllStocks() {
+        return bookStockRepository.streamAllWithBook();
+    }
+
     /**
      * Toplam stok değerini hesapla
      */
@@ -247,6 +298,7 @@ public class StockService {
     /**
      * Düşük stok uyarısı gönder (scheduled task tarafından çağrılabilir)
      */
+    @Transactional
     public void sendLowStockAlerts() {
         log.info("Düşük stok uyarıları kontrol ediliyor");
 
@@ -263,8 +315,8 @@ public class StockService {
                             stock.getBook().getTitle(), stock.getCurrentQuantity(), stock.getMinimumQuantity()))
                     .build();
 
-            kafkaProducerService.sendStockEvent(event);
-            log.warn("Düşük stok uyarısı gönderildi: bookId={}, currentQty={}, minQty={}",
+            outboxService.enqueueStockEvent(event);
+            log.warn("Düşük stok uyarısı kuyruğa alındı: bookId={}, currentQty={}, minQty={}",
                     stock.getBook().getId(), stock.getCurrentQuantity(), stock.getMinimumQuantity());
         }
     }
@@ -273,6 +325,6 @@ public class StockService {
      * Event ID oluşturucu
      */
     private String generateEventId(String prefix) {
-        return prefix + "_" + System.currentTimeMillis() + "_" + UUID.randomUUID().toString().substring(0, 8);
+        return idGenerator.nextId(prefix + "_");
     }
 }
\ No newline at end of file
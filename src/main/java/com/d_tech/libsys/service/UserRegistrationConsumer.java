@@ -5,7 +5,8 @@ import com.d_tech.libsys.dto.UserRegistrationEvent;
 import com.d_tech.libsys.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -17,22 +18,33 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Set;
 
 /**
- * Conditional Kafka Consumer - only active when Kafka is enabled
+ * User registration consumer - Kafka listeners only start when Kafka is enabled,
+ * otherwise events are dispatched by InProcessEventBus
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@ConditionalOnProperty(name = "app.kafka.enabled", havingValue = "true", matchIfMissing = false)
 public class UserRegistrationConsumer {
 
+    static final String RETRY_LISTENER_ID = "userRegistrationRetryListener";
+
+    // Metric tags
+    private static final String HANDLER = "user-registration";
+    private static final String EVENT_TYPE = "USER_REGISTRATION";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final KafkaProducerService kafkaProducerService;
+    private final EventPublisher eventPublisher;
+    private final DelayedRetryGate delayedRetryGate;
+    private final ProcessedEventStore processedEventStore;
+    private final EventMetrics eventMetrics;
 
     @KafkaListener(
             topics = "${app.kafka.topic.user-registration:user-registration-topic}",
             groupId = "${spring.kafka.consumer.group-id:libsys-group}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     @Transactional
     public void handleUserRegistration(
@@ -40,15 +52,24 @@ public class UserRegistrationConsumer {
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset) {
 
+        long start = System.nanoTime();
         log.info("User registration event received: eventId={}, username={}, partition={}, offset={}",
                 event.getEventId(), event.getUsername(), partition, offset);
 
+        // 🚀 Idempotency: skip events that were already applied (in-memory check only)
+        if (processedEventStore.isProcessed(event.getEventId())) {
+            log.info("Event already processed, skipping: eventId={}", event.getEventId());
+            eventMetrics.recordHandled(HANDLER, EVENT_TYPE, EventMetrics.DUPLICATE, start);
+            return;
+        }
+
         try {
             event.setStatus(UserRegistrationEvent.EventStatus.PROCESSING);
             log.info("Processing event: eventId={}, username={}", event.getEventId(), event.getUsername());
 
             if (!performFinalValidations(event)) {
                 event.setStatus(UserRegistrationEvent.EventStatus.FAILED);
+                eventMetrics.recordHandled(HANDLER, EVENT_TYPE, EventMetrics.FAILED, start);
                 return;
             }
 
@@ -56,6 +77,8 @@ public class UserRegistrationConsumer {
 
             event.setStatus(UserRegistrationEvent.EventStatus.COMPLETED);
             event.setMessage("User successfully registered: ID=" + savedUser.getId());
+            processedEventStore.markProcessed(event.getEventId());
+            eventMetrics.recordHandled(HANDLER, EVENT_TYPE, EventMetrics.SUCCESS, start);
 
             log.info("User successfully registered: eventId={}, username={}, userId={}",
                     event.getEventId(), event.getUsername(), savedUser.getId());
@@ -67,6 +90,7 @@ public class UserRegistrationConsumer {
                     event.getEventId(), event.getUsername(), e.getMessage(), e);
 
             handleRegistrationError(event, e);
+            eventMetrics.recordHandled(HANDLER, EVENT_TYPE, EventMetrics.FAILED, start);
         }
     }
 
@@ -117,12 +141,12 @@ public class UserRegistrationConsumer {
             log.warn("Event will be retried: eventId={}, retryCount={}/{}, error={}",
                     event.getEventId(), event.getRetryCount(), event.getMaxRetries(), error.getMessage());
 
-            kafkaProducerService.sendRetryEvent(event);
+            eventPublisher.sendRetryEvent(event);
         } else {
             log.error("Event reached maximum retry count, sending to DLQ: eventId={}, error={}",
                     event.getEventId(), error.getMessage());
 
-            kafkaProducerService.sendToDLQ(event, error.getMessage());
+            eventPublisher.sendToDLQ(event, error.getMessage());
         }
     }
 
@@ -132,31 +156,43 @@ public class UserRegistrationConsumer {
         // Success notification implementation
     }
 
+    /**
+     * 🚀 UPDATED: Gecikmeli retry topic'leri - zamanı gelmemiş kayıtlar için partition duraklatılır
+     */
     @KafkaListener(
-            topics = "${app.kafka.topic.user-registration:user-registration-topic}.retry",
+            id = RETRY_LISTENER_ID,
+            topics = {
+                    "${app.kafka.topic.user-registration:user-registration-topic}.retry-1s",
+                    "${app.kafka.topic.user-registration:user-registration-topic}.retry-10s",
+                    "${app.kafka.topic.user-registration:user-registration-topic}.retry-60s",
+                    "${app.kafka.topic.user-registration:user-registration-topic}.retry"
+            },
             groupId = "${spring.kafka.consumer.group-id:libsys-group}.retry",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     @Transactional
     public void handleRetryUserRegistration(
-            @Payload UserRegistrationEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            ConsumerRecord<String, UserRegistrationEvent> record,
+            Consumer<?, ?> consumer) {
 
-        log.info("Retry event received: eventId={}, username={}, retryCount={}, partition={}, offset={}",
-                event.getEventId(), event.getUsername(), event.getRetryCount(), partition, offset);
+        // Throws KafkaBackoffException when not yet due; the record is rewound without committing its offset
+        delayedRetryGate.backOffIfNotDue(RETRY_LISTENER_ID, record, consumer);
 
-        try {
-            long waitTime = calculateBackoffTime(event.getRetryCount());
-            Thread.sleep(waitTime);
+        UserRegistrationEvent event = record.value();
+        log.info("Retry event received: eventId={}, username={}, retryCount={}, topic={}, partition={}, offset={}",
+                event.getEventId(), event.getUsername(), event.getRetryCount(),
+                record.topic(), record.partition(), record.offset());
 
-            log.info("Starting retry process: eventId={}, waitTime={}ms", event.getEventId(), waitTime);
+        if (processedEventStore.isProcessed(event.getEventId())) {
+            log.info("Event already processed, skipping retry: eventId={}", event.getEventId());
+            return;
+        }
 
+        try {
             handleUserRegistrationRetry(event);
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Retry process interrupted: eventId={}", event.getEventId());
         } catch (Exception e) {
             log.error("Retry process error: eventId={}, error={}", event.getEventId(), e.getMessage(), e);
             handleRegistrationError(event, e);
@@ -175,6 +211,7 @@ public class UserRegistrationConsumer {
 
         event.setStatus(UserRegistrationEvent.EventStatus.COMPLETED);
         event.setMessage("User successfully registered via retry: ID=" + savedUser.getId());
+        processedEventStore.markProcessed(event.getEventId());
 
         log.info("User successfully registered via retry: eventId={}, username={}, userId={}",
                 event.getEventId(), event.getUsername(), savedUser.getId());
@@ -182,15 +219,12 @@ public class UserRegistrationConsumer {
         sendSuccessNotification(event, savedUser);
     }
 
-    private long calculateBackoffTime(int retryCount) {
-        long backoff = (long) Math.pow(2, retryCount) * 1000;
-        return Math.min(backoff, 30000);
-    }
-
     @KafkaListener(
             topics = "${app.kafka.topic.user-registration:user-registration-topic}.dlq",
             groupId = "${spring.kafka.consumer.group-id:libsys-group}.dlq",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            // 🚀 Kafka kapalıyken container başlatılmaz; event'ler InProcessEventBus ile gelir
+            autoStartup = "${app.kafka.enabled:false}"
     )
     public void handleDLQMessages(
             @Payload UserRegistrationEvent event,
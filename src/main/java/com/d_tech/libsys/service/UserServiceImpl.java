@@ -5,6 +5,7 @@ import com.d_tech.libsys.dto.SignupRequest;
 import com.d_tech.libsys.dto.SignupResponse;
 import com.d_tech.libsys.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +16,7 @@ import java.util.Set;
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
@@ -57,7 +59,7 @@ public class UserServiceImpl implements UserService {
             return new SignupResponse("Kullanıcı başarıyla kaydedildi!");
 
         } catch (Exception e) {
-            System.out.println("Kullanıcı kayıt hatası: " + e.getMessage());
+            log.error("Kullanıcı kayıt hatası: {}", e.getMessage(), e);
             return new SignupResponse("Kayıt işlemi sırasında bir hata oluştu!");
         }
     }
@@ -273,6 +273,12 @@ print_highlight "SPRING BOOT BAŞLATILIYOR"
 print_separator
 
 print_info "Spring Boot uygulaması başlatılıyor..."
+
+# JWT imza anahtarı repoda tutulmaz; verilmediyse bu çalıştırma için rastgele üretilir
+if [ -z "$JWT_SECRET" ]; then
+    export JWT_SECRET=$(openssl rand -base64 48)
+    print_warning "JWT_SECRET tanımlı değil, rastgele anahtar üretildi (yeniden başlatmada token'lar geçersizleşir)"
+fi
 print_info "Port: $PORT"
 print_info "Profile: ngrok"
 print_info "Kafka: $([ "$ENABLE_KAFKA" = true ] && echo "Enabled" || echo "Disabled")"
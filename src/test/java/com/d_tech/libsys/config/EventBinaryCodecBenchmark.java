@@ -0,0 +1,130 @@
+package com.d_tech.libsys.config;
+
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.StockOrderItemRequest;
+import com.d_tech.libsys.dto.StockOrderRequest;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Aynı event'i binary ve JSON formatında serializer + deserializer üzerinden encode/decode eder;
+ * işlem/s, işlem başına süre ve kayıt boyutunu karşılaştırır
+ *
+ * Normal test koşusunda çalışmaz:
+ * mvn test -Dtest=EventBinaryCodecBenchmark -Dlibsys.load-test=true
+ *     [-Dlibsys.load-test.iterations=1000000] [-Dlibsys.load-test.rounds=5]
+ * Her format için ısınma turundan sonra en iyi tur raporlanır (JIT ve GC gürültüsünü azaltmak için).
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "libsys.load-test", matches = "true")
+class EventBinaryCodecBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("libsys.load-test.iterations", 1_000_000);
+    private static final int ROUNDS = Integer.getInteger("libsys.load-test.rounds", 5);
+    private static final String BINARY_TOPIC = "stock-order-topic";
+    private static final String JSON_TOPIC = "invoice-topic";
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 5, 17, 14, 30, 12, 123_456_789);
+
+    // JIT'in döngüyü ölü kod sayıp atmaması için sonuçlar burada birikir
+    private long blackhole;
+
+    @Test
+    void stockControlEventEncodeDecode() {
+        compare(StockControlEvent.builder()
+                .eventId("STOCK_123")
+                .eventType(StockControlEvent.EventType.STOCK_DECREASE)
+                .bookId(42L)
+                .quantity(3)
+                .userId("kütüphaneci")
+                .eventTime(TIME)
+                .build(), StockControlEvent.class);
+    }
+
+    @Test
+    void stockOrderEventEncodeDecode() {
+        StockOrderItemRequest item = StockOrderItemRequest.builder()
+                .bookId(7L)
+                .quantity(20)
+                .unitPrice(new BigDecimal("149.90"))
+                .vatRate(new BigDecimal("0.18"))
+                .notes("Acil")
+                .build();
+        compare(StockOrderEvent.builder()
+                .eventId("ORDER_1")
+                .eventType(StockOrderEvent.EventType.CREATE_ORDER)
+                .orderId(99L)
+                .orderRequest(StockOrderRequest.builder()
+                        .supplierName("Tedarikçi A.Ş.")
+                        .expectedDeliveryDate(TIME.plusDays(3))
+                        .createdBy("admin")
+                        .items(List.of(item, item, item))
+                        .build())
+                .eventTime(TIME)
+                .build(), StockOrderEvent.class);
+    }
+
+    private void compare(Object event, Class<?> type) {
+        EventBinarySerializer serializer = new EventBinarySerializer();
+        serializer.configure(Map.of(EventBinarySerializer.BINARY_TOPICS, BINARY_TOPIC), false);
+        EventBinaryDeserializer deserializer = new EventBinaryDeserializer();
+        deserializer.configure(Map.of(
+                "spring.json.trusted.packages", "com.d_tech.libsys.dto",
+                "spring.json.value.default.type", type.getName()), false);
+
+        Result binary = measure(serializer, deserializer, BINARY_TOPIC, event);
+        Result json = measure(serializer, deserializer, JSON_TOPIC, event);
+
+        System.out.printf("%s: binary=%d bayt, %.0f işlem/s, %.0f ns/işlem | json=%d bayt, %.0f işlem/s, %.0f ns/işlem | hız=%.2fx, boyut=%.2fx%n",
+                type.getSimpleName(),
+                binary.bytes(), binary.opsPerSecond(), binary.nanosPerOp(),
+                json.bytes(), json.opsPerSecond(), json.nanosPerOp(),
+                binary.opsPerSecond() / json.opsPerSecond(),
+                (double) json.bytes() / binary.bytes());
+        System.out.println("blackhole=" + blackhole);
+    }
+
+    /**
+     * Serializer + deserializer (consumer'ın kullandığı ByteBuffer overload'u) tam tur süresi
+     */
+    private Result measure(EventBinarySerializer serializer, EventBinaryDeserializer deserializer,
+                           String topic, Object event) {
+        byte[] sample = serializer.serialize(topic, new RecordHeaders(), event);
+        RecordHeaders sampleHeaders = new RecordHeaders();
+        assertEquals(event, deserializer.deserialize(topic, sampleHeaders,
+                ByteBuffer.wrap(serializer.serialize(topic, sampleHeaders, event))));
+
+        runRound(serializer, deserializer, topic, event, Math.min(ITERATIONS, 200_000));
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bestNanos = Math.min(bestNanos, runRound(serializer, deserializer, topic, event, ITERATIONS));
+        }
+        return new Result(sample.length, ITERATIONS / (bestNanos / 1e9), (double) bestNanos / ITERATIONS);
+    }
+
+    private long runRound(EventBinarySerializer serializer, EventBinaryDeserializer deserializer,
+                          String topic, Object event, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            RecordHeaders headers = new RecordHeaders();
+            byte[] bytes = serializer.serialize(topic, headers, event);
+            Object decoded = deserializer.deserialize(topic, headers, ByteBuffer.wrap(bytes));
+            blackhole += bytes.length + (decoded != null ? 1 : 0);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private record Result(int bytes, double opsPerSecond, double nanosPerOp) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.d_tech.libsys.config;
+
+import com.d_tech.libsys.dto.InvoiceEvent;
+import com.d_tech.libsys.dto.InvoiceRequest;
+import com.d_tech.libsys.dto.StockControlEvent;
+import com.d_tech.libsys.dto.StockOrderEvent;
+import com.d_tech.libsys.dto.StockOrderItemRequest;
+import com.d_tech.libsys.dto.StockOrderRequest;
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Binary codec'in tüm event tiplerini kayıpsız çözdüğünü ve JSON'dan küçük olduğunu doğrular
+ */
+class EventBinaryCodecTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 5, 17, 14, 30, 12, 123_456_789);
+
+    @Test
+    void stockControlEventRoundTrip() {
+        StockControlEvent event = StockControlEvent.builder()
+                .eventId("STOCK_123")
+                .eventType(StockControlEvent.EventType.STOCK_DECREASE)
+                .bookId(42L)
+                .quantity(-3)
+                .userId("kütüphaneci")
+                .eventTime(TIME)
+                .status(StockControlEvent.EventStatus.PROCESSING)
+                .message(null)
+                .retryCount(1)
+                .maxRetries(3)
+                .build();
+
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void stockOrderEventRoundTrip() {
+        StockOrderItemRequest item = StockOrderItemRequest.builder()
+                .bookId(7L)
+                .quantity(20)
+                .unitPrice(new BigDecimal("149.90"))
+                .vatRate(new BigDecimal("0.18"))
+                .discountRate(null)
+                .notes("Acil")
+                .build();
+        StockOrderEvent event = StockOrderEvent.builder()
+                .eventId("ORDER_1")
+                .eventType(StockOrderEvent.EventType.SHIP_ORDER)
+                .orderId(99L)
+                .orderRequest(StockOrderRequest.builder()
+                        .supplierName("Tedarikçi A.Ş.")
+                        .expectedDeliveryDate(TIME.plusDays(3))
+                        .createdBy("admin")
+                        .items(List.of(item, item))
+                        .build())
+                .eventTime(TIME)
+                .build();
+
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void invoiceEventRoundTrip() {
+        InvoiceEvent withRequest = InvoiceEvent.builder()
+                .eventId("INVOICE_1")
+                .eventType(InvoiceEvent.EventType.GENERATE_INVOICE)
+                .orderId(5L)
+                .invoiceRequest(InvoiceRequest.builder()
+                        .dueDate(TIME)
+                        .buyerName("D-Tech")
+                        .supplierTaxNumber("1234567890")
+                        .build())
+                .eventTime(TIME)
+                .build();
+        InvoiceEvent withoutRequest = InvoiceEvent.builder()
+                .eventId("INVOICE_2")
+                .eventType(InvoiceEvent.EventType.MARK_PAID)
+                .eventTime(null)
+                .build();
+
+        assertEquals(withRequest, roundTrip(withRequest));
+        assertEquals(withoutRequest, roundTrip(withoutRequest));
+    }
+
+    @Test
+    void userRegistrationEventRoundTrip() {
+        UserRegistrationEvent event = UserRegistrationEvent.builder()
+                .eventId("REG_1")
+                .username("emel")
+                .password("secret")
+                .confirmPassword("secret")
+                .roles(Set.of("USER", "ADMIN"))
+                .eventTime(TIME)
+                .build();
+
+        assertEquals(event, roundTrip(event));
+    }
+
+    @Test
+    void binaryIsSmallerThanJsonAndJsonStillReadable() {
+        StockControlEvent event = StockControlEvent.builder()
+                .eventId("STOCK_123")
+                .eventType(StockControlEvent.EventType.STOCK_INCREASE)
+                .bookId(42L)
+                .quantity(5)
+                .userId("admin")
+                .eventTime(TIME)
+                .build();
+
+        EventBinarySerializer serializer = new EventBinarySerializer();
+        serializer.configure(Map.of(EventBinarySerializer.BINARY_TOPICS, "stock-control-topic"), false);
+        EventBinaryDeserializer deserializer = new EventBinaryDeserializer();
+        deserializer.configure(Map.of(
+                "spring.json.trusted.packages", "com.d_tech.libsys.dto",
+                "spring.json.value.default.type", StockControlEvent.class.getName()), false);
+
+        byte[] binary = serializer.serialize("stock-control-topic.retry-10s", event);
+        byte[] json = serializer.serialize("invoice-topic", event);
+
+        assertEquals(EventBinaryCodec.MAGIC, binary[0]);
+        assertNotEquals(EventBinaryCodec.MAGIC, json[0]);
+        assertTrue(binary.length * 2 < json.length,
+                "binary=" + binary.length + " json=" + json.length);
+        assertEquals(event, deserializer.deserialize("stock-control-topic", binary));
+        assertEquals(event, deserializer.deserialize("stock-control-topic", json));
+    }
+
+    private static Object roundTrip(Object event) {
+        return EventBinaryCodec.decode(ByteBuffer.wrap(EventBinaryCodec.encode(event)));
+    }
+}
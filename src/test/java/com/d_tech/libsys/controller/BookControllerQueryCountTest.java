@@ -0,0 +1,106 @@
+package com.d_tech.libsys.controller;
+
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.domain.model.BookStock;
+import com.d_tech.libsys.repository.BookRepository;
+import com.d_tech.libsys.repository.BookStockRepository;
+import com.d_tech.libsys.service.BookService;
+import com.d_tech.libsys.service.OutboxService;
+import com.d_tech.libsys.service.SnowflakeIdGenerator;
+import com.d_tech.libsys.service.StockService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Kitap listesi DTO dönüşümünün katalog boyutundan bağımsız sabit sayıda sorgu çalıştırdığını doğrular
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookControllerQueryCountTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    @Import({StockService.class, SnowflakeIdGenerator.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStockRepository bookStockRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private BookService bookService;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 500})
+    void listingBooksWithStockUsesFixedQueryCount(int catalogSize) {
+        for (int i = 0; i < catalogSize; i++) {
+            Book book = new Book();
+            book.setTitle("Kitap " + i);
+            book.setAuthor("Yazar " + i);
+            book.setYear(2000 + (i % 20));
+            book = bookRepository.save(book);
+
+            // Stoksuz kitaplar da listede olmalı
+            if (i % 3 != 0) {
+                bookStockRepository.save(BookStock.builder()
+                        .book(book)
+                        .currentQuantity(i)
+                        .unitPrice(new BigDecimal("10.00"))
+                        .supplierName("Tedarikçi")
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(bookService.getBooksPage(anyLong(), anyInt())).thenAnswer(invocation ->
+                bookRepository.findByIdGreaterThanOrderByIdAsc(
+                        invocation.getArgument(0), PageRequest.of(0, invocation.<Integer>getArgument(1))));
+        BookController controller = new BookController(bookService, stockService, bookRepository, null);
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        ResponseEntity<List<BookController.BookWithStockDto>> response = controller.getAllBooks(null, catalogSize);
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertEquals(catalogSize, response.getBody().size());
+        // 1 sorgu kitap sayfası + 1 sorgu stoklar
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
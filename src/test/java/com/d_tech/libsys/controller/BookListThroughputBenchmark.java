@@ -0,0 +1,127 @@
+package com.d_tech.libsys.controller;
+
+import com.d_tech.libsys.config.RequestTracingFilter;
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.repository.BookRepository;
+import com.d_tech.libsys.service.BookService;
+import com.d_tech.libsys.service.JsonStreamExporter;
+import com.d_tech.libsys.service.StockService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /api/books için istek/s ölçer; servisler sabit veri döndürür, ölçülen controller + loglama maliyetidir
+ *
+ * Normal test koşusunda çalışmaz:
+ * mvn test -Dtest=BookListThroughputBenchmark -Dlibsys.load-test=true
+ *     [-Dlibsys.load-test.requests=200000] [-Dlibsys.load-test.threads=8]
+ *     [-Dlibsys.load-test.tracing=off|sampled|all]
+ * Önceki (System.out'lu) controller ile karşılaştırmak için BookController.java'nın eski sürümü
+ * geri alınıp aynı komut çalıştırılır; test sadece controller constructor'ına bağlıdır.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "libsys.load-test", matches = "true")
+class BookListThroughputBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("libsys.load-test.requests", 100_000);
+    private static final int THREADS = Integer.getInteger("libsys.load-test.threads", Runtime.getRuntime().availableProcessors());
+    private static final String TRACING = System.getProperty("libsys.load-test.tracing", "off");
+    private static final int PAGE_SIZE = 20;
+
+    @Test
+    void listBooksThroughput() throws Exception {
+        MockMvc mockMvc = mockMvc();
+
+        run(mockMvc, Math.min(10_000, REQUESTS / 10));
+
+        long start = System.nanoTime();
+        int failures = run(mockMvc, REQUESTS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.printf("GET /api/books yük testi: tracing=%s, thread=%d, istek=%d, süre=%d ms, istek/s=%.0f%n",
+                TRACING, THREADS, REQUESTS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                REQUESTS / (elapsedNanos / 1e9));
+
+        assertEquals(0, failures, "Başarısız istek sayısı");
+    }
+
+    private static int run(MockMvc mockMvc, int requests) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        int status = mockMvc.perform(get("/api/books").param("size", String.valueOf(PAGE_SIZE)))
+                                .andReturn().getResponse().getStatus();
+                        if (status != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(10, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return failures.get();
+    }
+
+    private static MockMvc mockMvc() {
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE + 1; id++) {
+            Book book = new Book();
+            book.setId(id);
+            book.setTitle("Kitap " + id);
+            book.setAuthor("Yazar " + id);
+            book.setYear(2000 + (int) (id % 20));
+            book.setCategory("Roman");
+            books.add(book);
+        }
+
+        BookService bookService = mock(BookService.class);
+        StockService stockService = mock(StockService.class);
+        when(bookService.getBooksPage(anyLong(), anyInt())).thenReturn(books);
+        when(stockService.getBookStocks(anyCollection())).thenReturn(Map.of());
+
+        BookController controller = new BookController(bookService, stockService,
+                mock(BookRepository.class), mock(JsonStreamExporter.class));
+
+        StandaloneMockMvcBuilder builder = MockMvcBuilders.standaloneSetup(controller);
+        if (!"off".equals(TRACING)) {
+            RequestTracingFilter tracingFilter = new RequestTracingFilter();
+            ReflectionTestUtils.setField(tracingFilter, "sampleRate", "all".equals(TRACING) ? 1.0 : 0.01);
+            ReflectionTestUtils.setField(tracingFilter, "slowRequestMs", 1000L);
+            builder.addFilters(tracingFilter);
+        }
+        return builder.build();
+    }
+}
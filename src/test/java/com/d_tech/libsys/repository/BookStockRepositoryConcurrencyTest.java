@@ -0,0 +1,123 @@
+package com.d_tech.libsys.repository;
+
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.domain.model.BookStock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Atomik stok azaltmanın eşzamanlı isteklerde eksi stok (oversell) üretmediğini doğrular
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookStockRepositoryConcurrencyTest {
+
+    private static final int INITIAL_QUANTITY = 500;
+    private static final int DECREMENT_REQUESTS = 5000;
+    private static final int THREADS = 32;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStockRepository bookStockRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookStockRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void parallelDecrementsNeverOversell() throws Exception {
+        Long bookId = createStock(INITIAL_QUANTITY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < DECREMENT_REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (bookStockRepository.decreaseStockIfAvailable(bookId, 1) == 1) {
+                    succeeded.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        BookStock stock = bookStockRepository.findByBookId(bookId).orElseThrow();
+        assertEquals(INITIAL_QUANTITY, succeeded.get());
+        assertEquals(DECREMENT_REQUESTS - INITIAL_QUANTITY, rejected.get());
+        assertEquals(0, stock.getCurrentQuantity());
+        assertEquals(BookStock.StockStatus.OUT_OF_STOCK, stock.getStatus());
+    }
+
+    @Test
+    void decrementLargerThanStockIsRejectedAndStatusIsRecomputed() {
+        Long bookId = createStock(15);
+
+        assertEquals(0, bookStockRepository.decreaseStockIfAvailable(bookId, 16));
+        assertEquals(1, bookStockRepository.decreaseStockIfAvailable(bookId, 6));
+
+        BookStock stock = bookStockRepository.findByBookId(bookId).orElseThrow();
+        assertEquals(9, stock.getCurrentQuantity());
+        assertEquals(BookStock.StockStatus.LOW_STOCK, stock.getStatus());
+    }
+
+    private Long createStock(int quantity) {
+        Book book = new Book();
+        book.setTitle("Eşzamanlılık Testi");
+        book.setAuthor("Test");
+        book = bookRepository.save(book);
+
+        bookStockRepository.save(BookStock.builder()
+                .book(book)
+                .currentQuantity(quantity)
+                .unitPrice(new BigDecimal("10.00"))
+                .build());
+        return book.getId();
+    }
+}
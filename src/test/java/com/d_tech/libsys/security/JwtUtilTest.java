@@ -0,0 +1,109 @@
+package com.d_tech.libsys.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rollerin token'dan geri kurulduğunu ve doğrulanmış token'ların önbellekten döndüğünü doğrular
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "testLibSysSecretKey1234567890123456789012345678901234567890";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 2, false);
+
+    private static UserDetails user(String username, String... roles) {
+        return User.withUsername(username).password("secret").roles(roles).build();
+    }
+
+    @Test
+    void resolvesPrincipalWithRolesFromClaims() {
+        String token = jwtUtil.generateToken(user("alice", "ADMIN", "USER"));
+
+        UserDetails principal = jwtUtil.resolvePrincipal(token).orElseThrow();
+
+        assertEquals("alice", principal.getUsername());
+        Set<String> authorities = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), authorities);
+    }
+
+    @Test
+    void returnsCachedPrincipalForSameToken() {
+        String token = jwtUtil.generateToken(user("bob", "USER"));
+
+        UserDetails first = jwtUtil.resolvePrincipal(token).orElseThrow();
+        UserDetails second = jwtUtil.resolvePrincipal(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = jwtUtil.generateToken(user("carol", "USER"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String foreign = new JwtUtil("", 60_000, 2, false).generateToken(user("carol", "ADMIN"));
+
+        assertEquals(Optional.empty(), jwtUtil.resolvePrincipal(tampered));
+        assertEquals(Optional.empty(), jwtUtil.resolvePrincipal(foreign));
+        assertFalse(jwtUtil.validateToken("not-a-jwt"));
+    }
+
+    @Test
+    void refusesShortSecret() {
+        assertThrows(IllegalStateException.class, () -> new JwtUtil("too-short", 60_000, 2, false));
+    }
+
+    @Test
+    void refusesMissingSecretWhenRequired() {
+        assertThrows(IllegalStateException.class, () -> new JwtUtil("", 60_000, 2, true));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtUtil shortLived = new JwtUtil(SECRET, -1_000, 2, false);
+        String token = shortLived.generateToken(user("dave", "USER"));
+
+        assertFalse(shortLived.validateToken(token));
+    }
+
+    @Test
+    void dropsExpiredEntriesFromCache() throws InterruptedException {
+        JwtUtil shortLived = new JwtUtil(SECRET, 1_000, 2, false);
+        String token = shortLived.generateToken(user("erin", "USER"));
+        assertTrue(shortLived.validateToken(token));
+        assertEquals(1, shortLived.cachedTokenCount());
+
+        Thread.sleep(1_100);
+
+        assertFalse(shortLived.validateToken(token));
+        assertEquals(0, shortLived.cachedTokenCount());
+    }
+
+    @Test
+    void evictsOldestEntriesBeyondCapacity() {
+        String first = jwtUtil.generateToken(user("u1", "USER"));
+        UserDetails cached = jwtUtil.resolvePrincipal(first).orElseThrow();
+
+        jwtUtil.resolvePrincipal(jwtUtil.generateToken(user("u2", "USER")));
+        jwtUtil.resolvePrincipal(jwtUtil.generateToken(user("u3", "USER")));
+
+        // İlk kayıt atıldığı için token yeniden doğrulanır ve yeni bir nesne döner
+        UserDetails reparsed = jwtUtil.resolvePrincipal(first).orElseThrow();
+        assertTrue(cached != reparsed);
+        assertEquals("u1", reparsed.getUsername());
+    }
+}
@@ -0,0 +1,63 @@
+package com.d_tech.libsys.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hatalı giriş sınırına ulaşan kullanıcının kilitlendiğini ve başarılı girişin sayacı sıfırladığını doğrular
+ */
+class LoginAttemptLimiterTest {
+
+    private final LoginAttemptLimiter limiter = new LoginAttemptLimiter(3, 300, 60, 2);
+
+    @Test
+    void locksAfterMaxFailures() {
+        limiter.recordFailure("alice");
+        limiter.recordFailure("Alice");
+        assertEquals(0, limiter.remainingLockMs("alice"));
+
+        limiter.recordFailure("ALICE ");
+
+        assertTrue(limiter.remainingLockMs("alice") > 0);
+        assertEquals(0, limiter.remainingLockMs("bob"));
+    }
+
+    @Test
+    void successResetsFailures() {
+        limiter.recordFailure("carol");
+        limiter.recordFailure("carol");
+        limiter.recordSuccess("carol");
+        limiter.recordFailure("carol");
+        limiter.recordFailure("carol");
+
+        assertEquals(0, limiter.remainingLockMs("carol"));
+    }
+
+    @Test
+    void inFlightAttemptsCountTowardLimit() {
+        assertEquals(0, limiter.tryAcquire("dave"));
+        assertEquals(0, limiter.tryAcquire("dave"));
+        assertEquals(0, limiter.tryAcquire("dave"));
+        assertTrue(limiter.tryAcquire("dave") > 0);
+
+        limiter.recordSuccess("dave");
+        assertEquals(0, limiter.tryAcquire("dave"));
+    }
+
+    @Test
+    void boundsTrackedUsernames() {
+        limiter.recordFailure("erin");
+        limiter.recordFailure("erin");
+        limiter.recordFailure("erin");
+        assertEquals(0, limiter.tryAcquire("frank"));
+
+        // Tablo dolu: kilitli ve in-flight kayıtlar atılamaz, yeni ad reddedilir
+        assertTrue(limiter.tryAcquire("ghost") > 0);
+
+        limiter.release("frank");
+        assertEquals(0, limiter.tryAcquire("ghost"));
+        assertTrue(limiter.remainingLockMs("erin") > 0);
+    }
+}
@@ -0,0 +1,173 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * İndeks destekli aramanın ekleme/güncelleme/silme sonrası güncel kaldığını ve
+ * sonuçların alanlar üzerinde "contains" taramasıyla birebir aynı olduğunu doğrular
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookSearchIndexTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    @Import({BookSearchIndex.class, BookServiceImpl.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookService bookService;
+
+    @BeforeEach
+    void buildEmptyIndex() {
+        bookSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void findsShortLongAndPunctuatedQueriesInAnyField() {
+        Book harry = bookService.saveBook(book("Harry Potter", "J.K. Rowling", "Fantastik", "Büyücülük okulu"));
+        Book csharp = bookService.saveBook(book("C# in Depth", "Jon Skeet", "Programlama",
+                "Advanced programming with C# and .NET"));
+
+        assertEquals(Set.of(harry.getId(), csharp.getId()), idsOf(bookService.searchBooks("r")));
+        assertEquals(Set.of(harry.getId()), idsOf(bookService.searchBooks("ar")));
+        assertEquals(Set.of(csharp.getId()), idsOf(bookService.searchBooks("c#")));
+        assertEquals(Set.of(csharp.getId()), idsOf(bookService.searchBooks(".net")));
+        assertEquals(Set.of(harry.getId()), idsOf(bookService.searchBooks("j.k.")));
+        // Açıklamada kelime ortası eşleşme
+        assertEquals(Set.of(csharp.getId()), idsOf(bookService.searchBooks("vanced progr")));
+        assertEquals(Set.of(harry.getId()), idsOf(bookService.searchBooks("ücülük")));
+        assertEquals(Set.of(), idsOf(bookService.searchBooks("potter skeet")));
+    }
+
+    @Test
+    void updateReplacesOldValuesInIndex() {
+        Book book = bookService.saveBook(book("Eski Başlık", "Yazar", null, null));
+        Book details = book("Yeni Başlık", "Başka Yazar", null, null);
+
+        bookService.updateBook(book.getId(), details);
+
+        assertEquals(Set.of(), idsOf(bookService.searchBooks("eski")));
+        assertEquals(Set.of(book.getId()), idsOf(bookService.searchBooks("yeni")));
+        assertEquals(Set.of(book.getId()), idsOf(bookService.searchBooks("başka")));
+    }
+
+    @Test
+    void saveOfExistingBookReindexesWithoutStaleEntries() {
+        Book book = bookService.saveBook(book("Birinci", "Yazar", null, "ilk açıklama"));
+        book.setDescription("ikinci açıklama");
+
+        bookService.saveBook(book);
+
+        assertEquals(Set.of(), bookSearchIndex.findCandidates("ilk"));
+        assertEquals(Set.of(book.getId()), idsOf(bookService.searchBooks("ikinci")));
+    }
+
+    @Test
+    void deleteRemovesBookFromIndex() {
+        Book book = bookService.saveBook(book("Silinecek Kitap", "Yazar", null, null));
+
+        assertTrue(bookService.deleteBook(book.getId()));
+
+        assertEquals(Set.of(), bookSearchIndex.findCandidates("silinecek"));
+        assertEquals(Set.of(), bookSearchIndex.findCandidates("s"));
+    }
+
+    @Test
+    void resultsMatchContainsScanForRandomQueries() {
+        Random random = new Random(42);
+        String alphabet = "abcçdeğıiosşu #.-+";
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            books.add(bookService.saveBook(book(randomText(random, alphabet, 12), randomText(random, alphabet, 8),
+                    random.nextBoolean() ? randomText(random, alphabet, 6) : null, randomText(random, alphabet, 40))));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String query;
+            if (random.nextBoolean()) {
+                // Mevcut bir alandan alt dize: en az bir sonuç beklenir
+                String text = BookSearchIndex.normalize(books.get(random.nextInt(books.size())).getDescription());
+                if (text.isEmpty()) {
+                    continue;
+                }
+                int start = random.nextInt(text.length());
+                query = text.substring(start, Math.min(text.length(), start + 1 + random.nextInt(6)));
+            } else {
+                query = randomText(random, alphabet, 1 + random.nextInt(5));
+            }
+
+            Set<Long> expected = containsScan(books, BookSearchIndex.normalize(query));
+            assertEquals(expected, idsOf(bookService.searchBooks(query)), "query='" + query + "'");
+            assertTrue(bookSearchIndex.findCandidates(query).containsAll(expected), "query='" + query + "'");
+        }
+    }
+
+    private static Set<Long> containsScan(List<Book> books, String normalizedQuery) {
+        if (normalizedQuery.isEmpty()) {
+            return Set.of();
+        }
+        return books.stream()
+                .filter(book -> Stream.of(book.getTitle(), book.getAuthor(), book.getCategory(), book.getDescription())
+                        .anyMatch(field -> BookSearchIndex.normalize(field).contains(normalizedQuery)))
+                .map(Book::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            text.append(random.nextInt(4) == 0 ? Character.toUpperCase(c) : c);
+        }
+        return text.toString();
+    }
+
+    private static Set<Long> idsOf(List<Book> books) {
+        return books.stream().map(Book::getId).collect(Collectors.toSet());
+    }
+
+    private static Book book(String title, String author, String category, String description) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setCategory(category);
+        book.setDescription(description);
+        return book;
+    }
+}
@@ -0,0 +1,141 @@
+package com.d_tech.libsys.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Çok üreticili halka tamponda kayıp/tekrar olmadığını, üretici başına sıranın korunduğunu
+ * ve dolu tamponda offer'ın false döndüğünü doğrular
+ */
+class EventRingBufferTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int PER_PRODUCER = 200_000;
+
+    @Test
+    void multipleProducersDeliverEverythingOnceInPerProducerOrder() throws Exception {
+        EventRingBuffer<long[]> ring = new EventRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            long producer = p;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long sequence = 0; sequence < PER_PRODUCER; sequence++) {
+                    long[] element = {producer, sequence};
+                    // Tampon doluyken geri basınç: tüketici yer açana kadar tekrar dene
+                    while (!ring.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Tek tüketici (bus'taki shard worker'ı gibi): her üreticiden bir sonraki beklenen sıra numarası
+        long[] nextExpected = new long[PRODUCERS];
+        long received = 0;
+        long total = (long) PRODUCERS * PER_PRODUCER;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        start.countDown();
+        while (received < total) {
+            long[] element = ring.poll();
+            if (element == null) {
+                assertTrue(System.nanoTime() < deadline, "Zaman aşımı, alınan=" + received);
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) element[0];
+            // Beklenenden küçük = tekrar, büyük = kayıp veya sıra bozulması
+            assertEquals(nextExpected[producer], element[1], "producer=" + producer);
+            nextExpected[producer]++;
+            received++;
+        }
+
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            assertEquals(PER_PRODUCER, nextExpected[p]);
+        }
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void offerReturnsFalseWhenFullAndAcceptsAgainAfterPoll() {
+        EventRingBuffer<Integer> ring = new EventRingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        assertFalse(ring.offer(5));
+
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void concurrentProducersOnFullBufferAcceptExactlyCapacity() throws Exception {
+        EventRingBuffer<Integer> ring = new EventRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (ring.offer(i)) {
+                        accepted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(ring.capacity(), accepted.get());
+        assertEquals(PRODUCERS * 1000 - ring.capacity(), rejected.get());
+        assertEquals(ring.capacity(), ring.size());
+
+        int drained = 0;
+        while (ring.poll() != null) {
+            drained++;
+        }
+        assertEquals(ring.capacity(), drained);
+    }
+}
@@ -0,0 +1,60 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.RegistrationEvent;
+import com.d_tech.libsys.repository.RegistrationEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Durum sayaçlarının tek GROUP BY sorgusuyla doğru yüklendiğini doğrular
+ */
+@DataJpaTest
+class EventStatusCountersTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = RegistrationEvent.class)
+    @EnableJpaRepositories(basePackageClasses = RegistrationEventRepository.class)
+    @Import(EventStatusCounters.class)
+    static class TestConfig {
+    }
+
+    @Autowired
+    private RegistrationEventRepository eventRepository;
+
+    @Autowired
+    private EventStatusCounters statusCounters;
+
+    @Test
+    void loadsCountsPerStatus() {
+        save(RegistrationEvent.EventStatus.PENDING, 3);
+        save(RegistrationEvent.EventStatus.COMPLETED, 5);
+        save(RegistrationEvent.EventStatus.FAILED, 1);
+
+        statusCounters.resync();
+        long[] counts = statusCounters.snapshot();
+
+        assertEquals(3, statusCounters.get(counts, RegistrationEvent.EventStatus.PENDING));
+        assertEquals(0, statusCounters.get(counts, RegistrationEvent.EventStatus.PROCESSING));
+        assertEquals(5, statusCounters.get(counts, RegistrationEvent.EventStatus.COMPLETED));
+        assertEquals(1, statusCounters.get(counts, RegistrationEvent.EventStatus.FAILED));
+        assertEquals(0, statusCounters.get(counts, RegistrationEvent.EventStatus.RETRY));
+    }
+
+    private void save(RegistrationEvent.EventStatus status, int count) {
+        for (int i = 0; i < count; i++) {
+            eventRepository.save(RegistrationEvent.builder()
+                    .eventId(status + "_" + i)
+                    .username("user" + i)
+                    .status(status)
+                    .retryCount(0)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.RegistrationEvent;
+import com.d_tech.libsys.repository.RegistrationEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Takılı kalan event'lerin batch'ler halinde FAILED yapıldığını, yeni ve tamamlanmış event'lere dokunulmadığını doğrular
+ */
+@DataJpaTest(properties = "app.events.cleanup.batch-size=2")
+class EventTrackingServiceCleanupTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = RegistrationEvent.class)
+    @EnableJpaRepositories(basePackageClasses = RegistrationEventRepository.class)
+    @Import({EventTrackingService.class, EventStatusCounters.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private RegistrationEventRepository eventRepository;
+
+    @Autowired
+    private EventTrackingService eventTrackingService;
+
+    @Test
+    void marksStaleEventsFailedInBatches() {
+        LocalDateTime stale = LocalDateTime.now().minusHours(3);
+        LocalDateTime fresh = LocalDateTime.now().minusMinutes(5);
+
+        for (int i = 0; i < 5; i++) {
+            save("STALE_PENDING_" + i, RegistrationEvent.EventStatus.PENDING, stale);
+        }
+        for (int i = 0; i < 3; i++) {
+            save("STALE_PROCESSING_" + i, RegistrationEvent.EventStatus.PROCESSING, stale);
+        }
+        save("FRESH_PENDING", RegistrationEvent.EventStatus.PENDING, fresh);
+        save("OLD_COMPLETED", RegistrationEvent.EventStatus.COMPLETED, stale);
+
+        eventTrackingService.cleanupStaleEvents();
+
+        assertEquals(8, eventRepository.findByStatus(RegistrationEvent.EventStatus.FAILED).size());
+        assertEquals(RegistrationEvent.EventStatus.PENDING, status("FRESH_PENDING"));
+        assertEquals(RegistrationEvent.EventStatus.COMPLETED, status("OLD_COMPLETED"));
+        assertNotNull(eventRepository.findByEventId("STALE_PROCESSING_0").orElseThrow().getCompletedAt());
+    }
+
+    private void save(String eventId, RegistrationEvent.EventStatus status, LocalDateTime createdAt) {
+        eventRepository.save(RegistrationEvent.builder()
+                .eventId(eventId)
+                .username("user")
+                .status(status)
+                .retryCount(0)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private RegistrationEvent.EventStatus status(String eventId) {
+        return eventRepository.findByEventId(eventId).orElseThrow().getStatus();
+    }
+}
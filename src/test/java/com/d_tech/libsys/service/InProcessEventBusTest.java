@@ -0,0 +1,158 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.dto.UserRegistrationEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Park etmiş worker'ın gönderimle hemen uyandığını (park zaman aşımı beklenmeden) ve
+ * çok üreticili gönderimde event'lerin kayıpsız, anahtar başına sırayla işlendiğini doğrular
+ */
+class InProcessEventBusTest {
+
+    // Uyandırma çalışmazsa event ancak bu süre sonunda alınır; testler çok daha kısa süre bekler
+    private static final long PARK_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long DELIVERY_TIMEOUT_SECONDS = 5;
+    private static final int WORKERS = 2;
+
+    private final Map<String, List<Integer>> receivedByUser = new ConcurrentHashMap<>();
+    private volatile CountDownLatch delivered;
+    private InProcessEventBus bus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UserRegistrationConsumer consumer = mock(UserRegistrationConsumer.class);
+        doAnswer(invocation -> {
+            UserRegistrationEvent event = invocation.getArgument(0);
+            receivedByUser.computeIfAbsent(event.getUsername(), username -> new ArrayList<>())
+                    .add(sequenceOf(event));
+            delivered.countDown();
+            return null;
+        }).when(consumer).handleUserRegistration(any(), anyInt(), anyLong());
+
+        ObjectProvider<UserRegistrationConsumer> consumerProvider = mock(ObjectProvider.class);
+        when(consumerProvider.getObject()).thenReturn(consumer);
+
+        bus = new InProcessEventBus(mock(ObjectProvider.class), mock(ObjectProvider.class),
+                mock(ObjectProvider.class), consumerProvider, WORKERS, 8192, PARK_NANOS);
+        bus.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bus.shutdown();
+    }
+
+    @Test
+    void parkedWorkerIsWokenBySend() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            delivered = new CountDownLatch(1);
+            awaitAllWorkersParked();
+
+            assertTrue(bus.sendUserRegistrationEvent(event("user-" + round, round)).join());
+
+            assertTrue(delivered.await(DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS), "round=" + round);
+        }
+        assertEquals(20, receivedByUser.size());
+    }
+
+    @Test
+    void concurrentProducersDeliverEveryEventOnceInPerKeyOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        delivered = new CountDownLatch(producers * perProducer);
+        awaitAllWorkersParked();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String username = "producer-" + p;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int sequence = 0; sequence < perProducer; sequence++) {
+                    // Tampon doluysa gönderim reddedilir; aynı event tekrar denenir (sıra bozulmaz)
+                    while (!bus.sendUserRegistrationEvent(event(username, sequence)).join()) {
+                        Thread.onSpinWait();
+                    }
+                    // Ara sıra bekleyerek worker'ların tekrar park edip uyandırılmasını sağla
+                    if (sequence % 500 == 0) {
+                        Thread.sleep(2);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(delivered.await(DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                "İşlenmeyen event sayısı: " + delivered.getCount());
+        assertEquals(producers, receivedByUser.size());
+        for (Map.Entry<String, List<Integer>> entry : receivedByUser.entrySet()) {
+            List<Integer> sequences = entry.getValue();
+            assertEquals(perProducer, sequences.size(), entry.getKey());
+            for (int i = 0; i < perProducer; i++) {
+                assertEquals(i, sequences.get(i), entry.getKey());
+            }
+        }
+    }
+
+    // 🚀 Yardımcı metodlar
+
+    /**
+     * Worker'lar bus'ı blocker olarak park eder; hepsi park edene kadar bekler
+     */
+    private void awaitAllWorkersParked() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DELIVERY_TIMEOUT_SECONDS);
+        while (parkedWorkerCount() < WORKERS) {
+            assertTrue(System.nanoTime() < deadline, "Worker'lar park etmedi");
+            Thread.sleep(1);
+        }
+    }
+
+    private long parkedWorkerCount() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("event-bus-worker-"))
+                .filter(thread -> LockSupport.getBlocker(thread) == bus)
+                .count();
+    }
+
+    private static UserRegistrationEvent event(String username, int sequence) {
+        return UserRegistrationEvent.builder()
+                .eventId(username + ":" + sequence)
+                .username(username)
+                .build();
+    }
+
+    private static int sequenceOf(UserRegistrationEvent event) {
+        String eventId = event.getEventId();
+        return Integer.parseInt(eventId.substring(eventId.lastIndexOf(':') + 1));
+    }
+}
@@ -0,0 +1,104 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.config.KafkaConfig;
+import com.d_tech.libsys.dto.StockControlEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * KafkaProducerService üzerinden gömülü broker'a yük üretir; event/s ve p99 ack gecikmesini raporlar
+ *
+ * Normal test koşusunda çalışmaz:
+ * mvn test -Dtest=KafkaProducerLoadGenerator -Dlibsys.load-test=true [-Dlibsys.load-test.events=200000]
+ * Varsayılan olarak "throughput" profiliyle koşar; karşılaştırma için ayarlar sistem property'si olarak
+ * ezilebilir (ör. -Dapp.kafka.producer.idempotence=false -Dapp.kafka.producer.linger-ms=0).
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "libsys.load-test", matches = "true")
+@SpringBootTest(
+        classes = {KafkaConfig.class, KafkaProducerService.class, EventMetrics.class, SimpleMeterRegistry.class},
+        properties = {
+                "app.kafka.enabled=true",
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+        })
+@ActiveProfiles("throughput")
+@EmbeddedKafka(partitions = 3, topics = "stock-control-topic")
+class KafkaProducerLoadGenerator {
+
+    private static final int EVENTS = Integer.getInteger("libsys.load-test.events", 100_000);
+    private static final int WARMUP_EVENTS = Math.min(10_000, EVENTS / 10);
+    private static final int BOOKS = 1_000;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Test
+    void stockEventThroughput() throws Exception {
+        run(WARMUP_EVENTS);
+
+        long[] latenciesNanos = new long[EVENTS];
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[EVENTS];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            int index = i;
+            long sentAt = System.nanoTime();
+            futures[i] = kafkaProducerService.sendStockEvent(event(i)).thenAccept(sent -> {
+                latenciesNanos[index] = System.nanoTime() - sentAt;
+                if (!sent) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        CompletableFuture.allOf(futures).get(5, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latenciesNanos);
+        System.out.printf("Producer yük testi: event=%d, süre=%d ms, event/s=%.0f, p50=%.2f ms, p99=%.2f ms, max=%.2f ms%n",
+                EVENTS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                EVENTS / (elapsedNanos / 1e9),
+                percentileMillis(latenciesNanos, 0.50),
+                percentileMillis(latenciesNanos, 0.99),
+                latenciesNanos[EVENTS - 1] / 1e6);
+
+        assertEquals(0, failures.get(), "Gönderilemeyen event sayısı");
+    }
+
+    private void run(int events) throws Exception {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[events];
+        for (int i = 0; i < events; i++) {
+            futures[i] = kafkaProducerService.sendStockEvent(event(i));
+        }
+        CompletableFuture.allOf(futures).get(1, TimeUnit.MINUTES);
+    }
+
+    private static StockControlEvent event(int i) {
+        return StockControlEvent.builder()
+                .eventId("LOAD_" + i)
+                .eventType(StockControlEvent.EventType.STOCK_INCREASE)
+                .bookId((long) (i % BOOKS) + 1)
+                .quantity(1)
+                .userId("load-generator")
+                .build();
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,153 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.domain.model.StockOrder;
+import com.d_tech.libsys.repository.BookRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * StockOrderService.getOrderById için bulunan (hit) ve bulunamayan (miss) siparişlerde p50/p99 gecikmesini ölçer
+ *
+ * Normal test koşusunda çalışmaz:
+ * mvn test -Dtest=StockOrderLookupBenchmark -Dlibsys.load-test=true
+ *     [-Dlibsys.load-test.orders=1000000] [-Dlibsys.load-test.items-per-order=2] [-Dlibsys.load-test.lookups=20000]
+ * Siparişler JDBC batch ile H2'ye (bellek içi) yazılır; gerçek veritabanı için datasource property'leri ezilebilir.
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "libsys.load-test", matches = "true")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-lookup;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockOrderLookupBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("libsys.load-test.orders", 1_000_000);
+    private static final int ITEMS_PER_ORDER = Integer.getInteger("libsys.load-test.items-per-order", 2);
+    private static final int LOOKUPS = Integer.getInteger("libsys.load-test.lookups", 20_000);
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("10.00");
+
+    @Configuration
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    @Import(StockOrderService.class)
+    static class TestConfig {
+    }
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private StockOrderService stockOrderService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void getOrderByIdLatency() {
+        long seedStart = System.nanoTime();
+        seed();
+        System.out.printf("Sipariş verisi hazırlandı: sipariş=%d, kalem=%d, süre=%d ms%n",
+                ORDERS, (long) ORDERS * ITEMS_PER_ORDER, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+        // Isınma: JIT, bağlantı havuzu ve sorgu planı önbelleği
+        measure(Math.min(10_000, LOOKUPS), true);
+        measure(Math.min(10_000, LOOKUPS), false);
+
+        report("hit", measure(LOOKUPS, true));
+        report("miss", measure(LOOKUPS, false));
+    }
+
+    private long[] measure(int lookups, boolean hit) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latenciesNanos = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long orderId = hit ? random.nextLong(1, ORDERS + 1L) : random.nextLong(ORDERS + 1L, 2L * ORDERS + 1);
+
+            long start = System.nanoTime();
+            Optional<StockOrder> order = stockOrderService.getOrderById(orderId);
+            latenciesNanos[i] = System.nanoTime() - start;
+
+            assertEquals(hit, order.isPresent(), "orderId=" + orderId);
+            if (hit) {
+                assertEquals(ITEMS_PER_ORDER, order.get().getOrderItems().size());
+            }
+        }
+        return latenciesNanos;
+    }
+
+    private static void report(String label, long[] latenciesNanos) {
+        Arrays.sort(latenciesNanos);
+        System.out.printf("getOrderById (%s): sipariş=%d, istek=%d, p50=%.3f ms, p99=%.3f ms, p99.9=%.3f ms, max=%.3f ms%n",
+                label, ORDERS, latenciesNanos.length,
+                percentileMillis(latenciesNanos, 0.50),
+                percentileMillis(latenciesNanos, 0.99),
+                percentileMillis(latenciesNanos, 0.999),
+                latenciesNanos[latenciesNanos.length - 1] / 1e6);
+    }
+
+    private void seed() {
+        Book book = new Book();
+        book.setTitle("Gecikme Testi");
+        book.setAuthor("Test");
+        Long bookId = bookRepository.save(book).getId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> orders = new ArrayList<>(INSERT_BATCH_SIZE);
+        List<Object[]> items = new ArrayList<>(INSERT_BATCH_SIZE * ITEMS_PER_ORDER);
+        long itemId = 1;
+        for (long orderId = 1; orderId <= ORDERS; orderId++) {
+            orders.add(new Object[]{orderId, "ORD-" + orderId, "Tedarikçi " + (orderId % 100), now, "PENDING", "load-test", now});
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                items.add(new Object[]{itemId++, orderId, bookId, 1 + i, UNIT_PRICE});
+            }
+            if (orders.size() == INSERT_BATCH_SIZE || orderId == ORDERS) {
+                jdbcTemplate.batchUpdate("INSERT INTO stock_orders " +
+                        "(id, order_number, supplier_name, order_date, status, created_by, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+                jdbcTemplate.batchUpdate("INSERT INTO stock_order_items " +
+                        "(id, stock_order_id, book_id, quantity, unit_price) VALUES (?, ?, ?, ?, ?)", items);
+                orders.clear();
+                items.clear();
+            }
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
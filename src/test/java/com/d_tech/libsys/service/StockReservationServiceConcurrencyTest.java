@@ -0,0 +1,178 @@
+package com.d_tech.libsys.service;
+
+import com.d_tech.libsys.domain.model.Book;
+import com.d_tech.libsys.domain.model.BookStock;
+import com.d_tech.libsys.dto.StockReservation;
+import com.d_tech.libsys.repository.BookRepository;
+import com.d_tech.libsys.repository.BookStockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eşzamanlı onaylarda stoğun atomik düşüldüğünü ve düşülemeyen onayların FAILED olarak reddedildiğini doğrular
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Book.class)
+    @EnableJpaRepositories(basePackageClasses = BookRepository.class)
+    @Import({StockService.class, StockReservationService.class})
+    static class TestConfig {
+    }
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @MockBean
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStockRepository bookStockRepository;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @AfterEach
+    void cleanUp() {
+        bookStockRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void parallelReserveAndConfirmNeverOversell() throws Exception {
+        Long bookId = createStock(100);
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(1000, () -> {
+            try {
+                StockReservation reservation = stockReservationService.reserve(bookId, 1, "user");
+                stockReservationService.confirm(reservation.getReservationId());
+                confirmed.incrementAndGet();
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(100, confirmed.get());
+        assertEquals(900, rejected.get());
+        assertEquals(0, bookStockRepository.findByBookId(bookId).orElseThrow().getCurrentQuantity());
+        assertEquals(0, stockReservationService.getAvailableQuantity(bookId));
+    }
+
+    @Test
+    void confirmsBeyondRemainingStockFailInsteadOfBeingDropped() throws Exception {
+        Long bookId = createStock(50);
+        List<StockReservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            reservations.add(stockReservationService.reserve(bookId, 1, "user"));
+        }
+
+        // Stok rezervasyonlar dışından (ör. doğrudan stok azaltma event'i) 20 azalır
+        assertEquals(1, bookStockRepository.decreaseStockIfAvailable(bookId, 20));
+
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (StockReservation reservation : reservations) {
+            tasks.add(() -> {
+                try {
+                    stockReservationService.confirm(reservation.getReservationId());
+                    confirmed.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        runConcurrently(tasks);
+
+        assertEquals(30, confirmed.get());
+        assertEquals(20, failed.get());
+        assertEquals(20, reservations.stream()
+                .filter(reservation -> reservation.getStatus() == StockReservation.ReservationStatus.FAILED)
+                .count());
+        assertTrue(reservations.stream()
+                .allMatch(reservation -> stockReservationService.getReservation(reservation.getReservationId()).isEmpty()));
+
+        BookStock stock = bookStockRepository.findByBookId(bookId).orElseThrow();
+        assertEquals(0, stock.getCurrentQuantity());
+        assertEquals(0, stockReservationService.getAvailableQuantity(bookId));
+    }
+
+    private void runConcurrently(int count, Runnable task) throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(task);
+        }
+        runConcurrently(tasks);
+    }
+
+    private void runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private Long createStock(int quantity) {
+        Book book = new Book();
+        book.setTitle("Rezervasyon Testi");
+        book.setAuthor("Test");
+        book = bookRepository.save(book);
+
+        bookStockRepository.save(BookStock.builder()
+                .book(book)
+                .currentQuantity(quantity)
+                .unitPrice(new BigDecimal("10.00"))
+                .build());
+        return book.getId();
+    }
+}